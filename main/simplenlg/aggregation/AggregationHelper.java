@@ -25,8 +25,8 @@ import java.util.List;
 import simplenlg.features.DiscourseFunction;
 import simplenlg.features.InternalFeature;
 import simplenlg.framework.ElementCategory;
+import simplenlg.framework.ElementCursor;
 import simplenlg.framework.LexicalCategory;
-import simplenlg.framework.ListElement;
 import simplenlg.framework.NLGElement;
 import simplenlg.framework.PhraseCategory;
 
@@ -79,16 +79,16 @@ public class AggregationHelper {
 
 	private static List<NLGElement> getAllChildren(NLGElement element) {
 		List<NLGElement> children = new ArrayList<NLGElement>();
-		List<NLGElement> components = element instanceof ListElement ? element
-				.getFeatureAsElementList(InternalFeature.COMPONENTS) : element
-				.getChildren();
+		ElementCursor cursor = new ElementCursor(element);
+		cursor.next();
 
-		for (NLGElement child : components) {
+		while (cursor.next()) {
+			NLGElement child = cursor.getElement();
 			children.add(child);
 
-			if (child.getCategory() == PhraseCategory.VERB_PHRASE
-					|| child.getFeature(InternalFeature.DISCOURSE_FUNCTION) == DiscourseFunction.VERB_PHRASE) {
-				children.addAll(getAllChildren(child));
+			if (child.getCategory() != PhraseCategory.VERB_PHRASE
+					&& child.getFeature(InternalFeature.DISCOURSE_FUNCTION) != DiscourseFunction.VERB_PHRASE) {
+				cursor.skipChildren();
 			}
 		}
 
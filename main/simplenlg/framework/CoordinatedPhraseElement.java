@@ -58,6 +58,9 @@ public class CoordinatedPhraseElement extends NLGElement {
 	/** Coordinators which make the coordinate plural (eg, "and" but not "or")*/
 	@SuppressWarnings("nls")
 	private static final List<String> PLURAL_COORDINATORS = Arrays.asList("和");
+
+	/** The view of the coordinates, made when the children are first read. */
+	private ElementListView coordinateView = null;
 	
 	/**
 	 * Creates a blank coordinated phrase ready for new coordinates to be added.
@@ -101,7 +104,7 @@ public class CoordinatedPhraseElement extends NLGElement {
 		if (coordinates == null) {
 			coordinates = new ArrayList<NLGElement>();
 			setFeature(InternalFeature.COORDINATES, coordinates);
-			if (getFeatureAsBoolean(Feature.TOPIC)
+			if (getBooleanFeature(Feature.TOPIC)
                     && newCoordinate instanceof NLGElement) {
                 ((NLGElement) newCoordinate).setFeature(Feature.TOPIC, true);
             }
@@ -140,6 +143,34 @@ public class CoordinatedPhraseElement extends NLGElement {
 		return this.getFeatureAsElementList(InternalFeature.COORDINATES);
 	}
 
+	@Override
+	public int getChildCount() {
+		return getChildView().size();
+	}
+
+	@Override
+	public NLGElement getChild(int index) {
+		return getChildView().get(index);
+	}
+
+	/**
+	 * @return a read-only view of the children of this element, which is
+	 *         only made again when the features have been changed.
+	 */
+	private List<NLGElement> getChildView() {
+		if (this.coordinateView == null) {
+			this.coordinateView = new ElementListView(InternalFeature.COORDINATES);
+		}
+		return this.coordinateView.get(this);
+	}
+
+	@Override
+	NLGElement copyElement() {
+		CoordinatedPhraseElement copy = (CoordinatedPhraseElement) super.copyElement();
+		copy.coordinateView = null;
+		return copy;
+	}
+
 	/**
 	 * Clears the existing coordinates in this coordination. It performs exactly
 	 * the same as <code>removeFeature(Feature.COORDINATES)</code>.
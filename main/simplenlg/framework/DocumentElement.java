@@ -52,6 +52,9 @@ public class DocumentElement extends NLGElement {
 	/** The feature relating to the components (or child nodes) of this element. */
 	private static final String FEATURE_COMPONENTS = "textComponents"; //$NON-NLS-1$
 
+	/** The view of the components, made when the children are first read. */
+	private ElementListView componentView = null;
+
 	/**
 	 * The blank constructor. Using this constructor will require manual setting
 	 * of the element's category and title.
@@ -268,6 +271,34 @@ public class DocumentElement extends NLGElement {
 		return getComponents();
 	}
 
+	@Override
+	public int getChildCount() {
+		return getChildView().size();
+	}
+
+	@Override
+	public NLGElement getChild(int index) {
+		return getChildView().get(index);
+	}
+
+	/**
+	 * @return a read-only view of the children of this element, which is
+	 *         only made again when the features have been changed.
+	 */
+	private List<NLGElement> getChildView() {
+		if (this.componentView == null) {
+			this.componentView = new ElementListView(FEATURE_COMPONENTS);
+		}
+		return this.componentView.get(this);
+	}
+
+	@Override
+	NLGElement copyElement() {
+		DocumentElement copy = (DocumentElement) super.copyElement();
+		copy.componentView = null;
+		return copy;
+	}
+
 	/**
 	 * Replaces the existing components with the supplied list of components.
 	 * This is identical to calling:<br>
@@ -282,6 +313,18 @@ public class DocumentElement extends NLGElement {
 		this.setFeature(FEATURE_COMPONENTS, components);
 	}
 
+	/**
+	 * Gets a frozen document element which is the same as this one but has
+	 * the given components, as {@link #withFeature(String, Object)} does.
+	 * 
+	 * @param components
+	 *            the components of the new element.
+	 * @return the new element.
+	 */
+	public DocumentElement withComponents(List<NLGElement> components) {
+		return (DocumentElement) withFeature(FEATURE_COMPONENTS, components);
+	}
+
 	@Override
 	public String printTree(String indent) {
 		String thisIndent = indent == null ? " |-" : indent + " |-"; //$NON-NLS-1$ //$NON-NLS-2$
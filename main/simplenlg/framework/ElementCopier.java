@@ -0,0 +1,247 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.framework;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * This class copies a tree of elements, so that the copy can be changed
+ * without changing the original. The realiser uses it when it is not to
+ * change the trees given to it, as realisation rewrites the features and
+ * components of the elements it works on.
+ * </p>
+ * 
+ * <p>
+ * Every element reached through the features of the root is copied, so
+ * nothing changed in the copy is seen in the original. An element which
+ * appears more than once in the tree is copied once, and the copies refer to
+ * each other wherever the originals did, parent links included. An element
+ * whose parent is not in the tree, as when it is shared by frozen trees, is
+ * given the copy of the element holding it as its parent. Feature maps
+ * which hold no elements are shared with the original until either element
+ * is changed, so copying a word costs little more than creating an empty
+ * element. The fingerprints of elements which are known are given to their
+ * copies rather than worked out again.
+ * </p>
+ * 
+ * <p>
+ * The original tree is only read, so several threads may copy the same tree
+ * at once as long as none of them changes it.
+ * </p>
+ * 
+ * <p>
+ * The same class makes the frozen copies returned by
+ * {@link NLGElement#freeze()}, which differ in that frozen elements in the
+ * tree are kept rather than copied, lists in features are made read-only and
+ * every copy is frozen. Copying a frozen tree with {@link #copy(NLGElement)}
+ * gives a tree which can be changed.
+ * </p>
+ * 
+ * <p>
+ * A tree can also be copied on demand, with
+ * {@link #copyOnDemand(NLGElement)}, which is how the realiser leaves the
+ * trees given to it unchanged. Only the root is copied at first. The
+ * elements held by a copy are copied, in the same way, when the features of
+ * the copy are first read or changed, so elements which are never reached,
+ * such as those below a phrase whose realisation is found in a cache, are
+ * never copied.
+ * </p>
+ */
+public final class ElementCopier {
+
+	/* the copies made so far, keyed by the element copied */
+	private final Map<NLGElement, NLGElement> copies = new IdentityHashMap<NLGElement, NLGElement>();
+
+	/* true if frozen copies are made */
+	private final boolean freezing;
+
+	/* true if the elements held by each copy are copied when needed */
+	private final boolean onDemand;
+
+	private ElementCopier(boolean freezing, boolean onDemand) {
+		// use copy(), copyOnDemand() or freeze()
+		this.freezing = freezing;
+		this.onDemand = onDemand;
+	}
+
+	/**
+	 * Copies a tree of elements. The copy of the root has no parent, even if
+	 * the root has one, as the parent is not part of the tree.
+	 * 
+	 * @param root
+	 *            the root of the tree to copy.
+	 * @return the copy of the root, or <code>null</code> if the root is
+	 *         <code>null</code>.
+	 */
+	public static NLGElement copy(NLGElement root) {
+		return new ElementCopier(false, false).copyOf(root, null);
+	}
+
+	/**
+	 * Copies a tree of elements as it is needed. The copy of the root is made
+	 * straight away, but the elements it holds are those of the original
+	 * until its features are first read or changed, when they are replaced
+	 * by copies made in the same way. The copies of elements which appear
+	 * more than once in the tree are shared as they are by
+	 * {@link #copy(NLGElement)}. The original tree must not be changed while
+	 * the copy is in use.
+	 * 
+	 * @param root
+	 *            the root of the tree to copy.
+	 * @return the copy of the root, or <code>null</code> if the root is
+	 *         <code>null</code>.
+	 */
+	public static NLGElement copyOnDemand(NLGElement root) {
+		return new ElementCopier(false, true).copyOf(root, null);
+	}
+
+	/**
+	 * Makes a frozen copy of a tree of elements, as described in
+	 * {@link NLGElement#freeze()}.
+	 * 
+	 * @param root
+	 *            the root of the tree.
+	 * @return the frozen copy of the root, which is the root itself if it is
+	 *         frozen, or <code>null</code> if the root is <code>null</code>.
+	 */
+	static NLGElement freeze(NLGElement root) {
+		return new ElementCopier(true, false).copyOf(root, null);
+	}
+
+	/**
+	 * Freezes the value of a feature which is to be given to a frozen
+	 * element.
+	 * 
+	 * @param value
+	 *            the value.
+	 * @param holder
+	 *            the element which is to have the feature.
+	 * @return the value with any elements in it replaced by frozen copies.
+	 */
+	static Object freezeValue(Object value, NLGElement holder) {
+		if (value instanceof NLGElement || value instanceof List<?>) {
+			return new ElementCopier(true, false).copyValue(value, holder);
+		}
+		return value;
+	}
+
+	/**
+	 * @param element
+	 *            an element of the tree.
+	 * @param holder
+	 *            the copy of the element which holds this one in its
+	 *            features, or <code>null</code> for the root.
+	 * @return the copy of the element, which is made if it has not been
+	 *         already.
+	 */
+	private NLGElement copyOf(NLGElement element, NLGElement holder) {
+		if (element == null) {
+			return null;
+		}
+		if (this.freezing && element.isFrozen()) {
+			return element;
+		}
+		NLGElement copy = this.copies.get(element);
+		if (copy != null) {
+			return copy;
+		}
+
+		copy = element.copyElement();
+		this.copies.put(element, copy);
+
+		if (this.onDemand) {
+			copy.setPendingCopier(this);
+		} else {
+			FeatureMap copiedFeatures = copyHeldElements(element.features,
+					copy);
+			if (copiedFeatures != null) {
+				copy.setFeatureMap(copiedFeatures);
+			}
+		}
+
+		// the copy is equal to the element, so a known fingerprint is kept
+		// rather than worked out again
+		long fingerprint = element.getKnownFingerprint();
+		if (fingerprint != 0) {
+			copy.setKnownFingerprint(fingerprint);
+		}
+
+		// the parent is copied before its children, so is found if it is in
+		// the tree
+		NLGElement parent = element.getParent();
+		if (parent != null) {
+			NLGElement copiedParent = this.copies.get(parent);
+			copy.setParent(copiedParent != null ? copiedParent : holder);
+		}
+		if (this.freezing) {
+			copy.markFrozen();
+		}
+		return copy;
+	}
+
+	/**
+	 * @param features
+	 *            the features of an element of the tree.
+	 * @param holder
+	 *            the copy of the element.
+	 * @return a copy of the features in which the elements are replaced by
+	 *         their copies, or <code>null</code> if the features hold no
+	 *         elements.
+	 */
+	FeatureMap copyHeldElements(FeatureMap features, NLGElement holder) {
+		FeatureMap copiedFeatures = null;
+		for (Map.Entry<String, Object> entry : features.entrySet()) {
+			Object value = entry.getValue();
+			if (value instanceof NLGElement || value instanceof List<?>) {
+				if (copiedFeatures == null) {
+					copiedFeatures = new FeatureMap(features);
+				}
+				copiedFeatures.put(entry.getKey(), copyValue(value, holder));
+			}
+		}
+		return copiedFeatures;
+	}
+
+	/**
+	 * @param value
+	 *            the value of a feature.
+	 * @param holder
+	 *            the copy of the element which has the feature.
+	 * @return the value with any elements in it replaced by their copies.
+	 */
+	private Object copyValue(Object value, NLGElement holder) {
+		if (value instanceof NLGElement) {
+			return copyOf((NLGElement) value, holder);
+		}
+		List<?> list = (List<?>) value;
+		List<Object> copiedList = new ArrayList<Object>(list.size());
+		for (int i = 0; i < list.size(); i++) {
+			Object item = list.get(i);
+			copiedList.add(item instanceof NLGElement ? copyOf(
+					(NLGElement) item, holder) : item);
+		}
+		return this.freezing ? Collections.unmodifiableList(copiedList)
+				: copiedList;
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.framework;
+
+/**
+ * <p>
+ * A cursor which walks a tree of elements in document order (each element
+ * before its children), eg
+ * </p>
+ * 
+ * <pre>
+ * ElementCursor cursor = new ElementCursor(document);
+ * while (cursor.next()) {
+ * 	NLGElement element = cursor.getElement();
+ * 	...
+ * }
+ * </pre>
+ * 
+ * <p>
+ * The children of an element are read with <code>getChildCount()</code> and
+ * <code>getChild(int)</code>, so no lists of children are built. The cursor
+ * keeps only the path from the root to the current element, in arrays which
+ * grow with the depth of the tree and are kept when the cursor is reset, so a
+ * cursor can walk any number of trees without allocating once it has seen the
+ * deepest of them. Elements do not reliably know their parents, which is why
+ * the path is kept rather than followed back up through
+ * <code>getParent()</code>.
+ * </p>
+ * 
+ * <p>
+ * The tree should not be changed while it is being walked.
+ * </p>
+ */
+public final class ElementCursor {
+
+	private static final int INITIAL_DEPTH = 16;
+
+	/* the root of the tree */
+	private NLGElement root;
+
+	/* the elements from the root to the current element */
+	private NLGElement[] path = new NLGElement[INITIAL_DEPTH];
+
+	/* the index of each element of the path among its parent's children */
+	private int[] indexes = new int[INITIAL_DEPTH];
+
+	/* the depth of the current element, or -1 if there is none */
+	private int depth = -1;
+
+	/* true once the walk has started */
+	private boolean started = false;
+
+	/* true if the children of the current element are to be skipped */
+	private boolean skipChildren = false;
+
+	/**
+	 * Creates a cursor positioned before the given root element.
+	 * 
+	 * @param root
+	 *            the root of the tree to be walked.
+	 */
+	public ElementCursor(NLGElement root) {
+		reset(root);
+	}
+
+	/**
+	 * Positions the cursor before the root of a tree, which may be a
+	 * different tree from the one it was walking.
+	 * 
+	 * @param newRoot
+	 *            the root of the tree to be walked.
+	 */
+	public void reset(NLGElement newRoot) {
+		for (int i = 0; i <= this.depth; i++) {
+			this.path[i] = null;
+		}
+		this.root = newRoot;
+		this.depth = -1;
+		this.started = false;
+		this.skipChildren = false;
+	}
+
+	/**
+	 * Moves the cursor to the next element of the tree.
+	 * 
+	 * @return <code>true</code> if there is a next element, or
+	 *         <code>false</code> if the walk has finished.
+	 */
+	public boolean next() {
+		if (this.depth < 0) {
+			if (this.started || this.root == null) {
+				return false;
+			}
+			this.started = true;
+			this.depth = 0;
+			this.path[0] = this.root;
+			this.indexes[0] = 0;
+			return true;
+		}
+
+		NLGElement current = this.path[this.depth];
+		boolean skip = this.skipChildren;
+		this.skipChildren = false;
+		if (!skip && current.getChildCount() > 0) {
+			push(current.getChild(0));
+			return true;
+		}
+
+		while (this.depth > 0) {
+			NLGElement parent = this.path[this.depth - 1];
+			int index = this.indexes[this.depth] + 1;
+			if (index < parent.getChildCount()) {
+				this.path[this.depth] = parent.getChild(index);
+				this.indexes[this.depth] = index;
+				return true;
+			}
+			this.path[this.depth] = null;
+			this.depth--;
+		}
+		this.path[0] = null;
+		this.depth = -1;
+		return false;
+	}
+
+	/**
+	 * Makes the next call to <code>next()</code> skip the children of the
+	 * current element.
+	 */
+	public void skipChildren() {
+		if (this.depth >= 0) {
+			this.skipChildren = true;
+		}
+	}
+
+	/**
+	 * @return the current element, or <code>null</code> if the cursor is
+	 *         before the root or the walk has finished.
+	 */
+	public NLGElement getElement() {
+		return this.depth >= 0 ? this.path[this.depth] : null;
+	}
+
+	/**
+	 * @return the depth of the current element, where the root has depth 0,
+	 *         or -1 if there is no current element.
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+
+	/**
+	 * @return the parent of the current element in the walk, or
+	 *         <code>null</code> if it is the root or there is no current
+	 *         element.
+	 */
+	public NLGElement getParent() {
+		return this.depth > 0 ? this.path[this.depth - 1] : null;
+	}
+
+	/**
+	 * @return the index of the current element among the children of its
+	 *         parent, or 0 for the root.
+	 */
+	public int getIndex() {
+		return this.depth >= 0 ? this.indexes[this.depth] : 0;
+	}
+
+	/* makes the element a child of the current element, and current */
+	private void push(NLGElement child) {
+		int newDepth = this.depth + 1;
+		if (newDepth == this.path.length) {
+			NLGElement[] newPath = new NLGElement[newDepth * 2];
+			int[] newIndexes = new int[newDepth * 2];
+			System.arraycopy(this.path, 0, newPath, 0, newDepth);
+			System.arraycopy(this.indexes, 0, newIndexes, 0, newDepth);
+			this.path = newPath;
+			this.indexes = newIndexes;
+		}
+		this.path[newDepth] = child;
+		this.indexes[newDepth] = 0;
+		this.depth = newDepth;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.framework;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * This class works out the fingerprints returned by
+ * {@link NLGElement#getFingerprint()}. The fingerprint of an element is made
+ * from its category, the text of a string element, the base form and id of a
+ * word, and a hash of each of its features. The feature hashes are added together, as the order of the
+ * features in the map means nothing, while the items of a list are combined
+ * in order. An element held in a feature contributes its own fingerprint, so
+ * an element which appears more than once in a tree is only worked out once.
+ * </p>
+ * 
+ * <p>
+ * Strings, numbers and booleans are hashed with their <code>hashCode</code>
+ * methods, whose results are fixed by the Java library, and enumerations by
+ * the names of their classes and constants, so that the fingerprint of a tree
+ * does not depend on where its objects happen to be in memory.
+ * </p>
+ */
+final class ElementFingerprint {
+
+	/* an odd constant with well mixed bits, used to combine hashes */
+	private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	private ElementFingerprint() {
+		// use compute()
+	}
+
+	/**
+	 * Works out the fingerprint of an element. The fingerprints of the
+	 * elements in its features are taken from those elements, which record
+	 * that the element depends on them.
+	 * 
+	 * @param element
+	 *            the element.
+	 * @return the fingerprint, which is never 0.
+	 */
+	static long compute(NLGElement element) {
+		FeatureMap features = element.features;
+		long sum = 0;
+		int size = features.getKnownSize();
+		for (int i = 0; i < size; i++) {
+			sum += featureHash(features.getKnownName(i), features
+					.getKnownValue(i), element);
+		}
+		Map<String, Object> others = features.getOtherFeatures();
+		if (others != null) {
+			for (Map.Entry<String, Object> entry : others.entrySet()) {
+				sum += featureHash(entry.getKey(), entry.getValue(), element);
+			}
+		}
+
+		long hash = valueHash(element.getCategory(), element) * MULTIPLIER
+				+ sum;
+		if (element instanceof StringElement) {
+			hash = hash * MULTIPLIER + element.getRealisation().hashCode();
+		} else if (element instanceof WordElement) {
+			WordElement word = (WordElement) element;
+			hash = hash * MULTIPLIER + valueHash(word.getBaseForm(), element);
+			hash = hash * MULTIPLIER + valueHash(word.getId(), element);
+		}
+		hash = mix(hash);
+		return hash != 0 ? hash : 1;
+	}
+
+	/**
+	 * @param name
+	 *            the name of a feature.
+	 * @param value
+	 *            its value.
+	 * @param holder
+	 *            the element which has the feature.
+	 * @return the hash of the feature.
+	 */
+	private static long featureHash(String name, Object value,
+			NLGElement holder) {
+		return mix(name.hashCode() * MULTIPLIER + valueHash(value, holder));
+	}
+
+	/**
+	 * @param value
+	 *            the value of a feature, an item of a list, or a category.
+	 * @param holder
+	 *            the element which holds the value.
+	 * @return the hash of the value, which is the same for equal values.
+	 */
+	private static long valueHash(Object value, NLGElement holder) {
+		if (value == null) {
+			return 0;
+		} else if (value instanceof NLGElement) {
+			NLGElement element = (NLGElement) value;
+			long hash = element.getFingerprint();
+			element.addFingerprintHolder(holder);
+			return hash;
+		} else if (value instanceof List<?>) {
+			// combined in order, as lists are equal only if their items are in
+			// the same order
+			List<?> list = (List<?>) value;
+			long hash = 1;
+			for (int i = 0; i < list.size(); i++) {
+				hash = hash * MULTIPLIER + valueHash(list.get(i), holder);
+			}
+			return hash;
+		} else if (value instanceof Enum<?>) {
+			Enum<?> constant = (Enum<?>) value;
+			return constant.getDeclaringClass().getName().hashCode()
+					* MULTIPLIER + constant.name().hashCode();
+		} else {
+			return value.hashCode();
+		}
+	}
+
+	/**
+	 * Spreads the bits of a hash over all 64 bits, so that sums of hashes
+	 * which differ in a few bits are unlikely to be equal.
+	 * 
+	 * @param hash
+	 *            the hash.
+	 * @return the mixed hash.
+	 */
+	private static long mix(long hash) {
+		hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+		return hash ^ (hash >>> 31);
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.framework;
+
+import java.util.List;
+
+/**
+ * <p>
+ * This class keeps a read-only view of one list feature of an element, such
+ * as the components of a <code>ListElement</code>, so that the element's
+ * children can be counted and fetched by index without checking or copying
+ * the list each time. The view is made again only when the element's feature
+ * map has been written since it was last made.
+ * </p>
+ */
+final class ElementListView {
+
+	private final String featureName;
+
+	private FeatureMap features = null;
+
+	private int writeCount = 0;
+
+	private List<NLGElement> view = null;
+
+	/**
+	 * @param featureName
+	 *            the name of the list feature.
+	 */
+	ElementListView(String featureName) {
+		this.featureName = featureName;
+	}
+
+	/**
+	 * @param element
+	 *            the element whose feature is to be viewed.
+	 * @return the feature as a read-only list of elements.
+	 */
+	List<NLGElement> get(NLGElement element) {
+		FeatureMap map = element.features;
+		if (this.view == null || map != this.features
+				|| map.getWriteCount() != this.writeCount) {
+			this.view = element.getFeatureAsElementListView(this.featureName);
+			this.features = map;
+			this.writeCount = map.getWriteCount();
+		}
+		return this.view;
+	}
+}
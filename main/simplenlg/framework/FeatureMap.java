@@ -0,0 +1,655 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.framework;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import simplenlg.features.Feature;
+import simplenlg.features.InternalFeature;
+import simplenlg.features.LexicalFeature;
+
+/**
+ * <p>
+ * This class holds the features of an <code>NLGElement</code>. Each of the
+ * feature names defined in {@link Feature}, {@link LexicalFeature} and
+ * {@link InternalFeature} is given a small number when the class is loaded,
+ * and the features with these names are kept in a pair of short arrays (the
+ * numbers and the values) instead of in hash map entries. Any other feature
+ * name is kept in an ordinary <code>HashMap</code>, which is only created
+ * when such a feature is set.
+ * </p>
+ * 
+ * <p>
+ * The map also keeps bitsets, indexed by feature number, of which known
+ * features are set, which of them are booleans and which of those are true.
+ * Boolean values are stored as <code>Boolean.TRUE</code> and
+ * <code>Boolean.FALSE</code>, and {@link #getBoolean(Object)} answers from the
+ * bitsets without looking at the values at all.
+ * </p>
+ * 
+ * <p>
+ * The number of a feature name constant is found by the identity of the
+ * string, so the name is neither hashed nor compared character by character
+ * (see {@link #idOf(Object)}); a missing feature is then answered from the
+ * bitsets, and a value found by scanning the numbers set, which are usually
+ * only a handful. The class is a complete <code>Map</code>, so the map
+ * returned by <code>NLGElement.getAllFeatures()</code> behaves as it always
+ * has. Like <code>HashMap</code>, it is not synchronized and its iteration
+ * order is unspecified. Only its <code>Map</code> methods are public.
+ * </p>
+ */
+public class FeatureMap extends AbstractMap<String, Object> {
+
+	/* the feature name constants, in the order they were numbered */
+	private static final List<String> FEATURE_NAMES = new ArrayList<String>();
+
+	/* the number of each feature name constant */
+	private static final Map<String, Integer> FEATURE_IDS = new HashMap<String, Integer>();
+
+	private static final int[] NO_IDS = new int[0];
+	private static final Object[] NO_VALUES = new Object[0];
+
+	/* the number of longs in each bitset */
+	private static final int BIT_WORDS;
+
+	/*
+	 * the feature name constants in an open-addressed table indexed by their
+	 * identity hash codes, and the number of each at the same position
+	 */
+	private static final String[] CONSTANTS;
+	private static final int[] CONSTANT_IDS;
+
+	static {
+		addFeatureNames(Feature.class);
+		addFeatureNames(LexicalFeature.class);
+		addFeatureNames(InternalFeature.class);
+		BIT_WORDS = (FEATURE_NAMES.size() + 63) / 64;
+
+		// at most a quarter full, so a lookup rarely probes more than once
+		int capacity = Integer.highestOneBit(FEATURE_NAMES.size() * 4 - 1) << 1;
+		CONSTANTS = new String[capacity];
+		CONSTANT_IDS = new int[capacity];
+		for (int id = 0; id < FEATURE_NAMES.size(); id++) {
+			String name = FEATURE_NAMES.get(id);
+			int slot = System.identityHashCode(name) & (capacity - 1);
+			while (CONSTANTS[slot] != null)
+				slot = (slot + 1) & (capacity - 1);
+			CONSTANTS[slot] = name;
+			CONSTANT_IDS[slot] = id;
+		}
+	}
+
+	/* offsets of the bitsets in bits */
+	private static final int SET = 0;
+	private static final int BOOLEAN = 1;
+	private static final int TRUE = 2;
+
+	/* the numbers of the known features which are set */
+	private int[] ids = NO_IDS;
+
+	/* the values of the known features, in the same order as ids */
+	private Object[] values = NO_VALUES;
+
+	/* the number of known features which are set */
+	private int size = 0;
+
+	/*
+	 * the set, boolean and true bitsets of the known features, one after the
+	 * other; null until a known feature is set
+	 */
+	private long[] bits = null;
+
+	/* features whose names are not constants; null until one is set */
+	private HashMap<String, Object> others = null;
+
+	/* incremented whenever a feature is added or removed */
+	private int modCount = 0;
+
+	/* incremented whenever a feature is added, removed or changed */
+	private int writeCount = 0;
+
+	/* element-list views of features made since the last write; null if none */
+	private ElementViews elementViews = null;
+
+	/**
+	 * Creates an empty feature map.
+	 */
+	FeatureMap() {
+		// nothing to do
+	}
+
+	/**
+	 * Creates a feature map holding the same features as another one.
+	 * 
+	 * @param source
+	 *            the features to copy.
+	 */
+	FeatureMap(Map<String, Object> source) {
+		if (source instanceof FeatureMap) {
+			FeatureMap map = (FeatureMap) source;
+			if (map.size > 0) {
+				this.ids = new int[map.size];
+				this.values = new Object[map.size];
+				System.arraycopy(map.ids, 0, this.ids, 0, map.size);
+				System.arraycopy(map.values, 0, this.values, 0, map.size);
+				this.size = map.size;
+				this.bits = map.bits.clone();
+			}
+			if (map.others != null && !map.others.isEmpty())
+				this.others = new HashMap<String, Object>(map.others);
+		} else {
+			putAll(source);
+		}
+	}
+
+	/**
+	 * Finds the number of a feature name. The constants themselves, which are
+	 * what almost every caller passes, are found by identity without hashing
+	 * or comparing the characters of the name. Any other string is looked up
+	 * in a <code>HashMap</code>, in case it is equal to a constant.
+	 * 
+	 * @param featureName
+	 *            the name of a feature.
+	 * @return the number given to the feature name, or -1 if it is not one of
+	 *         the feature name constants.
+	 */
+	static int idOf(Object featureName) {
+		String[] constants = CONSTANTS;
+		int mask = constants.length - 1;
+		int slot = System.identityHashCode(featureName) & mask;
+		String constant;
+		while ((constant = constants[slot]) != null) {
+			if (constant == featureName)
+				return CONSTANT_IDS[slot];
+			slot = (slot + 1) & mask;
+		}
+		Integer id = FEATURE_IDS.get(featureName);
+		return id != null ? id.intValue() : -1;
+	}
+
+	/**
+	 * Finds the constant in <code>Feature</code>, <code>LexicalFeature</code>
+	 * or <code>InternalFeature</code> which is equal to a feature name, so that
+	 * other code can share the one table of feature names kept here.
+	 * 
+	 * @param featureName
+	 *            the name of a feature.
+	 * @return the equal feature name constant, or <code>null</code> if there
+	 *         is none.
+	 */
+	public static String getFeatureNameConstant(String featureName) {
+		int id = featureName != null ? idOf(featureName) : -1;
+		return id >= 0 ? FEATURE_NAMES.get(id) : null;
+	}
+
+	/**
+	 * Used by elements which keep some features in fields as well, to tell
+	 * whether the fields need to be read again.
+	 * 
+	 * @return a count which changes whenever a feature of this map is set,
+	 *         changed or removed.
+	 */
+	int getWriteCount() {
+		return this.writeCount;
+	}
+
+	/**
+	 * @param featureName
+	 *            the name of a feature.
+	 * @return the view of the feature kept by {@link #putElementView}, or
+	 *         <code>null</code> if there is none or the map has been written
+	 *         since it was kept.
+	 */
+	List<NLGElement> getElementView(String featureName) {
+		ElementViews views = this.elementViews;
+		if (views == null || views.writeCount != this.writeCount) {
+			return null;
+		}
+		return views.views.get(featureName);
+	}
+
+	/**
+	 * Keeps a read-only view of a feature as a list of elements, to be
+	 * returned by {@link #getElementView} until the map is next written.
+	 * 
+	 * @param featureName
+	 *            the name of the feature.
+	 * @param view
+	 *            the view of its value.
+	 */
+	void putElementView(String featureName, List<NLGElement> view) {
+		ElementViews views = this.elementViews;
+		HashMap<String, List<NLGElement>> kept;
+		if (views == null || views.writeCount != this.writeCount) {
+			kept = new HashMap<String, List<NLGElement>>(4);
+		} else {
+			kept = new HashMap<String, List<NLGElement>>(views.views);
+		}
+		kept.put(featureName, view);
+		// replaced rather than changed, as elements may be read by several
+		// threads at once
+		this.elementViews = new ElementViews(this.writeCount, kept);
+	}
+
+	/**
+	 * @return the number of features set whose names are feature name
+	 *         constants.
+	 */
+	int getKnownSize() {
+		return this.size;
+	}
+
+	/**
+	 * @param index
+	 *            a position from 0 to <code>getKnownSize() - 1</code>.
+	 * @return the name of the known feature at that position.
+	 */
+	String getKnownName(int index) {
+		return FEATURE_NAMES.get(this.ids[index]);
+	}
+
+	/**
+	 * @param index
+	 *            a position from 0 to <code>getKnownSize() - 1</code>.
+	 * @return the value of the known feature at that position.
+	 */
+	Object getKnownValue(int index) {
+		return this.values[index];
+	}
+
+	/**
+	 * @return the features whose names are not constants, or
+	 *         <code>null</code> if there are none. The map must not be
+	 *         changed.
+	 */
+	Map<String, Object> getOtherFeatures() {
+		return this.others;
+	}
+
+	/**
+	 * @return the number of feature names which have been numbered.
+	 */
+	static int getKnownFeatureCount() {
+		return FEATURE_NAMES.size();
+	}
+
+	/**
+	 * Gets the value of a boolean feature, without boxing it or searching the
+	 * values for a feature name constant.
+	 * 
+	 * @param featureName
+	 *            the name of the feature.
+	 * @return <code>true</code> if the feature is the <code>Boolean</code>
+	 *         true, <code>false</code> if it is anything else or is not set.
+	 */
+	boolean getBoolean(Object featureName) {
+		int id = idOf(featureName);
+		if (id >= 0)
+			return testBit(TRUE, id);
+		Object value = this.others != null ? this.others.get(featureName)
+				: null;
+		return value instanceof Boolean && ((Boolean) value).booleanValue();
+	}
+
+	/* whether the bit for this feature number is set in one of the bitsets */
+	private boolean testBit(int bitset, int id) {
+		return this.bits != null
+				&& (this.bits[bitset * BIT_WORDS + (id >>> 6)] & (1L << id)) != 0;
+	}
+
+	/* records in the bitsets that the known feature has this value */
+	private void setBits(int id, Object value) {
+		if (this.bits == null)
+			this.bits = new long[3 * BIT_WORDS];
+		int word = id >>> 6;
+		long bit = 1L << id;
+		this.bits[SET * BIT_WORDS + word] |= bit;
+		if (value instanceof Boolean) {
+			this.bits[BOOLEAN * BIT_WORDS + word] |= bit;
+			if (((Boolean) value).booleanValue())
+				this.bits[TRUE * BIT_WORDS + word] |= bit;
+			else
+				this.bits[TRUE * BIT_WORDS + word] &= ~bit;
+		} else {
+			this.bits[BOOLEAN * BIT_WORDS + word] &= ~bit;
+			this.bits[TRUE * BIT_WORDS + word] &= ~bit;
+		}
+	}
+
+	/* records in the bitsets that the known feature is not set */
+	private void clearBits(int id) {
+		int word = id >>> 6;
+		long bit = ~(1L << id);
+		this.bits[SET * BIT_WORDS + word] &= bit;
+		this.bits[BOOLEAN * BIT_WORDS + word] &= bit;
+		this.bits[TRUE * BIT_WORDS + word] &= bit;
+	}
+
+	/* the position of the feature with this number in ids, or -1 */
+	private int indexOf(int id) {
+		int[] ids = this.ids;
+		for (int i = 0; i < this.size; i++) {
+			if (ids[i] == id)
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public int size() {
+		return this.size + (this.others != null ? this.others.size() : 0);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object featureName) {
+		int id = idOf(featureName);
+		if (id >= 0)
+			return testBit(SET, id);
+		return this.others != null && this.others.containsKey(featureName);
+	}
+
+	@Override
+	public Object get(Object featureName) {
+		int id = idOf(featureName);
+		if (id >= 0) {
+			if (!testBit(SET, id))
+				return null;
+			if (testBit(BOOLEAN, id))
+				return testBit(TRUE, id) ? Boolean.TRUE : Boolean.FALSE;
+			return this.values[indexOf(id)];
+		}
+		return this.others != null ? this.others.get(featureName) : null;
+	}
+
+	@Override
+	public Object put(String featureName, Object value) {
+		int id = idOf(featureName);
+		if (id < 0) {
+			if (this.others == null)
+				this.others = new HashMap<String, Object>();
+			if (!this.others.containsKey(featureName))
+				this.modCount++;
+			this.writeCount++;
+			return this.others.put(featureName, value);
+		}
+
+		if (value instanceof Boolean)
+			value = ((Boolean) value).booleanValue() ? Boolean.TRUE
+					: Boolean.FALSE;
+		int index = testBit(SET, id) ? indexOf(id) : -1;
+		if (index >= 0) {
+			Object oldValue = this.values[index];
+			this.values[index] = value;
+			setBits(id, value);
+			this.writeCount++;
+			return oldValue;
+		}
+
+		if (this.size == this.ids.length) {
+			int capacity = this.size < 4 ? 4 : this.size * 2;
+			int[] newIds = new int[capacity];
+			Object[] newValues = new Object[capacity];
+			System.arraycopy(this.ids, 0, newIds, 0, this.size);
+			System.arraycopy(this.values, 0, newValues, 0, this.size);
+			this.ids = newIds;
+			this.values = newValues;
+		}
+		this.ids[this.size] = id;
+		this.values[this.size] = value;
+		this.size++;
+		this.modCount++;
+		this.writeCount++;
+		setBits(id, value);
+		return null;
+	}
+
+	@Override
+	public Object remove(Object featureName) {
+		int id = idOf(featureName);
+		if (id < 0) {
+			if (this.others == null || !this.others.containsKey(featureName))
+				return null;
+			this.modCount++;
+			this.writeCount++;
+			return this.others.remove(featureName);
+		}
+
+		return testBit(SET, id) ? removeAt(indexOf(id)) : null;
+	}
+
+	/* removes the known feature at this position, keeping the others in order */
+	private Object removeAt(int index) {
+		Object oldValue = this.values[index];
+		clearBits(this.ids[index]);
+		int moved = this.size - index - 1;
+		if (moved > 0) {
+			System.arraycopy(this.ids, index + 1, this.ids, index, moved);
+			System.arraycopy(this.values, index + 1, this.values, index, moved);
+		}
+		this.size--;
+		this.values[this.size] = null;
+		this.modCount++;
+		this.writeCount++;
+		return oldValue;
+	}
+
+	@Override
+	public void clear() {
+		if (size() > 0) {
+			this.modCount++;
+			this.writeCount++;
+		}
+		for (int i = 0; i < this.size; i++)
+			this.values[i] = null;
+		this.size = 0;
+		this.bits = null;
+		this.others = null;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return new EntrySet();
+	}
+
+	/**
+	 * The entries of the map: the known features first, then the others.
+	 */
+	private class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+		@Override
+		public int size() {
+			return FeatureMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			FeatureMap.this.clear();
+		}
+
+		@Override
+		public Iterator<Map.Entry<String, Object>> iterator() {
+			return new EntryIterator();
+		}
+	}
+
+	/**
+	 * Iterates over the known features and then the other features. Like the
+	 * <code>HashMap</code> iterators it fails fast if the map is changed other
+	 * than through the iterator.
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+		private int next = 0;
+		private int last = -1;
+		private Iterator<Map.Entry<String, Object>> otherIterator = null;
+		private int expectedModCount = FeatureMap.this.modCount;
+
+		public boolean hasNext() {
+			if (this.next < FeatureMap.this.size)
+				return true;
+			return otherIterator() != null && this.otherIterator.hasNext();
+		}
+
+		public Map.Entry<String, Object> next() {
+			checkForChange();
+			if (this.next < FeatureMap.this.size) {
+				this.last = this.next++;
+				return new KnownEntry(FeatureMap.this.ids[this.last]);
+			}
+			this.last = -1;
+			if (otherIterator() == null)
+				throw new NoSuchElementException();
+			return this.otherIterator.next();
+		}
+
+		public void remove() {
+			checkForChange();
+			if (this.last >= 0) {
+				removeAt(this.last);
+				this.next = this.last;
+				this.last = -1;
+			} else if (this.otherIterator != null) {
+				this.otherIterator.remove();
+				FeatureMap.this.modCount++;
+				FeatureMap.this.writeCount++;
+			} else {
+				throw new IllegalStateException();
+			}
+			this.expectedModCount = FeatureMap.this.modCount;
+		}
+
+		private Iterator<Map.Entry<String, Object>> otherIterator() {
+			if (this.otherIterator == null && FeatureMap.this.others != null)
+				this.otherIterator = FeatureMap.this.others.entrySet()
+						.iterator();
+			return this.otherIterator;
+		}
+
+		private void checkForChange() {
+			if (this.expectedModCount != FeatureMap.this.modCount)
+				throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * An entry for a known feature, which reads and writes the map.
+	 */
+	private class KnownEntry implements Map.Entry<String, Object> {
+
+		private final int id;
+
+		KnownEntry(int id) {
+			this.id = id;
+		}
+
+		public String getKey() {
+			return FEATURE_NAMES.get(this.id);
+		}
+
+		public Object getValue() {
+			int index = indexOf(this.id);
+			return index >= 0 ? FeatureMap.this.values[index] : null;
+		}
+
+		public Object setValue(Object value) {
+			int index = indexOf(this.id);
+			if (index < 0)
+				throw new IllegalStateException();
+			if (value instanceof Boolean)
+				value = ((Boolean) value).booleanValue() ? Boolean.TRUE
+						: Boolean.FALSE;
+			Object oldValue = FeatureMap.this.values[index];
+			FeatureMap.this.values[index] = value;
+			setBits(this.id, value);
+			FeatureMap.this.writeCount++;
+			return oldValue;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry<?, ?>))
+				return false;
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+			Object value = getValue();
+			return getKey().equals(entry.getKey())
+					&& (value == null ? entry.getValue() == null : value
+							.equals(entry.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			Object value = getValue();
+			return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue(); //$NON-NLS-1$
+		}
+	}
+
+	private static void addFeatureNames(Class<?> featureClass) {
+		for (Field field : featureClass.getFields()) {
+			if (field.getType() == String.class
+					&& Modifier.isStatic(field.getModifiers())) {
+				try {
+					String name = (String) field.get(null);
+					if (name != null && !FEATURE_IDS.containsKey(name)) {
+						FEATURE_IDS.put(name, Integer.valueOf(FEATURE_NAMES
+								.size()));
+						FEATURE_NAMES.add(name);
+					}
+				} catch (IllegalAccessException ex) {
+					// not a usable constant
+				}
+			}
+		}
+	}
+
+	/**
+	 * The element-list views of a map's features made since a given write.
+	 */
+	private static final class ElementViews {
+
+		final int writeCount;
+
+		final Map<String, List<NLGElement>> views;
+
+		ElementViews(int writeCount, Map<String, List<NLGElement>> views) {
+			this.writeCount = writeCount;
+			this.views = views;
+		}
+	}
+}
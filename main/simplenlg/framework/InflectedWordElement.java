@@ -76,6 +76,16 @@ public class InflectedWordElement extends NLGElement {
 		return null;
 	}
 
+	@Override
+	public int getChildCount() {
+		return 0;
+	}
+
+	@Override
+	public NLGElement getChild(int index) {
+		throw new IndexOutOfBoundsException("Index: " + index); //$NON-NLS-1$
+	}
+
 	@Override
 	public String toString() {
 		return "InflectedWordElement[" + getBaseForm() + ':' //$NON-NLS-1$
@@ -47,8 +47,9 @@ import simplenlg.features.InternalFeature;
  */
 public class ListElement extends NLGElement {
 
-	
-	
+	/** The view of the components, made when the children are first read. */
+	private ElementListView componentView = null;
+
 	/**
 	 * Creates a new list element with no components.
 	 */
@@ -72,6 +73,34 @@ public class ListElement extends NLGElement {
 		return getFeatureAsElementList(InternalFeature.COMPONENTS);
 	}
 
+	@Override
+	public int getChildCount() {
+		return getChildView().size();
+	}
+
+	@Override
+	public NLGElement getChild(int index) {
+		return getChildView().get(index);
+	}
+
+	/**
+	 * @return a read-only view of the children of this element, which is
+	 *         only made again when the features have been changed.
+	 */
+	private List<NLGElement> getChildView() {
+		if (this.componentView == null) {
+			this.componentView = new ElementListView(InternalFeature.COMPONENTS);
+		}
+		return this.componentView.get(this);
+	}
+
+	@Override
+	NLGElement copyElement() {
+		ListElement copy = (ListElement) super.copyElement();
+		copy.componentView = null;
+		return copy;
+	}
+
 	/**
 	 * Creates a new list element containing the given component.
 	 * 
@@ -94,8 +123,9 @@ public class ListElement extends NLGElement {
 		if (components == null) {
 			components = new ArrayList<NLGElement>();
 		}
-		setFeature(InternalFeature.COMPONENTS, components);
+		// added before the feature is set, so that the change is seen
 		components.add(newComponent);
+		setFeature(InternalFeature.COMPONENTS, components);
 	}
 
 	/**
@@ -109,8 +139,8 @@ public class ListElement extends NLGElement {
 		if (components == null) {
 			components = new ArrayList<NLGElement>();
 		}
-		setFeature(InternalFeature.COMPONENTS, components);
 		components.addAll(newComponents);
+		setFeature(InternalFeature.COMPONENTS, components);
 	}
 
 	/**
@@ -165,7 +195,7 @@ public class ListElement extends NLGElement {
 	 * @return the number of components.
 	 */
 	public int size() {
-		return getChildren().size();
+		return getChildCount();
 	}
 
 	/**
@@ -173,7 +203,6 @@ public class ListElement extends NLGElement {
 	 * @return the <code>NLGElement</code> at the top of the list.
 	 */
 	public NLGElement getFirst() {
-		List<NLGElement> children = getChildren();
-		return children == null ? null : children.get(0);
+		return getChild(0);
 	}
 }
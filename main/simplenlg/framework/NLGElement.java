@@ -18,9 +18,10 @@
  */
 package simplenlg.framework;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -50,20 +51,29 @@ import simplenlg.features.Tense;
  * 
  * <p>
  * The features are stored in a <code>Map</code> of <code>String</code> (the
- * feature name) and <code>Object</code> (the value of the feature).
+ * feature name) and <code>Object</code> (the value of the feature). The map
+ * keeps the features named by the constants in <code>Feature</code>,
+ * <code>LexicalFeature</code> and <code>InternalFeature</code> in small arrays
+ * rather than hash map entries, and finds those constants by identity.
  * </p>
  * 
  * 
  * @author D. Westwater, University of Aberdeen.
  * @version 4.0
  */
-public abstract class NLGElement {
+public abstract class NLGElement implements Cloneable {
 
 	/** The category of this element. */
 	private ElementCategory category;
 
 	/** The features of this element. */
-	protected HashMap<String, Object> features = new HashMap<String, Object>();
+	protected FeatureMap features = new FeatureMap();
+
+	/**
+	 * <code>true</code> if the feature map is shared with another element, in
+	 * which case it is copied before it is changed.
+	 */
+	private boolean sharedFeatures = false;
 
 	/** The parent of this element. */
 	private NLGElement parent;
@@ -74,6 +84,36 @@ public abstract class NLGElement {
 	/** The NLGFactory which created this element */
 	private NLGFactory factory;
 
+	/**
+	 * The fingerprint of this element, or 0 if it has not been worked out
+	 * since the element or anything in its features last changed.
+	 */
+	private volatile long fingerprint = 0;
+
+	/**
+	 * An element whose fingerprint was worked out from this element's, and
+	 * which must forget it when this element changes. Holders are weakly
+	 * referenced, as a word from the lexicon may be held by any number of
+	 * phrases which are no longer used.
+	 */
+	private WeakReference<NLGElement> fingerprintHolder;
+
+	/** Any further elements whose fingerprints depend on this element's. */
+	private List<WeakReference<NLGElement>> moreFingerprintHolders;
+
+	/**
+	 * <code>true</code> if this element can no longer be changed, as it may
+	 * be shared by several trees. See {@link #freeze()}.
+	 */
+	private boolean frozen = false;
+
+	/**
+	 * The copier which made this element, if it was copied on demand and the
+	 * elements held in its features are still those of the element it was
+	 * copied from. See {@link ElementCopier#copyOnDemand(NLGElement)}.
+	 */
+	private ElementCopier pendingCopier;
+
 	/**
 	 * Sets the category of this element.
 	 * 
@@ -81,6 +121,8 @@ public abstract class NLGElement {
 	 *            the new <code>ElementCategory</code> for this element.
 	 */
 	public void setCategory(ElementCategory newCategory) {
+		checkNotFrozen();
+		forgetFingerprint();
 		this.category = newCategory;
 	}
 
@@ -106,6 +148,7 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, Object featureValue) {
 		if (featureName != null) {
+			featuresChanging();
 			if (featureValue == null) {
 				this.features.remove(featureName);
 			} else {
@@ -124,7 +167,8 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, boolean featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Boolean(featureValue));
+			featuresChanging();
+			this.features.put(featureName, Boolean.valueOf(featureValue));
 		}
 	}
 
@@ -138,7 +182,8 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, int featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Integer(featureValue));
+			featuresChanging();
+			this.features.put(featureName, Integer.valueOf(featureValue));
 		}
 	}
 
@@ -152,7 +197,8 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, long featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Long(featureValue));
+			featuresChanging();
+			this.features.put(featureName, Long.valueOf(featureValue));
 		}
 	}
 
@@ -166,7 +212,8 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, float featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Float(featureValue));
+			featuresChanging();
+			this.features.put(featureName, Float.valueOf(featureValue));
 		}
 	}
 
@@ -181,7 +228,8 @@ public abstract class NLGElement {
 	 */
 	public void setFeature(String featureName, double featureValue) {
 		if (featureName != null) {
-			this.features.put(featureName, new Double(featureValue));
+			featuresChanging();
+			this.features.put(featureName, Double.valueOf(featureValue));
 		}
 	}
 
@@ -193,6 +241,7 @@ public abstract class NLGElement {
 	 * @return the <code>Object</code> value of the feature.
 	 */
 	public Object getFeature(String featureName) {
+		copyPendingElements();
 		return featureName != null ? this.features.get(featureName) : null;
 	}
 
@@ -249,6 +298,64 @@ public abstract class NLGElement {
 		return list;
 	}
 	
+	/**
+	 * Retrieves the value of the feature as a list of elements, as
+	 * <code>getFeatureAsElementList</code> does, but without copying the list
+	 * when the feature is a list of elements or a single element. The list
+	 * returned is a read-only view of the feature's list, so it should be
+	 * used straight away rather than kept. The view is made the first time it
+	 * is asked for and returned again until a feature of this element is set
+	 * or removed, so asking for it again costs a lookup rather than a new
+	 * wrapper and a check of every item.
+	 * 
+	 * @param featureName
+	 *            the name of the feature.
+	 * @return a read-only <code>List</code> of <code>NLGElement</code>s
+	 */
+	public List<NLGElement> getFeatureAsElementListView(String featureName) {
+		copyPendingElements();
+		List<NLGElement> view = this.features.getElementView(featureName);
+		if (view != null) {
+			return view;
+		}
+		Object value = getFeature(featureName);
+		view = elementListView(value);
+		if (view == null) {
+			return getFeatureAsElementList(featureName);
+		}
+		// only a value held by this element is kept, as the map's writes
+		// tell nothing about features read from elsewhere
+		if (value != null && value == this.features.get(featureName)) {
+			this.features.putElementView(featureName, view);
+		}
+		return view;
+	}
+
+	/**
+	 * @param value
+	 *            the value of a feature.
+	 * @return a new read-only view of the value as a list of elements, or
+	 *         <code>null</code> if the value has to be copied to make one (eg
+	 *         it is a list which holds things other than elements).
+	 */
+	@SuppressWarnings("unchecked")
+	static List<NLGElement> elementListView(Object value) {
+		if (value == null) {
+			return Collections.emptyList();
+		} else if (value instanceof NLGElement) {
+			return Collections.singletonList((NLGElement) value);
+		} else if (value instanceof List<?>) {
+			List<?> list = (List<?>) value;
+			for (int i = 0; i < list.size(); i++) {
+				if (!(list.get(i) instanceof NLGElement)) {
+					return null;
+				}
+			}
+			return Collections.unmodifiableList((List<NLGElement>) list);
+		}
+		return null;
+	}
+
 	/**
 	 * <p>
 	 * Retrieves the value of the feature as a list of java objects. If the feature
@@ -284,6 +391,29 @@ public abstract class NLGElement {
 		return values;
 	}
 
+	/**
+	 * Retrieves the value of the feature as a list of objects, as
+	 * <code>getFeatureAsList</code> does, but without copying the feature
+	 * when it is a list. The list returned must not be changed.
+	 * 
+	 * @param featureName
+	 *            the name of the feature.
+	 * @return a read-only <code>List</code> of <code>Object</code>s
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Object> getFeatureAsListView(String featureName) {
+		Object value = getFeature(featureName);
+
+		if (value == null) {
+			return Collections.emptyList();
+		} else if (value instanceof List<?>) {
+			return Collections.unmodifiableList((List<Object>) value);
+		} else if (value instanceof Collection<?>) {
+			return getFeatureAsList(featureName);
+		}
+		return Collections.singletonList(value);
+	}
+
 	/**
 	 * <p>
 	 * Retrieves the value of the feature as a list of strings. If the feature
@@ -320,6 +450,37 @@ public abstract class NLGElement {
 		return values;
 	}
 
+	/**
+	 * Retrieves the value of the feature as a list of strings, as
+	 * <code>getFeatureAsStringList</code> does, but without copying the
+	 * feature when it is a string or a list of strings. The list returned
+	 * must not be changed.
+	 * 
+	 * @param featureName
+	 *            the name of the feature.
+	 * @return a read-only <code>List</code> of <code>String</code>s
+	 */
+	@SuppressWarnings("unchecked")
+	public List<String> getFeatureAsStringListView(String featureName) {
+		Object value = getFeature(featureName);
+
+		if (value == null) {
+			return Collections.emptyList();
+		} else if (value instanceof String) {
+			return Collections.singletonList((String) value);
+		} else if (value instanceof List<?>) {
+			List<?> list = (List<?>) value;
+			boolean strings = true;
+			for (int i = 0; i < list.size() && strings; i++) {
+				strings = list.get(i) instanceof String;
+			}
+			if (strings) {
+				return Collections.unmodifiableList((List<String>) list);
+			}
+		}
+		return getFeatureAsStringList(featureName);
+	}
+
 	/**
 	 * Retrieves the value of the feature as an <code>Integer</code>. If the
 	 * feature does not exist or cannot be converted to an integer then
@@ -443,14 +604,23 @@ public abstract class NLGElement {
 	 *         non-Boolean type will return <code>Boolean.FALSE</code>.
 	 */
 	public Boolean getFeatureAsBoolean(String featureName) {
-		Object value = getFeature(featureName);
-		Boolean boolValue = Boolean.FALSE;
-		
-		if (value instanceof Boolean) {
-			boolValue = (Boolean) value;
-		}
-		
-		return boolValue;
+		return getBooleanFeature(featureName) ? Boolean.TRUE : Boolean.FALSE;
+	}
+
+	/**
+	 * Retrieves the value of a boolean feature as a primitive. Boolean
+	 * features are kept in a bitset, so this neither allocates nor searches
+	 * the feature map.
+	 * 
+	 * @param featureName
+	 *            the name of the feature.
+	 * @return <code>true</code> if the feature is the <code>Boolean</code>
+	 *         true, <code>false</code> if it has any other value or does not
+	 *         exist.
+	 */
+	public boolean getBooleanFeature(String featureName) {
+		return featureName != null ? this.features.getBoolean(featureName)
+				: false;
 	}
 
 	/**
@@ -481,6 +651,11 @@ public abstract class NLGElement {
 	 * @return a <code>Map</code> of <code>String</code>, <code>Object</code>.
 	 */
 	public Map<String, Object> getAllFeatures() {
+		if (this.frozen) {
+			return Collections.unmodifiableMap(this.features);
+		}
+		// the caller may change the map
+		featuresChanging();
 		return this.features;
 	}
 
@@ -504,6 +679,7 @@ public abstract class NLGElement {
 	 *            the name of the feature to be removed.
 	 */
 	public void removeFeature(String featureName) {
+		featuresChanging();
 		this.features.remove(featureName);
 	}
 
@@ -511,17 +687,265 @@ public abstract class NLGElement {
 	 * Deletes all the features in the map.
 	 */
 	public void clearAllFeatures() {
+		featuresChanging();
 		this.features.clear();
 	}
 
 	/**
-	 * Sets the parent element of this element.
+	 * Makes this element share the feature map of another element instead of
+	 * having its own. Neither element sees later changes made by the other, as
+	 * the map is copied by whichever element is changed first.
+	 * 
+	 * @param source
+	 *            the element whose features are to be shared.
+	 */
+	protected void shareFeatures(NLGElement source) {
+		// only write to the source once, as it may be a lexicon word which is
+		// shared by many threads
+		if (!source.sharedFeatures)
+			source.sharedFeatures = true;
+		this.features = source.features;
+		this.sharedFeatures = true;
+	}
+
+	/**
+	 * Called before the features of this element are changed. Gives this
+	 * element its own copy of the feature map, if the map is currently shared
+	 * with another element, and forgets its fingerprint.
+	 */
+	private void featuresChanging() {
+		checkNotFrozen();
+		copyPendingElements();
+		if (this.sharedFeatures) {
+			this.features = new FeatureMap(this.features);
+			this.sharedFeatures = false;
+		}
+		forgetFingerprint();
+	}
+
+	/**
+	 * <p>
+	 * Creates a deep copy of this element and of every element held in its
+	 * features, so that the copy can be changed, or realised, without
+	 * changing this element. This is much cheaper than building the same tree
+	 * again through the <code>NLGFactory</code>, as no words are looked up
+	 * and no default features are set.
+	 * </p>
+	 * 
+	 * <p>
+	 * Elements which appear more than once in the tree are copied once, and
+	 * the parent of each copied element is the copy of its parent. The copy
+	 * of this element has no parent. Feature maps which hold no elements, such
+	 * as those of words from the lexicon, are shared with the original until
+	 * either element is changed, rather than copied. See
+	 * {@link ElementCopier}.
+	 * </p>
+	 * 
+	 * @return the copy.
+	 */
+	public NLGElement deepCopy() {
+		return ElementCopier.copy(this);
+	}
+
+	/**
+	 * Gives this element a feature map of its own, replacing the one it has.
+	 * 
+	 * @param map
+	 *            the new feature map, which must not be used by any other
+	 *            element. Its features must be equal to those of the map it
+	 *            replaces, as the fingerprint of this element is kept.
+	 */
+	void setFeatureMap(FeatureMap map) {
+		this.features = map;
+		this.sharedFeatures = false;
+	}
+
+	/**
+	 * Marks this element as a copy made on demand, whose features still hold
+	 * the elements of the element it was copied from.
+	 * 
+	 * @param copier
+	 *            the copier which made this element, which copies the
+	 *            elements it holds when they are first needed.
+	 */
+	void setPendingCopier(ElementCopier copier) {
+		this.pendingCopier = copier;
+	}
+
+	/**
+	 * If this element was copied on demand and still holds the elements of
+	 * the element it was copied from, replaces them with copies. This is done
+	 * before the features of this element are read or changed, so that the
+	 * elements of the original are never handed out, and elements which are
+	 * never reached are never copied.
+	 */
+	void copyPendingElements() {
+		ElementCopier copier = this.pendingCopier;
+		if (copier == null) {
+			return;
+		}
+		this.pendingCopier = null;
+		FeatureMap map = copier.copyHeldElements(this.features, this);
+		if (map == null) {
+			return;
+		}
+		long value = this.fingerprint;
+		setFeatureMap(map);
+		if (value != 0) {
+			// the fingerprint is unchanged, but is now held by the copies,
+			// which must make this element forget it when they change
+			this.fingerprint = 0;
+			setKnownFingerprint(value);
+			if (this.fingerprint == 0) {
+				this.fingerprint = value;
+				forgetFingerprint();
+			}
+		}
+	}
+
+	/**
+	 * Creates a copy of this element alone, which has no parent and shares
+	 * this element's features until either of them is changed. Any children
+	 * held in the features are this element's own; it is for the caller to
+	 * replace them. Subclasses which keep anything read from the features
+	 * must clear it in the copy.
+	 * 
+	 * @return the copy.
+	 */
+	NLGElement copyElement() {
+		NLGElement copy = null;
+		try {
+			copy = (NLGElement) clone();
+		} catch (CloneNotSupportedException ex) {
+			// cannot happen as elements are cloneable
+			throw new InternalError(ex.toString());
+		}
+		copy.parent = null;
+		copy.fingerprint = 0;
+		copy.fingerprintHolder = null;
+		copy.moreFingerprintHolders = null;
+		copy.frozen = false;
+		copy.pendingCopier = null;
+		copy.shareFeatures(this);
+		return copy;
+	}
+
+	/**
+	 * <p>
+	 * Gets a frozen copy of this element: a tree which is equal to this one
+	 * but which can never be changed, so that it may be shared by many trees
+	 * and threads at once. Setting a feature, the category or the
+	 * realisation of a frozen element throws an
+	 * <code>UnsupportedOperationException</code>, as do the methods of
+	 * phrases and lists which add to them.
+	 * </p>
+	 * 
+	 * <p>
+	 * Variants of a frozen tree are made with
+	 * {@link #withFeature(String, Object)}, which copies only the element it
+	 * is called on; every element below it is shared with the original. The
+	 * realiser does not change a frozen tree, but realises a copy of it in
+	 * which only the elements that realisation reaches are copied (see
+	 * {@link ElementCopier#copyOnDemand(NLGElement)}).
+	 * Frozen elements which are already in this tree are not copied, and this
+	 * element is returned if it is frozen.
+	 * </p>
+	 * 
+	 * @return the frozen copy.
+	 */
+	public NLGElement freeze() {
+		return this.frozen ? this : ElementCopier.freeze(this);
+	}
+
+	/**
+	 * @return <code>true</code> if this element is frozen and cannot be
+	 *         changed. See {@link #freeze()}.
+	 */
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	/**
+	 * Gets a frozen element which is the same as this one apart from the
+	 * value of one feature. The new element shares every element held in its
+	 * features with this one, so building many variants of a tree which
+	 * differ in a feature of its root, such as the tense or negation of a
+	 * clause, costs one small copy each. This element is frozen first if it
+	 * is not already, and so is any element in the new value.
+	 * 
+	 * @param featureName
+	 *            the name of the feature.
+	 * @param featureValue
+	 *            the value of the feature in the new element, or
+	 *            <code>null</code> if the new element is not to have it.
+	 * @return the new element.
+	 */
+	public NLGElement withFeature(String featureName, Object featureValue) {
+		NLGElement original = freeze();
+		if (featureName == null) {
+			return original;
+		}
+		NLGElement variant = original.copyElement();
+		// the variant takes the place of the original in the tree above it
+		variant.parent = original.parent;
+		variant.setVariantFeature(featureName, featureValue);
+		variant.markFrozen();
+		return variant;
+	}
+
+	/**
+	 * Sets a feature of a new variant made by
+	 * {@link #withFeature(String, Object)}, before the variant is frozen. Any
+	 * element in the value is frozen. Subclasses which pass some features on
+	 * to elements they hold, as a clause does to its verb phrase, override
+	 * this to give the variant new frozen copies of those elements as well.
+	 * 
+	 * @param featureName
+	 *            the name of the feature.
+	 * @param featureValue
+	 *            the value of the feature, or <code>null</code> to remove it.
+	 */
+	protected void setVariantFeature(String featureName, Object featureValue) {
+		Object value = ElementCopier.freezeValue(featureValue, this);
+		featuresChanging();
+		if (value == null) {
+			this.features.remove(featureName);
+		} else {
+			this.features.put(featureName, value);
+		}
+	}
+
+	/**
+	 * Stops this element from being changed. Its feature map is marked as
+	 * shared, so that copies of it never write to the map or to this element.
+	 */
+	void markFrozen() {
+		this.sharedFeatures = true;
+		this.frozen = true;
+	}
+
+	/**
+	 * Throws an exception if this element is frozen.
+	 */
+	void checkNotFrozen() {
+		if (this.frozen) {
+			throw new UnsupportedOperationException(
+					"A frozen element cannot be changed"); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Sets the parent element of this element. A frozen element keeps the
+	 * parent it was given when it was frozen, as it may be in many trees.
 	 * 
 	 * @param newParent
 	 *            the <code>NLGElement</code> that is the parent of this
 	 *            element.
 	 */
 	public void setParent(NLGElement newParent) {
+		if (this.frozen) {
+			return;
+		}
 		this.parent = newParent;
 	}
 
@@ -542,6 +966,8 @@ public abstract class NLGElement {
 	 *            this element.
 	 */
 	public void setRealisation(String realised) {
+		checkNotFrozen();
+		forgetFingerprint();
 		this.realisation = realised;
 	}
 
@@ -611,14 +1037,87 @@ public abstract class NLGElement {
 	 */
 	public abstract List<NLGElement> getChildren();
 
+	/**
+	 * Retrieves the number of children of this element, ie the size of the
+	 * list <code>getChildren()</code> would return. Together with
+	 * <code>getChild</code> this lets the children be visited without
+	 * building that list: the element types in the framework override both
+	 * methods to read their features directly.
+	 * 
+	 * @return the number of children.
+	 */
+	public int getChildCount() {
+		List<NLGElement> children = getChildren();
+		return children == null ? 0 : children.size();
+	}
+
+	/**
+	 * Retrieves a child of this element, as
+	 * <code>getChildren().get(index)</code> would.
+	 * 
+	 * @param index
+	 *            the position of the child, from 0 to
+	 *            <code>getChildCount() - 1</code>.
+	 * @return the child.
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no child at that position.
+	 */
+	public NLGElement getChild(int index) {
+		List<NLGElement> children = getChildren();
+		if (children == null) {
+			throw new IndexOutOfBoundsException("Index: " + index); //$NON-NLS-1$
+		}
+		return children.get(index);
+	}
+
+	/**
+	 * Walks the tree of elements below this one, in document order, calling
+	 * the visitor as each element is entered and left. The children of each
+	 * element are read with <code>getChildCount()</code> and
+	 * <code>getChild(int)</code> rather than <code>getChildren()</code>, so
+	 * no lists are built during the walk. The visitor must not change the
+	 * elements it visits, as the walk does not copy the elements below a copy
+	 * made on demand, and so may visit the elements of the original.
+	 * 
+	 * @param visitor
+	 *            the visitor to call.
+	 */
+	public void accept(NLGElementVisitor visitor) {
+		if (visitor.enter(this)) {
+			ElementCopier copier = this.pendingCopier;
+			this.pendingCopier = null;
+			try {
+				acceptChildren(visitor);
+			} finally {
+				this.pendingCopier = copier;
+			}
+		}
+		visitor.leave(this);
+	}
+
+	/**
+	 * Walks the children of this element for {@link #accept(NLGElementVisitor)}.
+	 * 
+	 * @param visitor
+	 *            the visitor to call.
+	 */
+	void acceptChildren(NLGElementVisitor visitor) {
+		int count = getChildCount();
+		for (int i = 0; i < count; i++) {
+			getChild(i).accept(visitor);
+		}
+	}
+
 	/**
 	 * Retrieves the set of features currently contained in the feature map.
 	 * 
 	 * @return a <code>Set</code> of <code>String</code>s representing the
-	 *         feature names. The set is unordered.
+	 *         feature names. The set is unordered, and is read-only if the
+	 *         features are shared with another element.
 	 */
 	public Set<String> getAllFeatureNames() {
-		return this.features.keySet();
+		return this.sharedFeatures ? Collections.unmodifiableSet(this.features
+				.keySet()) : this.features.keySet();
 	}
 
 	public String printTree(String indent) {
@@ -627,13 +1126,10 @@ public abstract class NLGElement {
 		StringBuffer print = new StringBuffer();
 		print.append("NLGElement: ").append(toString()).append('\n'); //$NON-NLS-1$
 
-		List<NLGElement> children = getChildren();
-
-		if (children != null) {
-			for (NLGElement eachChild : getChildren()) {
-				print.append(thisIndent).append(
-						eachChild.printTree(childIndent));
-			}
+		int count = getChildCount();
+		for (int index = 0; index < count; index++) {
+			print.append(thisIndent).append(
+					getChild(index).printTree(childIndent));
 		}
 		return print.toString();
 	}
@@ -761,7 +1257,7 @@ public abstract class NLGElement {
 	 */
 	@Deprecated
 	public boolean isNegated() {
-		return getFeatureAsBoolean(Feature.NEGATED).booleanValue();
+		return getBooleanFeature(Feature.NEGATED);
 	}
 
 	/**
@@ -781,7 +1277,9 @@ public abstract class NLGElement {
 
 	/**
 	 * An NLG element is equal to some object if the object is an NLGElement,
-	 * they have the same category and the same features.
+	 * they have the same category and the same features. Elements whose
+	 * fingerprints are both known and differ are not equal, so they are not
+	 * compared feature by feature.
 	 */
 	@Override
 	public boolean equals(Object o) {
@@ -789,6 +1287,12 @@ public abstract class NLGElement {
 
 		if (o instanceof NLGElement) {
 			NLGElement element = (NLGElement) o;
+			long thisFingerprint = this.fingerprint;
+			long otherFingerprint = element.fingerprint;
+			if (thisFingerprint != 0 && otherFingerprint != 0
+					&& thisFingerprint != otherFingerprint) {
+				return false;
+			}
 			eq = this.category == element.category
 					&& this.features.equals(element.features);
 		}
@@ -796,4 +1300,200 @@ public abstract class NLGElement {
 		return eq;
 	}
 
+	/**
+	 * The hash code of an element is worked out from its category and
+	 * features, so that equal elements have equal hash codes. It is taken
+	 * from the element's fingerprint.
+	 * 
+	 * @see #getFingerprint()
+	 */
+	@Override
+	public int hashCode() {
+		long value = getFingerprint();
+		return (int) (value ^ (value >>> 32));
+	}
+
+	/**
+	 * <p>
+	 * Gets a 64-bit fingerprint of this element and of the elements held in
+	 * its features. It is worked out from the category and features of each
+	 * element, and from the text of string elements, so equal elements have
+	 * equal fingerprints, and elements which are not equal almost never do.
+	 * The fingerprint of a tree which holds no objects other than strings,
+	 * numbers, booleans, enumerations and elements is the same each time the
+	 * program is run.
+	 * </p>
+	 * 
+	 * <p>
+	 * The fingerprint is kept once it has been worked out, and is forgotten
+	 * when a feature, the category or the realisation of this element or of
+	 * any element it holds is set. Changes made directly to a list held as
+	 * the value of a feature, to the map returned by {@link #getAllFeatures()}
+	 * after the fingerprint has been worked out, or to the set returned by
+	 * {@link #getAllFeatureNames()}, are not seen, as with the structural features read by
+	 * <code>PhraseElement</code>.
+	 * </p>
+	 * 
+	 * @return the fingerprint, which is never 0.
+	 */
+	public long getFingerprint() {
+		long value = this.fingerprint;
+		if (value == 0) {
+			value = ElementFingerprint.compute(this);
+			this.fingerprint = value;
+		}
+		return value;
+	}
+
+	/**
+	 * @return the fingerprint of this element if it is known, otherwise 0.
+	 */
+	long getKnownFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Gives this element a fingerprint without working it out, as when it is
+	 * a copy of an element whose fingerprint is known. The fingerprint is
+	 * only kept if the elements held in the features of this element have
+	 * known fingerprints, which they are then made to forget along with this
+	 * one.
+	 * 
+	 * @param value
+	 *            the fingerprint, which must be the one this element would
+	 *            have if it were worked out.
+	 */
+	void setKnownFingerprint(long value) {
+		FeatureMap map = this.features;
+		int size = map.getKnownSize();
+		for (int pass = 0; pass < 2; pass++) {
+			for (int i = 0; i < size; i++) {
+				if (!holdFingerprint(map.getKnownValue(i), pass == 1)) {
+					return;
+				}
+			}
+			Map<String, Object> others = map.getOtherFeatures();
+			if (others != null) {
+				for (Object eachValue : others.values()) {
+					if (!holdFingerprint(eachValue, pass == 1)) {
+						return;
+					}
+				}
+			}
+		}
+		this.fingerprint = value;
+	}
+
+	/**
+	 * Checks that the elements in the value of a feature have known
+	 * fingerprints, and makes them forget this element's when they change.
+	 * 
+	 * @param value
+	 *            the value of a feature of this element.
+	 * @param hold
+	 *            <code>true</code> if the elements are to make this element
+	 *            forget its fingerprint, <code>false</code> to check only.
+	 * @return <code>true</code> if all the elements have known fingerprints.
+	 */
+	private boolean holdFingerprint(Object value, boolean hold) {
+		if (value instanceof NLGElement) {
+			NLGElement element = (NLGElement) value;
+			if (element.fingerprint == 0) {
+				return false;
+			}
+			if (hold) {
+				element.addFingerprintHolder(this);
+			}
+		} else if (value instanceof List<?>) {
+			List<?> list = (List<?>) value;
+			for (int i = 0; i < list.size(); i++) {
+				if (!holdFingerprint(list.get(i), hold)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Records that the fingerprint of another element has been worked out
+	 * from this element's, so that the other element forgets its fingerprint
+	 * when this one does.
+	 * 
+	 * @param holder
+	 *            the element which holds this one in its features.
+	 */
+	synchronized void addFingerprintHolder(NLGElement holder) {
+		// a frozen element never changes, so need not know its holders, of
+		// which there may be very many
+		if (this.frozen) {
+			return;
+		}
+		NLGElement first = this.fingerprintHolder == null ? null
+				: this.fingerprintHolder.get();
+		if (first == holder) {
+			return;
+		} else if (first == null) {
+			this.fingerprintHolder = new WeakReference<NLGElement>(holder);
+			return;
+		}
+		List<WeakReference<NLGElement>> holders = this.moreFingerprintHolders;
+		if (holders == null) {
+			holders = new ArrayList<WeakReference<NLGElement>>(2);
+			this.moreFingerprintHolders = holders;
+		}
+		// holders which have been collected are dropped as the list is
+		// searched, so it only grows with the holders still in use
+		int kept = 0;
+		for (int i = 0; i < holders.size(); i++) {
+			WeakReference<NLGElement> reference = holders.get(i);
+			NLGElement each = reference.get();
+			if (each == holder) {
+				return;
+			} else if (each != null) {
+				holders.set(kept++, reference);
+			}
+		}
+		holders.subList(kept, holders.size()).clear();
+		holders.add(new WeakReference<NLGElement>(holder));
+	}
+
+	/**
+	 * Forgets the fingerprint of this element and of every element whose
+	 * fingerprint was worked out from it.
+	 */
+	void forgetFingerprint() {
+		// nothing has been worked out from a fingerprint which is not known
+		if (this.fingerprint == 0) {
+			return;
+		}
+		WeakReference<NLGElement> holder;
+		List<WeakReference<NLGElement>> moreHolders;
+		synchronized (this) {
+			this.fingerprint = 0;
+			holder = this.fingerprintHolder;
+			moreHolders = this.moreFingerprintHolders;
+			this.fingerprintHolder = null;
+			this.moreFingerprintHolders = null;
+		}
+		forgetFingerprint(holder);
+		if (moreHolders != null) {
+			for (int i = 0; i < moreHolders.size(); i++) {
+				forgetFingerprint(moreHolders.get(i));
+			}
+		}
+	}
+
+	/**
+	 * @param holder
+	 *            a reference to an element whose fingerprint depended on
+	 *            this one, or <code>null</code>.
+	 */
+	private static void forgetFingerprint(WeakReference<NLGElement> holder) {
+		NLGElement element = holder == null ? null : holder.get();
+		if (element != null) {
+			element.forgetFingerprint();
+		}
+	}
+
 }
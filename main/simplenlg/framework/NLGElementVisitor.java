@@ -0,0 +1,55 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.framework;
+
+/**
+ * <p>
+ * A visitor for walking a tree of elements with
+ * {@link NLGElement#accept(NLGElementVisitor)}. Each element is entered, then
+ * its children are visited in order if <code>enter</code> returns
+ * <code>true</code>, and then it is left. The children are those returned by
+ * <code>getChildren()</code>, but they are read with
+ * <code>getChildCount()</code> and <code>getChild(int)</code>, so the walk
+ * does not build lists of them.
+ * </p>
+ * 
+ * <p>
+ * The tree should not be changed while it is being walked.
+ * </p>
+ */
+public interface NLGElementVisitor {
+
+	/**
+	 * Called when the walk reaches an element, before its children.
+	 * 
+	 * @param element
+	 *            the element.
+	 * @return <code>true</code> if the children of the element are to be
+	 *         visited.
+	 */
+	boolean enter(NLGElement element);
+
+	/**
+	 * Called when the walk leaves an element, after its children.
+	 * 
+	 * @param element
+	 *            the element.
+	 */
+	void leave(NLGElement element);
+}
@@ -18,8 +18,12 @@
  */
 package simplenlg.framework;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import simplenlg.features.Feature;
 import simplenlg.features.Gender;
@@ -28,6 +32,7 @@ import simplenlg.features.LexicalFeature;
 import simplenlg.features.NumberAgreement;
 import simplenlg.features.Person;
 import simplenlg.lexicon.Lexicon;
+import simplenlg.lexicon.WordSegmenter;
 import simplenlg.phrasespec.AdjPhraseSpec;
 import simplenlg.phrasespec.AdvPhraseSpec;
 import simplenlg.phrasespec.NPPhraseSpec;
@@ -180,9 +185,24 @@ public class NLGFactory {
 	/** The list of expletive English pronouns. */
 	private static final List<String> EXPLETIVE_PRONOUNS     = Arrays.asList("there");
 
+	/** The pronouns, for fast lookup. */
+	private static final Set<String>  PRONOUN_SET            = new HashSet<String>(PRONOUNS);
+
 	/** regex for determining if a string is a single word or not **/
 	private static final String       WORD_REGEX             = "\\w*";
 
+	/** The compiled WORD_REGEX. */
+	private static final Pattern      WORD_PATTERN           = Pattern.compile(WORD_REGEX);
+
+	/** Splits strings into lexicon words; built when first needed. */
+	private WordSegmenter             segmenter              = null;
+
+	/** Whether the segmenter was built by this factory, not set on it. */
+	private boolean                   segmenterBuilt         = false;
+
+	/** Whether createNLGElement splits strings which are not words. */
+	private boolean                   segmentStrings         = false;
+
 	/**
 	 * Creates a new phrase factory with no associated lexicon.
 	 */
@@ -209,6 +229,83 @@ public class NLGFactory {
 	 */
 	public void setLexicon(Lexicon newLexicon) {
 		this.lexicon = newLexicon;
+		this.segmenter = null;
+		this.segmenterBuilt = false;
+	}
+
+	/**
+	 * Sets whether <code>createNLGElement</code> splits a string which is not
+	 * a word into the lexicon words it contains (eg "正面 侧" or "正面侧" into
+	 * 正面 and 侧). If it does, such a string gives a <code>ListElement</code>
+	 * of <code>WordElement</code>s instead of a <code>StringElement</code>.
+	 * This is off by default, and can't be used with a lexicon which keeps its
+	 * words on disk, as such a lexicon can't list them (see
+	 * {@link #getSegmenter()}).
+	 * 
+	 * @param segment
+	 *            <code>true</code> if strings are to be split.
+	 */
+	public void setSegmentStrings(boolean segment) {
+		this.segmentStrings = segment;
+	}
+
+	/**
+	 * @return <code>true</code> if <code>createNLGElement</code> splits strings
+	 *         which are not words.
+	 */
+	public boolean isSegmentStrings() {
+		return this.segmentStrings;
+	}
+
+	/**
+	 * Sets the segmenter used to split strings into words. Setting
+	 * <code>null</code> (or changing the lexicon) makes the factory build one
+	 * from the base forms of the lexicon and the pronouns when it is next
+	 * needed. A segmenter which is set is used as it is, even if the lexicon
+	 * changes.
+	 * 
+	 * @param newSegmenter
+	 *            the <code>WordSegmenter</code> to be used.
+	 */
+	public void setSegmenter(WordSegmenter newSegmenter) {
+		this.segmenter = newSegmenter;
+		this.segmenterBuilt = false;
+	}
+
+	/**
+	 * @return the segmenter used to split strings into words. If none has been
+	 *         set, one is built from the lexicon, and built again whenever
+	 *         words are added to or removed from the lexicon.
+	 * @throws IllegalArgumentException
+	 *             if a segmenter has to be built and the lexicon can't list
+	 *             its words (eg a <code>TrieLexicon</code> or
+	 *             <code>PagedLexicon</code>), so strings can't be split.
+	 */
+	public WordSegmenter getSegmenter() {
+		WordSegmenter current = this.segmenter;
+		if(current == null || (this.segmenterBuilt && !current.isCurrent())) {
+			current = WordSegmenter.forLexicon(this.lexicon, PRONOUNS);
+			this.segmenter = current;
+			this.segmenterBuilt = true;
+		}
+		return current;
+	}
+
+	/**
+	 * Splits a string into words, using the longest lexicon word at each
+	 * point, and creates a <code>WordElement</code> for each of them.
+	 * 
+	 * @param text
+	 *            the string to split.
+	 * @return the words, in order.
+	 */
+	public List<NLGElement> createWords(String text) {
+		List<NLGElement> words = new ArrayList<NLGElement>();
+		for(String word : getSegmenter().segment(text)) {
+			NLGElement wordElement = createWord(word, LexicalCategory.ANY);
+			words.add(wordElement != null ? wordElement : new WordElement(word));
+		}
+		return words;
 	}
 
 	/**
@@ -235,7 +332,7 @@ public class NLGFactory {
 
 		} else if(word instanceof String && this.lexicon != null) {
 			wordElement = lexicon.lookupWord((String) word, category);
-			if(PRONOUNS.contains(word)) {
+			if(PRONOUN_SET.contains(word)) {
 				setPronounFeatures(wordElement, (String) word);
 			}
 		}
@@ -443,8 +540,12 @@ public class NLGFactory {
 		else if(element instanceof String) {
 			if(stringIsWord((String) element, category))
 				return createWord(element, category);
-			else
-                return new StringElement((String) element);
+			else if(this.segmentStrings) {
+				List<NLGElement> words = createWords((String) element);
+				if(words.size() > 1)
+					return new ListElement(words);
+			}
+			return new StringElement((String) element);
 
 		}
 
@@ -460,7 +561,7 @@ public class NLGFactory {
 	 */
 	private boolean stringIsWord(String string, LexicalCategory category) {
 		return lexicon != null
-		       && (lexicon.hasWord(string, category) || PRONOUNS.contains(string) || (string.matches(WORD_REGEX)));
+		       && (lexicon.hasWord(string, category) || PRONOUN_SET.contains(string) || WORD_PATTERN.matcher(string).matches());
 	}
 
 	/**
@@ -35,6 +35,15 @@ import simplenlg.phrasespec.NPPhraseSpec;
  * construct phrases.
  * </p>
  * 
+ * <p>
+ * The structural features of a phrase (its head, specifiers, subjects, verb
+ * phrase, complements and modifiers) are also kept in typed fields, which are
+ * read by accessors such as <code>getComplementList()</code>. These return the
+ * elements in the feature map without converting or copying them, so the
+ * lists they return are read-only. The feature map is still the only record of
+ * the features, and setting them with <code>setFeature</code> works as before.
+ * </p>
+ * 
  * 
  * @author D. Westwater, University of Aberdeen.
  * @version 4.0
@@ -42,6 +51,47 @@ import simplenlg.phrasespec.NPPhraseSpec;
  */
 public class PhraseElement extends NLGElement {
 
+	/*
+	 * The structural features, read from the feature map again whenever the
+	 * map has been written since they were last read. A field is null if its
+	 * feature cannot be viewed without converting or copying it (eg a head
+	 * which is a String), in which case its accessor falls back on
+	 * getFeatureAsElement or getFeatureAsElementList.
+	 */
+	private FeatureMap slotFeatures = null;
+	private int slotWriteCount = 0;
+	private NLGElement cuePhrase;
+	private NLGElement head;
+	private NLGElement specifier;
+	private NLGElement verbPhrase;
+	private List<NLGElement> verbPhrases;
+	private List<NLGElement> specifiers;
+	private List<NLGElement> subjects;
+	private List<NLGElement> complements;
+	private List<NLGElement> preModifiers;
+	private List<NLGElement> postModifiers;
+	private List<NLGElement> frontModifiers;
+
+	/* the parts of a phrase which make up its children */
+	private static final int CUE_PHRASE_PART = 0;
+	private static final int FRONT_MODIFIERS_PART = 1;
+	private static final int SPECIFIER_PART = 2;
+	private static final int PREMODIFIERS_PART = 3;
+	private static final int SUBJECTS_PART = 4;
+	private static final int HEAD_PART = 5;
+	private static final int VERB_PHRASE_PART = 6;
+	private static final int COMPLEMENTS_PART = 7;
+	private static final int POSTMODIFIERS_PART = 8;
+
+	private static final int[] CLAUSE_PARTS = { CUE_PHRASE_PART,
+			FRONT_MODIFIERS_PART, PREMODIFIERS_PART, SUBJECTS_PART,
+			VERB_PHRASE_PART, COMPLEMENTS_PART };
+	private static final int[] NOUN_PHRASE_PARTS = { SPECIFIER_PART,
+			PREMODIFIERS_PART, HEAD_PART, COMPLEMENTS_PART, POSTMODIFIERS_PART };
+	private static final int[] PHRASE_PARTS = { PREMODIFIERS_PART, HEAD_PART,
+			COMPLEMENTS_PART, POSTMODIFIERS_PART };
+	private static final int[] NO_PARTS = {};
+
 	/**
 	 * Creates a new phrase of the given type.
 	 * 
@@ -79,77 +129,162 @@ public class PhraseElement extends NLGElement {
 	@Override
 	public List<NLGElement> getChildren() {
 		List<NLGElement> children = new ArrayList<NLGElement>();
-		ElementCategory category = getCategory();
-		NLGElement currentElement = null;
-
-		if (category instanceof PhraseCategory) {
-			switch ((PhraseCategory) category) {
-			case CLAUSE:
-				currentElement = getFeatureAsElement(Feature.CUE_PHRASE);
-				if (currentElement != null) {
-					children.add(currentElement);
+		for (int part : getChildParts()) {
+			List<NLGElement> list = getPartList(part);
+			if (list != null) {
+				children.addAll(list);
+			} else {
+				NLGElement element = getPartElement(part);
+				if (element != null) {
+					children.add(element);
 				}
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.FRONT_MODIFIERS));
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.PREMODIFIERS));
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.SUBJECTS));
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.VERB_PHRASE));
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.COMPLEMENTS));
-				break;
+			}
+		}
+		return children;
+	}
 
-			case NOUN_PHRASE:
-				currentElement = getFeatureAsElement(InternalFeature.SPECIFIERS);
-				if (currentElement != null) {
-					children.add(currentElement);
+	/**
+	 * Retrieves the number of children of this phrase without building the
+	 * list of them.
+	 * 
+	 * @return the number of children.
+	 */
+	@Override
+	public int getChildCount() {
+		int count = 0;
+		for (int part : getChildParts()) {
+			List<NLGElement> list = getPartList(part);
+			if (list != null) {
+				count += list.size();
+			} else if (getPartElement(part) != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Retrieves a child of this phrase without building the list of them.
+	 * 
+	 * @param index
+	 *            the position of the child.
+	 * @return the child.
+	 */
+	@Override
+	public NLGElement getChild(int index) {
+		if (index >= 0) {
+			int remaining = index;
+			for (int part : getChildParts()) {
+				List<NLGElement> list = getPartList(part);
+				if (list != null) {
+					if (remaining < list.size()) {
+						return list.get(remaining);
+					}
+					remaining -= list.size();
+				} else {
+					NLGElement element = getPartElement(part);
+					if (element != null) {
+						if (remaining == 0) {
+							return element;
+						}
+						remaining--;
+					}
 				}
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.PREMODIFIERS));
-				currentElement = getHead();
-				if (currentElement != null) {
-					children.add(currentElement);
+			}
+		}
+		throw new IndexOutOfBoundsException("Index: " + index); //$NON-NLS-1$
+	}
+
+	/**
+	 * Walks the tree below this phrase, visiting the children part by part
+	 * rather than looking each one up by its index.
+	 * 
+	 * @param visitor
+	 *            the visitor to call.
+	 */
+	@Override
+	void acceptChildren(NLGElementVisitor visitor) {
+		for (int part : getChildParts()) {
+			List<NLGElement> list = getPartList(part);
+			if (list != null) {
+				for (int i = 0; i < list.size(); i++) {
+					list.get(i).accept(visitor);
 				}
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.COMPLEMENTS));
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.POSTMODIFIERS));
-				break;
-
-			case VERB_PHRASE:
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.PREMODIFIERS));
-				currentElement = getHead();
-				if (currentElement != null) {
-					children.add(currentElement);
+			} else {
+				NLGElement element = getPartElement(part);
+				if (element != null) {
+					element.accept(visitor);
 				}
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.COMPLEMENTS));
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.POSTMODIFIERS));
-				break;
+			}
+		}
+	}
 
-			case CANNED_TEXT:
-				// Do nothing
-				break;
+	/**
+	 * @return the parts of this phrase which make up its children, in order.
+	 */
+	private int[] getChildParts() {
+		ElementCategory category = getCategory();
 
+		if (category instanceof PhraseCategory) {
+			switch ((PhraseCategory) category) {
+			case CLAUSE:
+				return CLAUSE_PARTS;
+			case NOUN_PHRASE:
+				return NOUN_PHRASE_PARTS;
+			case CANNED_TEXT:
+				return NO_PARTS;
 			default:
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.PREMODIFIERS));
-				currentElement = getHead();
-				if (currentElement != null) {
-					children.add(currentElement);
-				}
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.COMPLEMENTS));
-				children
-						.addAll(getFeatureAsElementList(InternalFeature.POSTMODIFIERS));
-				break;
+				return PHRASE_PARTS;
 			}
 		}
-		return children;
+		return NO_PARTS;
+	}
+
+	/**
+	 * @param part
+	 *            a part of the phrase.
+	 * @return the elements of the part, or <code>null</code> if it is a part
+	 *         with a single element.
+	 */
+	private List<NLGElement> getPartList(int part) {
+		switch (part) {
+		case FRONT_MODIFIERS_PART:
+			return getFrontModifierList();
+		case PREMODIFIERS_PART:
+			return getPreModifierList();
+		case SUBJECTS_PART:
+			return getSubjectList();
+		case VERB_PHRASE_PART:
+			readSlots();
+			return this.verbPhrases != null ? this.verbPhrases
+					: getFeatureAsElementList(InternalFeature.VERB_PHRASE);
+		case COMPLEMENTS_PART:
+			return getComplementList();
+		case POSTMODIFIERS_PART:
+			return getPostModifierList();
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * @param part
+	 *            a part of the phrase with a single element.
+	 * @return the element, or <code>null</code> if there is none.
+	 */
+	private NLGElement getPartElement(int part) {
+		switch (part) {
+		case CUE_PHRASE_PART:
+			readSlots();
+			return this.cuePhrase != null ? this.cuePhrase
+					: getFeatureAsElement(Feature.CUE_PHRASE);
+		case SPECIFIER_PART:
+			return getSpecifierElement();
+		case HEAD_PART:
+			return getHead();
+		default:
+			return null;
+		}
 	}
 
 	/**
@@ -183,7 +318,174 @@ public class PhraseElement extends NLGElement {
 	 * @return the <code>NLGElement</code> representing the head.
 	 */
 	public NLGElement getHead() {
-		return getFeatureAsElement(InternalFeature.HEAD);
+		readSlots();
+		return this.head != null ? this.head
+				: getFeatureAsElement(InternalFeature.HEAD);
+	}
+
+	/**
+	 * Retrieves the specifier of this phrase as a single element, as
+	 * <code>getFeatureAsElement(InternalFeature.SPECIFIERS)</code> does.
+	 * 
+	 * @return the <code>NLGElement</code> representing the specifier.
+	 */
+	public NLGElement getSpecifierElement() {
+		readSlots();
+		return this.specifier != null ? this.specifier
+				: getFeatureAsElement(InternalFeature.SPECIFIERS);
+	}
+
+	/**
+	 * Retrieves the verb phrase of this clause, as
+	 * <code>getFeatureAsElement(InternalFeature.VERB_PHRASE)</code> does.
+	 * 
+	 * @return the <code>NLGElement</code> representing the verb phrase.
+	 */
+	public NLGElement getVerbPhraseElement() {
+		readSlots();
+		return this.verbPhrase != null ? this.verbPhrase
+				: getFeatureAsElement(InternalFeature.VERB_PHRASE);
+	}
+
+	/**
+	 * Retrieves the specifiers of this phrase without copying them.
+	 * 
+	 * @return a read-only <code>List</code> of <code>NLGElement</code>s.
+	 */
+	public List<NLGElement> getSpecifierList() {
+		readSlots();
+		return this.specifiers != null ? this.specifiers
+				: getFeatureAsElementList(InternalFeature.SPECIFIERS);
+	}
+
+	/**
+	 * Retrieves the subjects of this clause without copying them.
+	 * 
+	 * @return a read-only <code>List</code> of <code>NLGElement</code>s.
+	 */
+	public List<NLGElement> getSubjectList() {
+		readSlots();
+		return this.subjects != null ? this.subjects
+				: getFeatureAsElementList(InternalFeature.SUBJECTS);
+	}
+
+	/**
+	 * Retrieves the complements of this phrase without copying them.
+	 * 
+	 * @return a read-only <code>List</code> of <code>NLGElement</code>s.
+	 */
+	public List<NLGElement> getComplementList() {
+		readSlots();
+		return this.complements != null ? this.complements
+				: getFeatureAsElementList(InternalFeature.COMPLEMENTS);
+	}
+
+	/**
+	 * Retrieves the pre-modifiers of this phrase without copying them.
+	 * 
+	 * @return a read-only <code>List</code> of <code>NLGElement</code>s.
+	 */
+	public List<NLGElement> getPreModifierList() {
+		readSlots();
+		return this.preModifiers != null ? this.preModifiers
+				: getFeatureAsElementList(InternalFeature.PREMODIFIERS);
+	}
+
+	/**
+	 * Retrieves the post-modifiers of this phrase without copying them.
+	 * 
+	 * @return a read-only <code>List</code> of <code>NLGElement</code>s.
+	 */
+	public List<NLGElement> getPostModifierList() {
+		readSlots();
+		return this.postModifiers != null ? this.postModifiers
+				: getFeatureAsElementList(InternalFeature.POSTMODIFIERS);
+	}
+
+	/**
+	 * Retrieves the front modifiers of this phrase without copying them.
+	 * 
+	 * @return a read-only <code>List</code> of <code>NLGElement</code>s.
+	 */
+	public List<NLGElement> getFrontModifierList() {
+		readSlots();
+		return this.frontModifiers != null ? this.frontModifiers
+				: getFeatureAsElementList(InternalFeature.FRONT_MODIFIERS);
+	}
+
+	/**
+	 * Retrieves a list feature without copying it. The structural features of
+	 * the phrase are returned from their fields.
+	 * 
+	 * @param featureName
+	 *            the name of the feature.
+	 * @return a read-only <code>List</code> of <code>NLGElement</code>s
+	 */
+	@Override
+	public List<NLGElement> getFeatureAsElementListView(String featureName) {
+		if (InternalFeature.COMPLEMENTS.equals(featureName)) {
+			return getComplementList();
+		} else if (InternalFeature.PREMODIFIERS.equals(featureName)) {
+			return getPreModifierList();
+		} else if (InternalFeature.POSTMODIFIERS.equals(featureName)) {
+			return getPostModifierList();
+		} else if (InternalFeature.SUBJECTS.equals(featureName)) {
+			return getSubjectList();
+		} else if (InternalFeature.FRONT_MODIFIERS.equals(featureName)) {
+			return getFrontModifierList();
+		} else if (InternalFeature.SPECIFIERS.equals(featureName)) {
+			return getSpecifierList();
+		}
+		return super.getFeatureAsElementListView(featureName);
+	}
+
+	@Override
+	NLGElement copyElement() {
+		PhraseElement copy = (PhraseElement) super.copyElement();
+		// the structural fields are read again from the copy's features
+		copy.slotFeatures = null;
+		return copy;
+	}
+
+	/**
+	 * Reads the structural features into their fields, unless the feature map
+	 * has not been written since they were last read.
+	 */
+	private void readSlots() {
+		copyPendingElements();
+		FeatureMap map = this.features;
+		if (map == this.slotFeatures
+				&& map.getWriteCount() == this.slotWriteCount) {
+			return;
+		}
+		this.cuePhrase = elementSlot(map.get(Feature.CUE_PHRASE));
+		this.head = elementSlot(map.get(InternalFeature.HEAD));
+		Object verbPhraseValue = map.get(InternalFeature.VERB_PHRASE);
+		this.verbPhrase = elementSlot(verbPhraseValue);
+		this.verbPhrases = elementListView(verbPhraseValue);
+		Object specifierValue = map.get(InternalFeature.SPECIFIERS);
+		this.specifier = elementSlot(specifierValue);
+		this.specifiers = elementListView(specifierValue);
+		this.subjects = elementListView(map.get(InternalFeature.SUBJECTS));
+		this.complements = elementListView(map
+				.get(InternalFeature.COMPLEMENTS));
+		this.preModifiers = elementListView(map
+				.get(InternalFeature.PREMODIFIERS));
+		this.postModifiers = elementListView(map
+				.get(InternalFeature.POSTMODIFIERS));
+		this.frontModifiers = elementListView(map
+				.get(InternalFeature.FRONT_MODIFIERS));
+		this.slotFeatures = map;
+		this.slotWriteCount = map.getWriteCount();
+	}
+
+	/**
+	 * @param value
+	 *            the value of a feature.
+	 * @return the value if it is an element, otherwise <code>null</code>.
+	 */
+	private static NLGElement elementSlot(Object value) {
+		return value instanceof NLGElement ? (NLGElement) value : null;
 	}
 
 	/**
@@ -59,6 +59,16 @@ public class StringElement extends NLGElement {
 		return new ArrayList<NLGElement>();
 	}
 
+	@Override
+	public int getChildCount() {
+		return 0;
+	}
+
+	@Override
+	public NLGElement getChild(int index) {
+		throw new IndexOutOfBoundsException("Index: " + index); //$NON-NLS-1$
+	}
+
 	@Override
 	public String toString() {
 		return getRealisation();
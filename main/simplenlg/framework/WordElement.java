@@ -124,6 +124,23 @@ public class WordElement extends NLGElement {
 	
 	
 
+	/**
+	 * creates a duplicate of this WordElement which shares its features rather
+	 * than copying them. The features are only copied when either word is
+	 * changed, so this is much cheaper than
+	 * {@link #WordElement(WordElement)} when the duplicate is mostly read, as
+	 * with words returned from a lexicon.
+	 * 
+	 * @return the duplicate WordElement
+	 */
+	public WordElement createSharedCopy() {
+		WordElement copy = new WordElement(this.baseForm,
+				LexicalCategory.ANY, this.id);
+		copy.setCategory(getCategory());
+		copy.shareFeatures(this);
+		return copy;
+	}
+
 	/**********************************************************/
 	// getters and setters
 	/**********************************************************/
@@ -147,6 +164,8 @@ public class WordElement extends NLGElement {
 	 *            the baseForm to set
 	 */
 	public void setBaseForm(String baseForm) {
+		checkNotFrozen();
+		forgetFingerprint();
 		this.baseForm = baseForm;
 	}
 
@@ -155,6 +174,8 @@ public class WordElement extends NLGElement {
 	 *            the id to set
 	 */
 	public void setId(String id) {
+		checkNotFrozen();
+		forgetFingerprint();
 		this.id = id;
 	}
 
@@ -165,7 +186,7 @@ public class WordElement extends NLGElement {
 	 * 				the WordElement to copy features from
 	 */
 	public void setFeatures(WordElement currentWord) {
-		if(null != currentWord && null != currentWord.getAllFeatures()) {
+		if(null != currentWord && null != currentWord.features) {
 			for(String feature : currentWord.getAllFeatureNames()) {
 				this.setFeature(feature, currentWord.getFeature(feature));
 			}
@@ -230,6 +251,16 @@ public class WordElement extends NLGElement {
 		return new ArrayList<NLGElement>();
 	}
 
+	@Override
+	public int getChildCount() {
+		return 0;
+	}
+
+	@Override
+	public NLGElement getChild(int index) {
+		throw new IndexOutOfBoundsException("Index: " + index); //$NON-NLS-1$
+	}
+
 	@Override
 	public String printTree(String indent) {
 		StringBuffer print = new StringBuffer();
@@ -245,7 +276,7 @@ public class WordElement extends NLGElement {
 	 * @param o
 	 *            the object
 	 * @return <code>true</code> iff the object is a word element with the same
-	 *         id and the same baseform and the same features.
+	 *         id, the same baseform, the same category and the same features.
 	 * 
 	 */
 	@Override
@@ -253,9 +284,11 @@ public class WordElement extends NLGElement {
 		if (o instanceof WordElement) {
 			WordElement we = (WordElement) o;
 
-			return (this.baseForm == we.baseForm || this.baseForm
-					.equals(we.baseForm))
-					&& (this.id == we.id || this.id.equals(we.id))
+			return (this.baseForm == we.baseForm || this.baseForm != null
+					&& this.baseForm.equals(we.baseForm))
+					&& (this.id == we.id || this.id != null
+							&& this.id.equals(we.id))
+					&& getCategory() == we.getCategory()
 					&& we.features.equals(this.features);
 		}
 
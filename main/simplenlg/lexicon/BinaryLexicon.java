@@ -0,0 +1,223 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class loads a lexicon which has been compiled into binary form by
+ * {@link LexiconCompiler}. The compiled file contains the words and the
+ * prebuilt base, variant and ID indices, so loading it is a single sequential
+ * read, with no XML parsing or re-indexing. Once loaded, it behaves exactly
+ * like the {@link XMLLexicon} it was compiled from.
+ * 
+ * Files written before the key filter was added (version 1) can still be
+ * read; the filter is then built when they are loaded.
+ */
+public class BinaryLexicon extends XMLLexicon {
+
+	// header of a compiled lexicon file
+	static final int MAGIC = 0x534E4C58; // "SNLX"
+	static final short VERSION = 2; // version 2 adds the key filter
+
+	// types of feature values in a compiled lexicon file
+	static final byte VALUE_BOOLEAN = 0;
+	static final byte VALUE_STRING = 1;
+
+	// size of read buffer
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	//**********************************************************************
+	// constructors
+	//**********************************************************************
+
+	/**
+	 * Load a compiled lexicon from a named file
+	 * 
+	 * @param filename
+	 *          name of the compiled lexicon file
+	 */
+	public BinaryLexicon(String filename) {
+		this(new File(filename));
+	}
+
+	/**
+	 * Load a compiled lexicon from a File
+	 * 
+	 * @param file
+	 *          path of the compiled lexicon file
+	 */
+	public BinaryLexicon(File file) {
+		this(Snapshot.read(file.toURI()));
+	}
+
+	/**
+	 * Load a compiled lexicon from a URI
+	 * 
+	 * @param lexiconURI
+	 *          The URI of the compiled lexicon
+	 */
+	public BinaryLexicon(URI lexiconURI) {
+		this(Snapshot.read(lexiconURI));
+	}
+
+	private BinaryLexicon(Snapshot snapshot) {
+		super(snapshot.words, snapshot.indexByID, snapshot.indexByBase,
+				snapshot.indexByVariant, snapshot.filter);
+	}
+
+	/**
+	 * The contents of a compiled lexicon file
+	 */
+	private static class Snapshot {
+		Set<WordElement> words = Collections
+				.newSetFromMap(new IdentityHashMap<WordElement, Boolean>());
+		Map<String, WordElement> indexByID = new HashMap<String, WordElement>();
+		WordIndex indexByBase = new WordIndex();
+		WordIndex indexByVariant = new WordIndex();
+		BloomFilter filter = null; // built on loading if not in the file
+
+		/**
+		 * read a compiled lexicon. Errors are reported and result in an empty
+		 * (or partial) lexicon, as with XMLLexicon
+		 * 
+		 * @param lexiconURI
+		 * @return contents of the lexicon
+		 */
+		static Snapshot read(URI lexiconURI) {
+			Snapshot snapshot = new Snapshot();
+			DataInputStream in = null;
+			try {
+				in = new DataInputStream(new BufferedInputStream(
+						openStream(lexiconURI), BUFFER_SIZE));
+				snapshot.readFrom(in);
+			} catch (Exception ex) {
+				System.out.println(ex.toString());
+			} finally {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (IOException ex) {
+						// nothing to do
+					}
+				}
+			}
+			return snapshot;
+		}
+
+		private static InputStream openStream(URI lexiconURI)
+				throws IOException {
+			if ("file".equals(lexiconURI.getScheme()))
+				return new FileInputStream(new File(lexiconURI));
+			return lexiconURI.toURL().openStream();
+		}
+
+		private void readFrom(DataInputStream in) throws IOException {
+			if (in.readInt() != MAGIC)
+				throw new IOException("Not a compiled lexicon");
+			short version = in.readShort();
+			if (version != VERSION && version != 1)
+				throw new IOException("Unsupported compiled lexicon version "
+						+ version);
+
+			// words, in ordinal order
+			int wordCount = in.readInt();
+			WordElement[] table = new WordElement[wordCount];
+			FeatureInterner interner = new FeatureInterner();
+			for (int i = 0; i < wordCount; i++) {
+				table[i] = readWord(in, interner);
+				words.add(table[i]);
+			}
+
+			// ID index
+			int idCount = in.readInt();
+			for (int i = 0; i < idCount; i++) {
+				String id = in.readUTF();
+				indexByID.put(id, table[in.readInt()]);
+			}
+
+			// base and variant indices
+			readIndex(in, table, indexByBase);
+			readIndex(in, table, indexByVariant);
+
+			// key filter (not in version 1 files)
+			if (version >= 2)
+				filter = BloomFilter.read(in);
+		}
+
+		private static void readIndex(DataInputStream in, WordElement[] table,
+				WordIndex index) throws IOException {
+			int keyCount = in.readInt();
+			for (int i = 0; i < keyCount; i++) {
+				String key = in.readUTF();
+				int size = in.readInt();
+				for (int j = 0; j < size; j++)
+					index.add(key, table[in.readInt()]);
+			}
+		}
+	}
+
+	/**
+	 * read a word written by <code>LexiconCompiler</code>
+	 * 
+	 * @param in
+	 * @param interner
+	 *          shares feature names and values between words
+	 * @return the word
+	 * @throws IOException
+	 */
+	static WordElement readWord(DataInputStream in,
+			FeatureInterner interner) throws IOException {
+		WordElement word = new WordElement();
+		word.setBaseForm(readNullableUTF(in));
+		word.setCategory(LexicalCategory.valueOf(in.readUTF()));
+		word.setId(readNullableUTF(in));
+
+		int featureCount = in.readShort();
+		for (int i = 0; i < featureCount; i++) {
+			String feature = interner.internName(in.readUTF());
+			byte type = in.readByte();
+			if (type == VALUE_BOOLEAN)
+				word.setFeature(feature, interner.internValue(Boolean
+						.valueOf(in.readBoolean())));
+			else
+				word.setFeature(feature, interner.internValue(in.readUTF()));
+		}
+		return word;
+	}
+
+	private static String readNullableUTF(DataInputStream in)
+			throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
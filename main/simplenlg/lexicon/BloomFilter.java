@@ -0,0 +1,151 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A Bloom filter of lexicon keys (base forms, variants and IDs). It answers
+ * "might this string be in the lexicon?" using a few bits per key: if the
+ * answer is no, the string is certainly not in the lexicon, so lookups of
+ * unknown strings (numbers, names, ad-hoc phrases) can skip the indices
+ * altogether. A yes answer is wrong for about 1% of unknown strings, which
+ * are then looked up in the indices as usual.
+ */
+class BloomFilter {
+
+	/* bits per key and hash functions per key, for a false positive rate of
+	 * about 1% */
+	private static final int BITS_PER_KEY = 10;
+	private static final int HASH_COUNT = 7;
+
+	private final long[] bits;
+	private final int hashCount;
+
+	/**
+	 * create an empty filter
+	 * 
+	 * @param expectedKeys
+	 *            number of keys which will be added
+	 */
+	BloomFilter(int expectedKeys) {
+		this(new long[Math.max(1, (expectedKeys * BITS_PER_KEY + 63) / 64)],
+				HASH_COUNT);
+	}
+
+	private BloomFilter(long[] bits, int hashCount) {
+		this.bits = bits;
+		this.hashCount = hashCount;
+	}
+
+	/**
+	 * @return number of keys the filter can hold before it answers yes for
+	 *         more than about 1% of unknown strings
+	 */
+	int getCapacity() {
+		return (int) Math.min(Integer.MAX_VALUE, bits.length * 64L
+				/ BITS_PER_KEY);
+	}
+
+	/**
+	 * add a key to the filter
+	 * 
+	 * @param key
+	 */
+	void add(String key) {
+		long bitCount = bits.length * 64L;
+		int h1 = hash1(key);
+		int h2 = hash2(key);
+		for (int i = 0; i < hashCount; i++) {
+			int bit = (int) (((h1 + i * h2) & 0xFFFFFFFFL) % bitCount);
+			bits[bit >>> 6] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * @param key
+	 * @return false if the key is certainly not in the filter; true if it
+	 *         probably is (or is null)
+	 */
+	boolean mightContain(String key) {
+		if (key == null)
+			return true;
+		long bitCount = bits.length * 64L;
+		int h1 = hash1(key);
+		int h2 = hash2(key);
+		for (int i = 0; i < hashCount; i++) {
+			int bit = (int) (((h1 + i * h2) & 0xFFFFFFFFL) % bitCount);
+			if ((bits[bit >>> 6] & (1L << bit)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * write the filter to a compiled lexicon file
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeByte(hashCount);
+		out.writeInt(bits.length);
+		for (long word : bits)
+			out.writeLong(word);
+	}
+
+	/**
+	 * read a filter written by <code>write</code>
+	 * 
+	 * @param in
+	 * @return the filter
+	 * @throws IOException
+	 */
+	static BloomFilter read(DataInputStream in) throws IOException {
+		int hashCount = in.readByte();
+		long[] bits = new long[in.readInt()];
+		for (int i = 0; i < bits.length; i++)
+			bits[i] = in.readLong();
+		return new BloomFilter(bits, hashCount);
+	}
+
+	/* String.hashCode, with its bits spread (as in MurmurHash3's finaliser) */
+	private static int hash1(String key) {
+		int h = key.hashCode();
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/* FNV-1a hash of the characters, made odd so that it steps through all
+	 * the bits */
+	private static int hash2(String key) {
+		int h = 0x811C9DC5;
+		for (int i = 0; i < key.length(); i++) {
+			h ^= key.charAt(i);
+			h *= 0x01000193;
+		}
+		return h | 1;
+	}
+}
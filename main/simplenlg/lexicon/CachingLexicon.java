@@ -0,0 +1,380 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class wraps another lexicon and remembers the results of
+ * <code>lookupWord</code> and <code>getWords</code> for each form and
+ * category, so that words which are looked up again and again (的, 了, 是,
+ * pronouns, classifiers) are only searched for once. Lookups which find
+ * nothing are remembered too.
+ * 
+ * The cache holds at most a given number of results. It is split into
+ * segments, each with its own lock, so that lookups by different threads
+ * rarely wait for each other; the capacity is shared out exactly among them,
+ * and when a segment is full its least recently used result is dropped.
+ * Small caches have fewer segments, so that a cache which is nearly empty
+ * does not drop results. Hit, miss and eviction counts are kept to help
+ * choose the size.
+ * 
+ * Each lookup returns a shared copy of the remembered word (see
+ * {@link WordElement#createSharedCopy()}), so changing a word does not
+ * change the cache. If the wrapped lexicon changes, call {@link #clear()}.
+ */
+public class CachingLexicon extends Lexicon {
+
+	/** default maximum number of cached results */
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	/* largest number of segments; must be a power of two */
+	private static final int MAX_SEGMENTS = 16;
+
+	/* smallest capacity of a segment, unless the whole cache is smaller */
+	private static final int MIN_SEGMENT_CAPACITY = 64;
+
+	private final Lexicon lexicon; // lexicon being cached
+	private final Segment[] segments;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**********************************************************************/
+	// constructors
+	/**********************************************************************/
+
+	/**
+	 * cache lookups in a lexicon, with the default capacity
+	 * 
+	 * @param lexicon
+	 */
+	public CachingLexicon(Lexicon lexicon) {
+		this(lexicon, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * cache lookups in a lexicon
+	 * 
+	 * @param lexicon
+	 * @param capacity
+	 *            maximum number of results to cache
+	 */
+	public CachingLexicon(Lexicon lexicon, int capacity) {
+		super();
+		if (capacity < 1)
+			throw new IllegalArgumentException("Cache capacity must be positive");
+		this.lexicon = lexicon;
+		int count = 1;
+		while (count < MAX_SEGMENTS
+				&& capacity / (count * 2) >= MIN_SEGMENT_CAPACITY)
+			count *= 2;
+		// the first (capacity % count) segments take one more result each,
+		// so that the capacities add up to the one asked for
+		segments = new Segment[count];
+		for (int i = 0; i < count; i++)
+			segments[i] = new Segment(capacity / count
+					+ (i < capacity % count ? 1 : 0));
+	}
+
+	/**********************************************************************/
+	// statistics
+	/**********************************************************************/
+
+	/**
+	 * @return the lexicon being cached
+	 */
+	public Lexicon getLexicon() {
+		return lexicon;
+	}
+
+	/**
+	 * @return number of lookups answered from the cache
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return number of lookups passed to the wrapped lexicon
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return number of results dropped because the cache was full
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * @return maximum number of results in the cache
+	 */
+	public int getCapacity() {
+		int capacity = 0;
+		for (Segment segment : segments)
+			capacity += segment.capacity;
+		return capacity;
+	}
+
+	/**
+	 * @return number of results in the cache
+	 */
+	public int getSize() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * forget all cached results (the counts are kept)
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**********************************************************************/
+	// cached lookups
+	/**********************************************************************/
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#lookupWord(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	public WordElement lookupWord(String baseForm, LexicalCategory category) {
+		Key key = new Key(baseForm, category, false);
+		WordElement word = (WordElement) getCached(key);
+		if (word == null) {
+			word = lexicon.lookupWord(baseForm, category);
+			putCached(key, word);
+		}
+		return word.createSharedCopy();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWords(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<WordElement> getWords(String baseForm, LexicalCategory category) {
+		Key key = new Key(baseForm, category, true);
+		List<WordElement> words = (List<WordElement>) getCached(key);
+		if (words == null) {
+			words = lexicon.getWords(baseForm, category);
+			if (words == null)
+				words = new ArrayList<WordElement>();
+			putCached(key, words);
+		}
+		List<WordElement> result = new ArrayList<WordElement>(words.size());
+		for (WordElement word : words)
+			result.add(word.createSharedCopy());
+		return result;
+	}
+
+	/**
+	 * @param key
+	 * @return cached result, or null if not cached
+	 */
+	private Object getCached(Key key) {
+		Segment segment = segmentFor(key);
+		Object value;
+		synchronized (segment) {
+			value = segment.get(key);
+		}
+		if (value == null)
+			misses.incrementAndGet();
+		else
+			hits.incrementAndGet();
+		return value;
+	}
+
+	/**
+	 * cache a result
+	 * 
+	 * @param key
+	 * @param value
+	 */
+	private void putCached(Key key, Object value) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			segment.put(key, value);
+		}
+	}
+
+	private Segment segmentFor(Key key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return segments[hash & (segments.length - 1)];
+	}
+
+	/**********************************************************************/
+	// other lookups, passed to the wrapped lexicon
+	/**********************************************************************/
+
+	@Override
+	protected WordElement createWord(String baseForm, LexicalCategory category) {
+		return lexicon.createWord(baseForm, category);
+	}
+
+	@Override
+	protected WordElement createWord(String baseForm) {
+		return lexicon.createWord(baseForm);
+	}
+
+	@Override
+	public LookupResult resolveWord(String baseForm, LexicalCategory category) {
+		return lexicon.resolveWord(baseForm, category);
+	}
+
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		return lexicon.findWord(baseForm, category);
+	}
+
+	@Override
+	public List<WordElement> getWordsByID(String id) {
+		return lexicon.getWordsByID(id);
+	}
+
+	@Override
+	protected WordElement findWordByID(String id) {
+		return lexicon.findWordByID(id);
+	}
+
+	@Override
+	public List<WordElement> getWordsFromVariant(String variant,
+			LexicalCategory category) {
+		return lexicon.getWordsFromVariant(variant, category);
+	}
+
+	@Override
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		return lexicon.findWordFromVariant(variant, category);
+	}
+
+	@Override
+	Collection<String> getBaseForms() {
+		return lexicon.getBaseForms();
+	}
+
+	@Override
+	long getVersion() {
+		return lexicon.getVersion();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#close()
+	 */
+	@Override
+	public void close() {
+		clear();
+		lexicon.close();
+	}
+
+	/**********************************************************************/
+	// cache structure
+	/**********************************************************************/
+
+	/**
+	 * key of a cached result: form, category and whether it is a
+	 * <code>getWords</code> list or a <code>lookupWord</code> word
+	 */
+	private static final class Key {
+		final String form;
+		final LexicalCategory category;
+		final boolean list;
+
+		Key(String form, LexicalCategory category, boolean list) {
+			this.form = form;
+			this.category = category;
+			this.list = list;
+		}
+
+		@Override
+		public int hashCode() {
+			// use the ordinal rather than the enum's identity hash code, so
+			// that a key goes to the same segment in every run
+			int hash = form == null ? 0 : form.hashCode();
+			hash = 31 * hash + (category == null ? -1 : category.ordinal());
+			return list ? ~hash : hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return list == other.list && category == other.category
+					&& (form == null ? other.form == null : form
+							.equals(other.form));
+		}
+	}
+
+	/**
+	 * one segment of the cache: a map in least recently used order, which
+	 * drops its eldest entry when full. Must be used while synchronized on
+	 * the segment
+	 */
+	private class Segment extends LinkedHashMap<Key, Object> {
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+			if (size() <= capacity)
+				return false;
+			evictions.incrementAndGet();
+			return true;
+		}
+	}
+}
@@ -0,0 +1,399 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A read-only double-array trie mapping strings to non-negative int values.
+ * The trie is held in buffers, which are usually views of a memory-mapped
+ * file, so a large trie takes up almost no Java heap. Strings are first
+ * translated to a compact alphabet using a table with one entry for each
+ * <code>char</code>, which keeps the arrays small for large (eg CJK)
+ * character sets.
+ * 
+ * Transitions from a state <code>s</code> by code <code>c</code> go to state
+ * <code>base[s] + c</code>, and are valid if <code>check</code> of that state
+ * is <code>s</code>. Code 0 marks the end of a string; the state it leads to
+ * holds the value as <code>-(value + 1)</code> in <code>base</code>.
+ */
+class DoubleArrayTrie {
+
+	/** size of the table translating chars to codes */
+	static final int ALPHABET_TABLE_SIZE = Character.MAX_VALUE + 1;
+
+	private final CharBuffer codes;
+	private final IntBuffer base;
+	private final IntBuffer check;
+
+	/**
+	 * create a trie over existing buffers, which are only accessed with
+	 * absolute reads so the trie can be shared between threads
+	 * 
+	 * @param codes
+	 *            table from char to code (0 if char not in the trie)
+	 * @param base
+	 *            base array
+	 * @param check
+	 *            check array
+	 */
+	DoubleArrayTrie(CharBuffer codes, IntBuffer base, IntBuffer check) {
+		this.codes = codes;
+		this.base = base;
+		this.check = check;
+	}
+
+	/**
+	 * @param key
+	 * @return value for this key, or -1 if the key is not in the trie
+	 */
+	int get(String key) {
+		int size = base.limit();
+		int state = 0;
+		for (int i = 0; i < key.length(); i++) {
+			int code = codes.get(key.charAt(i));
+			if (code == 0)
+				return -1;
+			int next = base.get(state) + code;
+			if (next <= 0 || next >= size || check.get(next) != state)
+				return -1;
+			state = next;
+		}
+		int end = base.get(state);
+		if (end <= 0 || end >= size || check.get(end) != state)
+			return -1;
+		return -base.get(end) - 1;
+	}
+
+	/**
+	 * find the longest key which occurs in a string at a given position
+	 * 
+	 * @param text
+	 * @param start
+	 *            position in text
+	 * @return length of the longest key which text has at start, or 0 if
+	 *         there is none
+	 */
+	int longestPrefix(CharSequence text, int start) {
+		int size = base.limit();
+		int state = 0;
+		int longest = 0;
+		for (int i = start; i < text.length(); i++) {
+			int code = codes.get(text.charAt(i));
+			if (code == 0)
+				break;
+			int next = base.get(state) + code;
+			if (next <= 0 || next >= size || check.get(next) != state)
+				break;
+			state = next;
+			// is there a key which ends here?
+			int end = base.get(state);
+			if (end > 0 && end < size && check.get(end) == state)
+				longest = i - start + 1;
+		}
+		return longest;
+	}
+
+	//**********************************************************************
+	// construction
+	//**********************************************************************
+
+	/**
+	 * Builds the arrays of a double-array trie from a set of keys
+	 */
+	static class Builder {
+
+		private static final int EMPTY = -1;
+		private static final int NONE = -1;
+
+		private final char[] codeTable = new char[ALPHABET_TABLE_SIZE];
+		private int[] base;
+		private int[] check;
+		private int size = 1; // used size of the arrays
+
+		// doubly linked list of free states
+		private int[] nextFree;
+		private int[] previousFree;
+		private int firstFree = NONE;
+		private int lastFree = NONE;
+
+		// where to start searching for a base, by log2 of number of children
+		private final int[] searchStart = new int[32];
+
+		private int[][] keys;
+		private int[] values;
+
+		/**
+		 * build a trie
+		 * 
+		 * @param keyStrings
+		 *            keys, which must be distinct
+		 * @param keyValues
+		 *            non-negative value for each key
+		 */
+		Builder(String[] keyStrings, int[] keyValues) {
+			buildAlphabet(keyStrings);
+
+			// translate keys to codes, each followed by the end code 0, and
+			// sort them
+			Integer[] order = new Integer[keyStrings.length];
+			final int[][] codedKeys = new int[keyStrings.length][];
+			for (int i = 0; i < keyStrings.length; i++) {
+				order[i] = i;
+				codedKeys[i] = encode(keyStrings[i]);
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				public int compare(Integer a, Integer b) {
+					return compareKeys(codedKeys[a], codedKeys[b]);
+				}
+			});
+			keys = new int[order.length][];
+			values = new int[order.length];
+			for (int i = 0; i < order.length; i++) {
+				keys[i] = codedKeys[order[i]];
+				values[i] = keyValues[order[i]];
+			}
+
+			int capacity = Math.max(1024, keyStrings.length * 4);
+			base = new int[capacity];
+			check = new int[capacity];
+			nextFree = new int[capacity];
+			previousFree = new int[capacity];
+			Arrays.fill(check, EMPTY);
+			check[0] = 0; // root
+			linkFree(1, capacity);
+
+			if (keys.length > 0) {
+				int rootBase = insert(0, 0, keys.length, 0);
+				base[0] = rootBase;
+			}
+		}
+
+		/**
+		 * @return table from char to code
+		 */
+		char[] getCodeTable() {
+			return codeTable;
+		}
+
+		/**
+		 * @return base array, trimmed to its used size
+		 */
+		int[] getBase() {
+			return Arrays.copyOf(base, size);
+		}
+
+		/**
+		 * @return check array, trimmed to its used size
+		 */
+		int[] getCheck() {
+			return Arrays.copyOf(check, size);
+		}
+
+		/**
+		 * @return the trie, held on the heap
+		 */
+		DoubleArrayTrie build() {
+			return new DoubleArrayTrie(CharBuffer.wrap(getCodeTable()),
+					IntBuffer.wrap(getBase()), IntBuffer.wrap(getCheck()));
+		}
+
+		/**
+		 * assign codes to chars, most frequent first, so that common chars
+		 * have small codes and the arrays are densely packed
+		 */
+		private void buildAlphabet(String[] keyStrings) {
+			final int[] counts = new int[ALPHABET_TABLE_SIZE];
+			for (String key : keyStrings)
+				for (int i = 0; i < key.length(); i++)
+					counts[key.charAt(i)]++;
+
+			Integer[] chars = new Integer[ALPHABET_TABLE_SIZE];
+			for (int i = 0; i < chars.length; i++)
+				chars[i] = i;
+			Arrays.sort(chars, new Comparator<Integer>() {
+				public int compare(Integer a, Integer b) {
+					return counts[b] - counts[a];
+				}
+			});
+			for (int i = 0; i < chars.length && counts[chars[i]] > 0; i++)
+				codeTable[chars[i]] = (char) (i + 1);
+		}
+
+		private int[] encode(String key) {
+			int[] coded = new int[key.length() + 1];
+			for (int i = 0; i < key.length(); i++)
+				coded[i] = codeTable[key.charAt(i)];
+			coded[key.length()] = 0;
+			return coded;
+		}
+
+		private static int compareKeys(int[] a, int[] b) {
+			int length = Math.min(a.length, b.length);
+			for (int i = 0; i < length; i++)
+				if (a[i] != b[i])
+					return a[i] - b[i];
+			return a.length - b.length;
+		}
+
+		/**
+		 * add the children of a state to the arrays, and recursively their
+		 * children
+		 * 
+		 * @param parent
+		 *            the state
+		 * @param left
+		 *            first key below the state
+		 * @param right
+		 *            end of keys below the state
+		 * @param depth
+		 *            position in the keys of the children
+		 * @return base of the state
+		 */
+		private int insert(int parent, int left, int right, int depth) {
+			// distinct codes at this depth; keys are sorted so these are
+			// contiguous and ascending
+			int childCount = 0;
+			int[] childCodes = new int[right - left];
+			int[] childStarts = new int[right - left + 1];
+			for (int i = left; i < right; i++) {
+				int code = keys[i][depth];
+				if (childCount == 0 || childCodes[childCount - 1] != code) {
+					childCodes[childCount] = code;
+					childStarts[childCount] = i;
+					childCount++;
+				}
+			}
+			childStarts[childCount] = right;
+
+			// reserve the child states before filling them in
+			int begin = findBase(childCodes, childCount);
+			for (int i = 0; i < childCount; i++)
+				check[begin + childCodes[i]] = parent;
+
+			for (int i = 0; i < childCount; i++) {
+				int child = begin + childCodes[i];
+				// NB: the arrays may be reallocated by the recursive call
+				int childBase;
+				if (childCodes[i] == 0)
+					childBase = -values[childStarts[i]] - 1;
+				else
+					childBase = insert(child, childStarts[i],
+							childStarts[i + 1], depth + 1);
+				base[child] = childBase;
+			}
+			return begin;
+		}
+
+		/**
+		 * find a base at which all the child codes are free. Only free states
+		 * are tried for the first child, by following the free list. As the
+		 * arrays fill up from the start, states with many children rarely fit
+		 * early on, so the search for these starts where the last state with
+		 * a similar number of children was placed
+		 */
+		private int findBase(int[] childCodes, int childCount) {
+			int first = childCodes[0];
+			int last = childCodes[childCount - 1];
+			int sizeClass = 31 - Integer.numberOfLeadingZeros(childCount);
+
+			if (firstFree == NONE)
+				ensureCapacity(base.length + 1);
+			int pos = firstFree;
+			if (searchStart[sizeClass] > pos) {
+				pos = searchStart[sizeClass];
+				ensureCapacity(pos + 1);
+				while (check[pos] != EMPTY) {
+					pos++;
+					ensureCapacity(pos + 1);
+				}
+			}
+			while (true) {
+				if (pos > first) {
+					int begin = pos - first;
+					ensureCapacity(begin + last + 1);
+					boolean free = true;
+					for (int i = 1; i < childCount; i++) {
+						if (check[begin + childCodes[i]] != EMPTY) {
+							free = false;
+							break;
+						}
+					}
+					if (free) {
+						searchStart[sizeClass] = pos;
+						for (int i = 0; i < childCount; i++)
+							occupy(begin + childCodes[i]);
+						size = Math.max(size, begin + last + 1);
+						return begin;
+					}
+				}
+				if (nextFree[pos] == NONE)
+					ensureCapacity(base.length + 1);
+				pos = nextFree[pos];
+			}
+		}
+
+		/**
+		 * remove a state from the free list
+		 */
+		private void occupy(int pos) {
+			int previous = previousFree[pos];
+			int next = nextFree[pos];
+			if (previous == NONE)
+				firstFree = next;
+			else
+				nextFree[previous] = next;
+			if (next == NONE)
+				lastFree = previous;
+			else
+				previousFree[next] = previous;
+		}
+
+		private void ensureCapacity(int required) {
+			if (required <= base.length)
+				return;
+			int capacity = Math.max(required, base.length * 2);
+			int oldLength = check.length;
+			base = Arrays.copyOf(base, capacity);
+			check = Arrays.copyOf(check, capacity);
+			nextFree = Arrays.copyOf(nextFree, capacity);
+			previousFree = Arrays.copyOf(previousFree, capacity);
+			Arrays.fill(check, oldLength, capacity, EMPTY);
+			linkFree(oldLength, capacity);
+		}
+
+		/**
+		 * add new states to the end of the free list
+		 */
+		private void linkFree(int from, int to) {
+			for (int pos = from; pos < to; pos++) {
+				previousFree[pos] = lastFree;
+				nextFree[pos] = NONE;
+				if (lastFree == NONE)
+					firstFree = pos;
+				else
+					nextFree[lastFree] = pos;
+				lastFree = pos;
+			}
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import simplenlg.features.Feature;
+import simplenlg.features.InternalFeature;
+import simplenlg.features.LexicalFeature;
+import simplenlg.framework.FeatureMap;
+
+/**
+ * This class makes the words of a lexicon share their feature names and
+ * values while the lexicon is loaded, instead of each word having its own
+ * copies of strings like "proper" and "true". Feature names are replaced by
+ * the constants in {@link LexicalFeature}, {@link Feature} and
+ * {@link InternalFeature} where there is one, and other names and values are
+ * replaced by the first equal one seen. Boolean values are replaced by
+ * <code>Boolean.TRUE</code> and <code>Boolean.FALSE</code>. The constants
+ * are found through {@link FeatureMap#getFeatureNameConstant(String)}, so
+ * there is only one table of them.
+ * 
+ * An interner is used while one lexicon is loaded and then discarded, so it
+ * only keeps strings for as long as the lexicon needs them.
+ */
+class FeatureInterner {
+
+	private final Map<String, String> names = new HashMap<String, String>();
+	private final Map<String, String> values = new HashMap<String, String>();
+
+	/**
+	 * @param name
+	 *            a feature name
+	 * @return the equal feature name constant, or the first equal name seen
+	 *         by this interner
+	 */
+	String internName(String name) {
+		String constant = FeatureMap.getFeatureNameConstant(name);
+		if (constant != null)
+			return constant;
+		return intern(names, name);
+	}
+
+	/**
+	 * @param value
+	 *            a feature value
+	 * @return the canonical Boolean, or the first equal String seen by this
+	 *         interner, or the value itself if it is of some other type
+	 */
+	Object internValue(Object value) {
+		if (value instanceof Boolean)
+			return ((Boolean) value).booleanValue() ? Boolean.TRUE
+					: Boolean.FALSE;
+		if (value instanceof String)
+			return intern(values, (String) value);
+		return value;
+	}
+
+	/**
+	 * @param name
+	 * @return true if this is one of the feature name constants
+	 */
+	static boolean isFeatureNameConstant(String name) {
+		return name != null && FeatureMap.getFeatureNameConstant(name) == name;
+	}
+
+	private static String intern(Map<String, String> pool, String value) {
+		if (value == null)
+			return null;
+		String interned = pool.get(value);
+		if (interned == null) {
+			pool.put(value, value);
+			interned = value;
+		}
+		return interned;
+	}
+}
@@ -18,6 +18,7 @@
  */
 package simplenlg.lexicon;
 
+import java.util.Collection;
 import java.util.List;
 
 import simplenlg.framework.LexicalCategory;
@@ -78,14 +79,47 @@ import simplenlg.framework.WordElement;
 public abstract class Lexicon {
 
 	/**
-	 * returns the default built-in lexicon
+	 * returns the default built-in lexicon. This is loaded the first time it
+	 * is asked for, and the same lexicon is then returned to every caller, so
+	 * words can't be added to or removed from it (words looked up in it are
+	 * copies, which can be changed).
+	 * It is safe to use from several threads. Use
+	 * {@link #createDefaultLexicon()} to get a private copy which can be
+	 * changed
 	 * 
 	 * @return default lexicon
 	 */
 	public static Lexicon getDefaultLexicon() {
+		return DefaultLexiconHolder.DEFAULT_LEXICON;
+	}
+
+	/**
+	 * returns a new copy of the default built-in lexicon, which belongs to the
+	 * caller and can be changed without affecting anyone else. Unlike
+	 * {@link #getDefaultLexicon()}, this loads the lexicon again on every call
+	 * 
+	 * @return new default lexicon
+	 */
+	public static XMLLexicon createDefaultLexicon() {
 		return new XMLLexicon();
 	}
 
+	/**
+	 * holds the shared default lexicon, which is loaded when this class is
+	 * first used (ie on the first call to <code>getDefaultLexicon</code>).
+	 * Class loading guarantees that this happens once, and that every thread
+	 * sees the fully loaded lexicon
+	 */
+	private static class DefaultLexiconHolder {
+		static final Lexicon DEFAULT_LEXICON = createSharedLexicon();
+
+		private static Lexicon createSharedLexicon() {
+			XMLLexicon lexicon = new XMLLexicon();
+			lexicon.setReadOnly();
+			return lexicon;
+		}
+	}
+
 	/**
 	 * create a default WordElement. May be overridden by specific types of
 	 * lexicon
@@ -132,14 +166,54 @@ public abstract class Lexicon {
 	 * @return word
 	 */
 	public WordElement lookupWord(String baseForm, LexicalCategory category) {
-		if (hasWord(baseForm, category))
-			return getWord(baseForm, category);
-		else if (hasWordFromVariant(baseForm, category))
-			return getWordFromVariant(baseForm, category);
-		else if (hasWordByID(baseForm))
-			return getWordByID(baseForm);
-		else
-			return createWord(baseForm, category);
+		WordElement word = findWord(baseForm, category);
+		if (word == null)
+			word = findWordFromVariant(baseForm, category);
+		if (word == null)
+			word = findWordByID(baseForm);
+		if (word == null)
+			word = createWord(baseForm, category);
+		return word;
+	}
+
+	/**
+	 * General word lookup method, like <code>lookupWord</code>, which also
+	 * reports whether the word was found by base form, variant or ID, or was
+	 * created because it is not in the lexicon. Each of these is tried once
+	 * 
+	 * @param baseForm
+	 * 			Base from the lexicon item
+	 * @param category
+	 * 			Linguistic category of the lexicon item
+	 * @return the word, and how it was found
+	 */
+	public LookupResult resolveWord(String baseForm, LexicalCategory category) {
+		WordElement word = findWord(baseForm, category);
+		if (word != null)
+			return new LookupResult(word, LookupResult.Match.BASE);
+
+		word = findWordFromVariant(baseForm, category);
+		if (word != null)
+			return new LookupResult(word, LookupResult.Match.VARIANT);
+
+		word = findWordByID(baseForm);
+		if (word != null)
+			return new LookupResult(word, LookupResult.Match.ID);
+
+		return new LookupResult(createWord(baseForm, category),
+				LookupResult.Match.NONE);
+	}
+
+	/**
+	 * General word lookup method, like <code>lookupWord</code>, which also
+	 * reports how the word was found
+	 * 
+	 * @param baseForm
+	 * 			Base from the lexicon item
+	 * @return the word, and how it was found
+	 */
+	public LookupResult resolveWord(String baseForm) {
+		return resolveWord(baseForm, LexicalCategory.ANY);
 	}
 
 	/**
@@ -173,6 +247,23 @@ public abstract class Lexicon {
 	abstract public List<WordElement> getWords(String baseForm,
 			LexicalCategory category);
 
+	/**
+	 * returns the first Word which has the specified base form and category,
+	 * without creating a list of all matches. Subclasses should override this
+	 * if they can find a single match more cheaply than with
+	 * <code>getWords</code>
+	 * 
+	 * @param baseForm
+	 *            - base form of word
+	 * @param category
+	 *            - syntactic category of word (ANY for unknown)
+	 * @return first matching WordElement, or <code>null</code> if there is none
+	 */
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		List<WordElement> wordElements = getWords(baseForm, category);
+		return wordElements.isEmpty() ? null : wordElements.get(0);
+	}
+
 	/**
 	 * get a WordElement which has the specified base form and category
 	 * 
@@ -186,11 +277,8 @@ public abstract class Lexicon {
 	 *         and returned
 	 */
 	public WordElement getWord(String baseForm, LexicalCategory category) {
-		List<WordElement> wordElements = getWords(baseForm, category);
-		if (wordElements.isEmpty())
-			return createWord(baseForm, category);
-		else
-			return wordElements.get(0);
+		WordElement word = findWord(baseForm, category);
+		return word == null ? createWord(baseForm, category) : word;
 	}
 
 	/**
@@ -204,7 +292,7 @@ public abstract class Lexicon {
 	 * @return <code>true</code> if Lexicon contains such a WordElement
 	 */
 	public boolean hasWord(String baseForm, LexicalCategory category) {
-		return !getWords(baseForm, category).isEmpty();
+		return findWord(baseForm, category) != null;
 	}
 
 	/**
@@ -229,12 +317,8 @@ public abstract class Lexicon {
 	 *         and returned
 	 */
 	public WordElement getWord(String baseForm) {
-		List<WordElement> wordElements = getWords(baseForm);
-
-		if (wordElements.isEmpty())
-			return createWord(baseForm);
-		else
-			return wordElements.get(0);
+		WordElement word = findWord(baseForm, LexicalCategory.ANY);
+		return word == null ? createWord(baseForm) : word;
 	}
 
 	/**
@@ -246,7 +330,7 @@ public abstract class Lexicon {
 	 * @return <code>true</code> if Lexicon contains such a WordElement
 	 */
 	public boolean hasWord(String baseForm) {
-		return !getWords(baseForm).isEmpty();
+		return findWord(baseForm, LexicalCategory.ANY) != null;
 	}
 
 	//****************************************************************************
@@ -270,6 +354,20 @@ public abstract class Lexicon {
 	 */
 	abstract public List<WordElement> getWordsByID(String id);
 
+	/**
+	 * returns the Word which has the specified ID, without creating a list.
+	 * Subclasses should override this if they can find a single match more
+	 * cheaply than with <code>getWordsByID</code>
+	 * 
+	 * @param id
+	 *            internal lexicon ID for a word
+	 * @return matching WordElement, or <code>null</code> if there is none
+	 */
+	protected WordElement findWordByID(String id) {
+		List<WordElement> wordElements = getWordsByID(id);
+		return wordElements.isEmpty() ? null : wordElements.get(0);
+	}
+
 	/**
 	 * get a WordElement with the specified ID
 	 * 
@@ -279,11 +377,8 @@ public abstract class Lexicon {
 	 *         created with the ID as the base form
 	 */
 	public WordElement getWordByID(String id) {
-		List<WordElement> wordElements = getWordsByID(id);
-		if (wordElements.isEmpty())
-			return createWord(id);
-		else
-			return wordElements.get(0);
+		WordElement word = findWordByID(id);
+		return word == null ? createWord(id) : word;
 	}
 
 	/**
@@ -295,7 +390,7 @@ public abstract class Lexicon {
 	 * @return <code>true</code> if Lexicon contains such a WordElement
 	 */
 	public boolean hasWordByID(String id) {
-		return !getWordsByID(id).isEmpty();
+		return findWordByID(id) != null;
 	}
 
 	//****************************************************************************
@@ -326,6 +421,25 @@ public abstract class Lexicon {
 	abstract public List<WordElement> getWordsFromVariant(String variant,
 			LexicalCategory category);
 
+	/**
+	 * returns the first Word which has an inflected form and/or spelling
+	 * variant that matches the specified variant, and is in the specified
+	 * category, without creating a list of all matches. Subclasses should
+	 * override this if they can find a single match more cheaply than with
+	 * <code>getWordsFromVariant</code>
+	 * 
+	 * @param variant
+	 *            - base form, inflected form, or spelling variant of word
+	 * @param category
+	 *            - syntactic category of word (ANY for unknown)
+	 * @return first matching WordElement, or <code>null</code> if there is none
+	 */
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		List<WordElement> wordElements = getWordsFromVariant(variant, category);
+		return wordElements.isEmpty() ? null : wordElements.get(0);
+	}
+
 	/**
 	 * returns a WordElement which has the specified inflected form and/or
 	 * spelling variant that matches the specified variant, of the specified
@@ -340,12 +454,9 @@ public abstract class Lexicon {
 	 */
 	public WordElement getWordFromVariant(String variant,
 			LexicalCategory category) {
-		List<WordElement> wordElements = getWordsFromVariant(variant, category);
-		if (wordElements.isEmpty())
-			return createWord(variant, category); // return default WordElement
-		else
-			return wordElements.get(0);
-
+		WordElement word = findWordFromVariant(variant, category);
+		// return default WordElement if not found
+		return word == null ? createWord(variant, category) : word;
 	}
 
 	/**
@@ -359,7 +470,7 @@ public abstract class Lexicon {
 	 * @return <code>true</code> if Lexicon contains such a WordElement
 	 */
 	public boolean hasWordFromVariant(String variant, LexicalCategory category) {
-		return !getWordsFromVariant(variant, category).isEmpty();
+		return findWordFromVariant(variant, category) != null;
 	}
 
 	/**
@@ -387,12 +498,9 @@ public abstract class Lexicon {
 	 *         created using thie variant as the base form
 	 */
 	public WordElement getWordFromVariant(String variant) {
-		List<WordElement> wordElements = getWordsFromVariant(variant);
-		if (wordElements.isEmpty())
-			return createWord(variant); // return default WordElement using
-		                                // variant as base form
-		else
-			return wordElements.get(0); // else return first match
+		WordElement word = findWordFromVariant(variant, LexicalCategory.ANY);
+		// if not found, return default WordElement using variant as base form
+		return word == null ? createWord(variant) : word;
 	}
 
 	/**
@@ -404,13 +512,42 @@ public abstract class Lexicon {
 	 * @return <code>true</code> if Lexicon contains such a WordElement
 	 */
 	public boolean hasWordFromVariant(String variant) {
-		return !getWordsFromVariant(variant).isEmpty();
+		return findWordFromVariant(variant, LexicalCategory.ANY) != null;
 	}
 
 	//****************************************************************************
 	// other methods
 	//****************************************************************************
 
+	/**
+	 * @return the base forms of all the words in the lexicon, or null if this
+	 *         lexicon can't list its words (eg because they are kept on disk).
+	 *         Used to build a {@link WordSegmenter}
+	 */
+	Collection<String> getBaseForms() {
+		return null;
+	}
+
+	/**
+	 * @return a number which changes whenever words are added to or removed
+	 *         from the lexicon, so that a {@link WordSegmenter} built from
+	 *         its base forms can tell when it is out of date. Lexicons which
+	 *         can't change return 0
+	 */
+	long getVersion() {
+		return 0;
+	}
+
+	/**
+	 * @return <code>false</code> if this lexicon was to be read from a file
+	 *         which could not be read in full, in which case it holds no
+	 *         words or only some of them. The error itself is printed when
+	 *         the lexicon is created
+	 */
+	public boolean isLoaded() {
+		return true;
+	}
+
 	/**
 	 * close the lexicon (if necessary) if lexicon does not need to be closed,
 	 * this does nothing
@@ -0,0 +1,203 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import simplenlg.framework.ElementCategory;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class compiles an XML lexicon into the binary form read by
+ * {@link BinaryLexicon}. It is intended to be run offline, eg
+ * 
+ * <pre>
+ * java simplenlg.lexicon.LexiconCompiler default-lexicon.xml default-lexicon.bin
+ * </pre>
+ * 
+ * With the <code>-trie</code> option, the lexicon is instead compiled into the
+ * memory-mapped form read by {@link TrieLexicon}, and with the
+ * <code>-paged</code> option into the paged form read by {@link PagedLexicon}.
+ * 
+ * Boolean and String feature values are preserved as such; values of any other
+ * type are stored as Strings.
+ */
+public class LexiconCompiler {
+
+	/**
+	 * compile an XML lexicon file into a binary lexicon file
+	 * 
+	 * @param args
+	 *          optional -trie or -paged flag, input XML lexicon file, output
+	 *          binary lexicon file
+	 */
+	public static void main(String[] args) {
+		boolean trie = args.length == 3 && args[0].equals("-trie");
+		boolean paged = args.length == 3 && args[0].equals("-paged");
+		if (args.length != 2 && !trie && !paged) {
+			System.err.println("Usage: LexiconCompiler [-trie | -paged] <lexicon.xml> <lexicon.bin>");
+			System.exit(1);
+		}
+
+		try {
+			XMLLexicon lexicon = new XMLLexicon(args[args.length - 2]);
+			File output = new File(args[args.length - 1]);
+			if (trie)
+				TrieLexicon.compile(lexicon, output);
+			else if (paged)
+				PagedLexicon.compile(lexicon, output);
+			else
+				compile(lexicon, output);
+		} catch (IOException ex) {
+			System.err.println(ex.toString());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * write a loaded XML lexicon to a binary lexicon file
+	 * 
+	 * @param lexicon
+	 *          the lexicon to compile
+	 * @param file
+	 *          the output file
+	 * @throws IOException
+	 */
+	public static void compile(XMLLexicon lexicon, File file)
+			throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			write(lexicon, out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * write a loaded XML lexicon in binary form
+	 * 
+	 * @param lexicon
+	 *          the lexicon to compile
+	 * @param stream
+	 *          the output stream (not closed by this method)
+	 * @throws IOException
+	 */
+	public static void write(XMLLexicon lexicon, OutputStream stream)
+			throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				stream));
+		out.writeInt(BinaryLexicon.MAGIC);
+		out.writeShort(BinaryLexicon.VERSION);
+
+		// words, numbered in the order in which they are written
+		Set<WordElement> words = lexicon.getAllWords();
+		Map<WordElement, Integer> ordinals = new IdentityHashMap<WordElement, Integer>();
+		out.writeInt(words.size());
+		for (WordElement word : words) {
+			ordinals.put(word, ordinals.size());
+			writeWord(out, word);
+		}
+
+		// ID index
+		Map<String, WordElement> indexByID = lexicon.getIndexByID();
+		out.writeInt(indexByID.size());
+		for (Map.Entry<String, WordElement> entry : indexByID.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeInt(ordinals.get(entry.getValue()));
+		}
+
+		// base and variant indices
+		writeIndex(out, lexicon.getIndexByBase(), ordinals);
+		writeIndex(out, lexicon.getIndexByVariant(), ordinals);
+
+		// filter of the index keys
+		lexicon.getFilter().write(out);
+
+		out.flush();
+	}
+
+	/**
+	 * write a word, to be read by <code>BinaryLexicon.readWord</code>
+	 * 
+	 * @param out
+	 * @param word
+	 * @throws IOException
+	 */
+	static void writeWord(DataOutputStream out, WordElement word)
+			throws IOException {
+		writeNullableUTF(out, word.getBaseForm());
+		ElementCategory category = word.getCategory();
+		out.writeUTF(category instanceof LexicalCategory ? category.toString()
+				: LexicalCategory.ANY.toString());
+		writeNullableUTF(out, word.getId());
+
+		// read features by name, so that a word which shares its features
+		// with lookup results is not changed
+		Set<String> featureNames = word.getAllFeatureNames();
+		int featureCount = 0;
+		for (String feature : featureNames)
+			if (word.getFeature(feature) != null)
+				featureCount++;
+		out.writeShort(featureCount);
+
+		for (String feature : featureNames) {
+			Object value = word.getFeature(feature);
+			if (value == null)
+				continue;
+			out.writeUTF(feature);
+			if (value instanceof Boolean) {
+				out.writeByte(BinaryLexicon.VALUE_BOOLEAN);
+				out.writeBoolean(((Boolean) value).booleanValue());
+			} else {
+				out.writeByte(BinaryLexicon.VALUE_STRING);
+				out.writeUTF(value.toString());
+			}
+		}
+	}
+
+	private static void writeIndex(DataOutputStream out,
+			WordIndex index, Map<WordElement, Integer> ordinals)
+			throws IOException {
+		out.writeInt(index.size());
+		for (String key : index.keySet()) {
+			List<WordElement> words = index.get(key, LexicalCategory.ANY);
+			out.writeUTF(key);
+			out.writeInt(words.size());
+			for (WordElement word : words)
+				out.writeInt(ordinals.get(word));
+		}
+	}
+
+	private static void writeNullableUTF(DataOutputStream out, String value)
+			throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null)
+			out.writeUTF(value);
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import simplenlg.framework.WordElement;
+
+/**
+ * This class estimates how much memory the words of a loaded lexicon take,
+ * and how much of that each feature is responsible for. It can be run from the
+ * command line on an XML lexicon, eg
+ * 
+ * <pre>
+ * java simplenlg.lexicon.LexiconMemoryReport default-lexicon.xml
+ * </pre>
+ * 
+ * The bytes retained by a feature are its slots in the feature map of every
+ * word which has it (an array slot for the feature name constants, a hash map
+ * entry for other names), plus its name and values, counting each distinct object once. Feature
+ * name constants and <code>Boolean.TRUE</code>/<code>FALSE</code> are shared
+ * with the rest of the program, so they are not counted. Sizes are estimated
+ * for a 64-bit JVM with compressed references, and are only a guide.
+ */
+public class LexiconMemoryReport {
+
+	// estimated object sizes, in bytes
+	private static final int WORD_BYTES = 40; // WordElement
+	private static final int FEATURE_MAP_BYTES = 32; // FeatureMap
+	private static final int SLOT_BYTES = 8; // FeatureMap id and value slots
+	private static final int MAP_BYTES = 48; // HashMap
+	private static final int MAP_SLOT_BYTES = 4; // HashMap table slot
+	private static final int ENTRY_BYTES = 32; // HashMap entry
+	private static final int STRING_BYTES = 24; // String, without its array
+	private static final int ARRAY_BYTES = 16; // array header
+	private static final int OBJECT_BYTES = 16; // other values, eg Boolean
+
+	/** report row for the words themselves */
+	public static final String WORDS = "(words)";
+
+	/** report row for the words' feature maps, without their entries */
+	public static final String FEATURE_MAPS = "(feature maps)";
+
+	/**
+	 * print a memory report for an XML lexicon file
+	 * 
+	 * @param args
+	 *          lexicon file
+	 */
+	public static void main(String[] args) {
+		if (args.length != 1) {
+			System.err.println("Usage: LexiconMemoryReport <lexicon.xml>");
+			System.exit(1);
+		}
+		System.out.print(report(new XMLLexicon(args[0])));
+	}
+
+	/**
+	 * @param lexicon
+	 * @return estimated bytes retained by each feature of the lexicon's words,
+	 *         and by the words and feature maps themselves (see
+	 *         <code>WORDS</code> and <code>FEATURE_MAPS</code>)
+	 */
+	public static Map<String, Long> getBytesByFeature(XMLLexicon lexicon) {
+		Map<String, Long> bytes = new HashMap<String, Long>();
+		Map<Object, Boolean> counted = new IdentityHashMap<Object, Boolean>();
+		Set<WordElement> words = lexicon.getAllWords();
+
+		long wordBytes = 0;
+		long mapBytes = 0;
+		for (WordElement word : words) {
+			wordBytes += WORD_BYTES + stringBytes(word.getBaseForm(), counted)
+					+ stringBytes(word.getId(), counted);
+
+			// read features by name, so that a word which shares its features
+			// with lookup results is not changed
+			Set<String> featureNames = word.getAllFeatureNames();
+			int known = 0;
+			int others = 0;
+			for (String feature : featureNames) {
+				long featureBytes;
+				if (FeatureInterner.isFeatureNameConstant(feature)) {
+					featureBytes = SLOT_BYTES;
+					known++;
+				} else {
+					featureBytes = ENTRY_BYTES + stringBytes(feature, counted);
+					others++;
+				}
+				featureBytes += valueBytes(word.getFeature(feature), counted);
+				add(bytes, feature, featureBytes);
+			}
+
+			mapBytes += FEATURE_MAP_BYTES;
+			if (known > 0)
+				// the id and value arrays, less the slots counted above
+				mapBytes += 2 * ARRAY_BYTES + (slotCount(known) - known)
+						* SLOT_BYTES;
+			if (others > 0)
+				mapBytes += MAP_BYTES
+						+ align(ARRAY_BYTES + tableSize(others) * MAP_SLOT_BYTES);
+		}
+		add(bytes, WORDS, wordBytes);
+		add(bytes, FEATURE_MAPS, mapBytes);
+		return bytes;
+	}
+
+	/**
+	 * @param lexicon
+	 * @return a table of the bytes retained by each feature, largest first
+	 */
+	public static String report(XMLLexicon lexicon) {
+		final Map<String, Long> bytes = getBytesByFeature(lexicon);
+		List<String> features = new ArrayList<String>(bytes.keySet());
+		Collections.sort(features, new Comparator<String>() {
+			public int compare(String f1, String f2) {
+				return bytes.get(f2).compareTo(bytes.get(f1));
+			}
+		});
+
+		long total = 0;
+		for (Long featureBytes : bytes.values())
+			total += featureBytes.longValue();
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%-30s %12s %6s%n", "feature", "bytes", "%"));
+		for (String feature : features) {
+			long featureBytes = bytes.get(feature).longValue();
+			report.append(String.format("%-30s %12d %6.1f%n", feature,
+					featureBytes, total == 0 ? 0.0 : 100.0 * featureBytes
+							/ total));
+		}
+		report.append(String.format("%-30s %12d%n", "total", total));
+		return report.toString();
+	}
+
+	private static void add(Map<String, Long> bytes, String key, long value) {
+		Long existing = bytes.get(key);
+		bytes.put(key, existing == null ? value : existing.longValue() + value);
+	}
+
+	/* estimated size of a feature value not already counted */
+	private static long valueBytes(Object value, Map<Object, Boolean> counted) {
+		if (value == null || value == Boolean.TRUE || value == Boolean.FALSE)
+			return 0;
+		if (value instanceof String)
+			return stringBytes((String) value, counted);
+		if (counted.put(value, Boolean.TRUE) != null)
+			return 0;
+		return OBJECT_BYTES;
+	}
+
+	/* estimated size of a string not already counted */
+	private static long stringBytes(String value, Map<Object, Boolean> counted) {
+		if (value == null || counted.put(value, Boolean.TRUE) != null)
+			return 0;
+		boolean latin1 = true;
+		for (int i = 0; i < value.length() && latin1; i++)
+			latin1 = value.charAt(i) < 256;
+		return STRING_BYTES
+				+ align(ARRAY_BYTES + (latin1 ? 1 : 2) * value.length());
+	}
+
+	/* number of FeatureMap array slots for this many features */
+	private static int slotCount(int features) {
+		int slots = 4;
+		while (slots < features)
+			slots *= 2;
+		return slots;
+	}
+
+	/* size of a HashMap table for this many entries */
+	private static int tableSize(int entries) {
+		int size = 16;
+		while (size * 3 / 4 < entries)
+			size *= 2;
+		return size;
+	}
+
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import simplenlg.framework.WordElement;
+
+/**
+ * The result of {@link Lexicon#resolveWord(String, simplenlg.framework.LexicalCategory)}:
+ * the word which was found, and whether it was matched by base form, variant
+ * or ID, or not found at all (in which case the word is a new default
+ * <code>WordElement</code>)
+ */
+public class LookupResult {
+
+	/**
+	 * How a word was found in the lexicon. Lookups try base form, variant and
+	 * ID in this order
+	 */
+	public enum Match {
+
+		/** The word was found by its base form. */
+		BASE,
+
+		/** The word was found by an inflected form or spelling variant. */
+		VARIANT,
+
+		/** The word was found by its lexicon ID. */
+		ID,
+
+		/** The word is not in the lexicon, a default word was created. */
+		NONE
+	}
+
+	private final WordElement word;
+	private final Match match;
+
+	/**
+	 * @param word
+	 *            the word found (or created)
+	 * @param match
+	 *            how the word was found
+	 */
+	public LookupResult(WordElement word, Match match) {
+		this.word = word;
+		this.match = match;
+	}
+
+	/**
+	 * @return the word found, or a new default word if the lookup failed
+	 */
+	public WordElement getWord() {
+		return word;
+	}
+
+	/**
+	 * @return how the word was found
+	 */
+	public Match getMatch() {
+		return match;
+	}
+
+	/**
+	 * @return <code>true</code> if the word was found in the lexicon
+	 */
+	public boolean isFound() {
+		return match != Match.NONE;
+	}
+}
@@ -19,7 +19,12 @@
 package simplenlg.lexicon;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import simplenlg.framework.LexicalCategory;
 import simplenlg.framework.WordElement;
@@ -27,6 +32,15 @@ import simplenlg.framework.WordElement;
 /** This class contains a set of lexicons, which are searched in
  * order for the specified word
  * 
+ * If the merged index is turned on (see {@link #setUseMergedIndex(boolean)}),
+ * the indices of the component lexicons are merged into one index the first
+ * time a word is looked up, so each lookup is a single probe rather than one
+ * per lexicon.  The results are the same as searching the lexicons in order.
+ * The merged index is only built if all the component lexicons are
+ * XMLLexicons (including BinaryLexicons); otherwise the lexicons are searched
+ * in order as usual.  It is rebuilt when words in a component lexicon are
+ * changed.
+ * 
  * @author ereiter
  *
  */
@@ -40,6 +54,13 @@ public class MultipleLexicon extends Lexicon {
 	
 	/* list of lexicons, in order in which they are searched */
 	private List<Lexicon> lexiconList = null;
+	
+	/* if this flag is true, lookups use a merged index of all lexicons */
+	private boolean useMergedIndex = false;
+	
+	/* the merged index, built on demand; null if it has not been built
+	 * since the lexicons last changed */
+	private volatile MergedIndices mergedIndices = null;
 
 	/**********************************************************************/
 	// constructors
@@ -72,6 +93,7 @@ public class MultipleLexicon extends Lexicon {
 	 */
 	public void addInitialLexicon(Lexicon lex) {
 		lexiconList.add(0, lex);
+		invalidateMergedIndex();
 	}
 
 	/** add lexicon at end of list (is searched last)
@@ -79,6 +101,7 @@ public class MultipleLexicon extends Lexicon {
 	 */
 	public void addFinalLexicon(Lexicon lex) {
 		lexiconList.add(0, lex);
+		invalidateMergedIndex();
 	}
 
 	/**
@@ -95,6 +118,45 @@ public class MultipleLexicon extends Lexicon {
 		this.alwaysSearchAll = alwaysSearchAll;
 	}
 
+	/**
+	 * @return the useMergedIndex
+	 */
+	public boolean isUseMergedIndex() {
+		return useMergedIndex;
+	}
+
+	/**
+	 * @param useMergedIndex if true, look words up in one merged index of
+	 * all the lexicons instead of searching each in turn
+	 */
+	public void setUseMergedIndex(boolean useMergedIndex) {
+		this.useMergedIndex = useMergedIndex;
+		invalidateMergedIndex();
+	}
+
+	/** discard the merged index, so that it is rebuilt at the next lookup.
+	 * (Changes to the words of a component lexicon are detected, so this
+	 * isn't needed for them)
+	 */
+	public void invalidateMergedIndex() {
+		mergedIndices = null;
+	}
+	
+	/**
+	 * @return the merged index, building it if necessary; null if the
+	 * merged index is not used or the lexicons can't be merged
+	 */
+	private MergedIndices getMergedIndices() {
+		if (!useMergedIndex)
+			return null;
+		MergedIndices indices = mergedIndices;
+		if (indices == null || !indices.isCurrent()) {
+			indices = MergedIndices.build(lexiconList);
+			mergedIndices = indices;
+		}
+		return indices == MergedIndices.UNMERGEABLE ? null : indices;
+	}
+
 	/**********************************************************************/
 	// main methods
 	/**********************************************************************/
@@ -104,6 +166,10 @@ public class MultipleLexicon extends Lexicon {
 	 */
 	@Override
 	public List<WordElement> getWords(String baseForm, LexicalCategory category) {
+		MergedIndices indices = getMergedIndices();
+		if (indices != null)
+			return sharedCopies(indices.base.get(baseForm, category, alwaysSearchAll));
+
 		List<WordElement> result = new ArrayList<WordElement>();
 		for (Lexicon lex: lexiconList) {
 			List<WordElement> lexResult = lex.getWords(baseForm, category);
@@ -121,6 +187,10 @@ public class MultipleLexicon extends Lexicon {
 	 */
 	@Override
 	public List<WordElement> getWordsByID(String id) {
+		MergedIndices indices = getMergedIndices();
+		if (indices != null)
+			return sharedCopies(indices.id.get(id, LexicalCategory.ANY, alwaysSearchAll));
+
 		List<WordElement> result = new ArrayList<WordElement>();
 		for (Lexicon lex: lexiconList) {
 			List<WordElement> lexResult = lex.getWordsByID(id);
@@ -138,6 +208,10 @@ public class MultipleLexicon extends Lexicon {
 	 */
 	@Override
 	public List<WordElement> getWordsFromVariant(String variant, LexicalCategory category) {
+		MergedIndices indices = getMergedIndices();
+		if (indices != null)
+			return sharedCopies(indices.variant.get(variant, category, alwaysSearchAll));
+
 		List<WordElement> result = new ArrayList<WordElement>();
 		for (Lexicon lex: lexiconList) {
 			List<WordElement> lexResult = lex.getWordsFromVariant(variant, category);
@@ -151,6 +225,223 @@ public class MultipleLexicon extends Lexicon {
 	}
 
 
+	/* (non-Javadoc)
+	 * @see simplenlg.lexicon.Lexicon#findWord(java.lang.String, simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		// the first match is the same whether or not alwaysSearchAll is set
+		MergedIndices indices = getMergedIndices();
+		if (indices != null)
+			return indices.base.find(baseForm, category);
+
+		for (Lexicon lex: lexiconList) {
+			WordElement word = lex.findWord(baseForm, category);
+			if (word != null)
+				return word;
+		}
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see simplenlg.lexicon.Lexicon#findWordByID(java.lang.String)
+	 */
+	@Override
+	protected WordElement findWordByID(String id) {
+		MergedIndices indices = getMergedIndices();
+		if (indices != null)
+			return indices.id.find(id, LexicalCategory.ANY);
+
+		for (Lexicon lex: lexiconList) {
+			WordElement word = lex.findWordByID(id);
+			if (word != null)
+				return word;
+		}
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see simplenlg.lexicon.Lexicon#findWordFromVariant(java.lang.String, simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWordFromVariant(String variant, LexicalCategory category) {
+		MergedIndices indices = getMergedIndices();
+		if (indices != null)
+			return indices.variant.find(variant, category);
+
+		for (Lexicon lex: lexiconList) {
+			WordElement word = lex.findWordFromVariant(variant, category);
+			if (word != null)
+				return word;
+		}
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see simplenlg.lexicon.Lexicon#getBaseForms()
+	 */
+	@Override
+	Collection<String> getBaseForms() {
+		Set<String> baseForms = new LinkedHashSet<String>();
+		for (Lexicon lex: lexiconList) {
+			Collection<String> lexBaseForms = lex.getBaseForms();
+			if (lexBaseForms == null)
+				return null;
+			baseForms.addAll(lexBaseForms);
+		}
+		return baseForms;
+	}
+
+	/* (non-Javadoc)
+	 * @see simplenlg.lexicon.Lexicon#getVersion()
+	 */
+	@Override
+	long getVersion() {
+		// lexicons are only ever added, and their versions only increase
+		long version = lexiconList.size();
+		for (Lexicon lex: lexiconList)
+			version += lex.getVersion();
+		return version;
+	}
+
+	/**********************************************************************/
+	// merged index
+	/**********************************************************************/
+
+	/**
+	 * @param words
+	 * @return shared copies of the words, as returned by XMLLexicon
+	 */
+	private static List<WordElement> sharedCopies(List<WordElement> words) {
+		List<WordElement> result = new ArrayList<WordElement>(words.size());
+		for (WordElement word: words)
+			result.add(word.createSharedCopy());
+		return result;
+	}
+	
+	/** the merged base, variant and ID indices of the component lexicons
+	 */
+	private static class MergedIndices {
+		/* marks lexicons which can't be merged, so they aren't tried again */
+		static final MergedIndices UNMERGEABLE = new MergedIndices();
+		
+		final MergedIndex base = new MergedIndex();
+		final MergedIndex variant = new MergedIndex();
+		final MergedIndex id = new MergedIndex();
+		
+		/* the lexicons which were merged, and their versions when merged */
+		final List<XMLLexicon> sources = new ArrayList<XMLLexicon>();
+		final List<Long> versions = new ArrayList<Long>();
+		
+		/**
+		 * @param lexicons
+		 * @return the merged indices of these lexicons, or UNMERGEABLE if
+		 * they are not all XMLLexicons
+		 */
+		static MergedIndices build(List<Lexicon> lexicons) {
+			for (Lexicon lex: lexicons)
+				if (!(lex instanceof XMLLexicon))
+					return UNMERGEABLE;
+			
+			// try again if a lexicon is changed while it is being merged
+			MergedIndices indices;
+			do {
+				indices = new MergedIndices();
+				for (Lexicon lex: lexicons)
+					indices.addLexicon((XMLLexicon) lex);
+			} while (!indices.isCurrent());
+			return indices;
+		}
+		
+		/**
+		 * @return true if none of the merged lexicons have changed since
+		 * they were merged
+		 */
+		boolean isCurrent() {
+			for (int i = 0; i < sources.size(); i++)
+				if (sources.get(i).getVersion() != versions.get(i).longValue())
+					return false;
+			return true;
+		}
+		
+		/** add the indices of the next lexicon in search order
+		 * @param xmlLex
+		 */
+		private void addLexicon(XMLLexicon xmlLex) {
+			sources.add(xmlLex);
+			versions.add(xmlLex.getVersion());
+			base.addLexicon(xmlLex.getIndexByBase());
+			variant.addLexicon(xmlLex.getIndexByVariant());
+			WordIndex idIndex = new WordIndex();
+			for (Map.Entry<String, WordElement> entry: xmlLex.getIndexByID().entrySet())
+				idIndex.add(entry.getKey(), entry.getValue());
+			id.addLexicon(idIndex);
+		}
+	}
+	
+	/** one merged index.  A search of all lexicons gives all the words
+	 * with the key and category, in lexicon order.  Otherwise the search
+	 * stops at the first lexicon with a word with the key and category, so
+	 * this is kept separately for each category, and for ANY
+	 */
+	private static class MergedIndex {
+		/* words from all lexicons */
+		final WordIndex all = new WordIndex();
+		/* for each category, words from the first lexicon with any */
+		final WordIndex first = new WordIndex();
+		/* words from the first lexicon with the key */
+		final Map<String, List<WordElement>> firstAny = new HashMap<String, List<WordElement>>();
+		
+		/**
+		 * add the index of the next lexicon in search order
+		 * @param index
+		 */
+		void addLexicon(WordIndex index) {
+			for (String key: index.keySet()) {
+				List<WordElement> words = index.get(key, LexicalCategory.ANY);
+				List<WordElement> firstWords = new ArrayList<WordElement>(words.size());
+				for (WordElement word: words) {
+					all.add(key, word);
+					// earlier lexicons take precedence for this category
+					if (first.get(key, WordIndex.categoryOf(word)).isEmpty())
+						firstWords.add(word);
+				}
+				for (WordElement word: firstWords)
+					first.add(key, word);
+				if (!firstAny.containsKey(key))
+					firstAny.put(key, words);
+			}
+		}
+		
+		/**
+		 * @param key
+		 * @param category
+		 * @param searchAll
+		 * @return the words the lexicons would give if searched in order.
+		 * This is the index's own list and must not be changed
+		 */
+		List<WordElement> get(String key, LexicalCategory category, boolean searchAll) {
+			if (searchAll)
+				return all.get(key, category);
+			if (category == LexicalCategory.ANY) {
+				List<WordElement> words = firstAny.get(key);
+				return words == null ? new ArrayList<WordElement>() : words;
+			}
+			return first.get(key, category);
+		}
+		
+		/**
+		 * @param key
+		 * @param category
+		 * @return shared copy of the first word the lexicons would give,
+		 * or null if none
+		 */
+		WordElement find(String key, LexicalCategory category) {
+			List<WordElement> words = get(key, category, false);
+			return words.isEmpty() ? null : words.get(0).createSharedCopy();
+		}
+	}
+
 	/**********************************************************************/
 	// other methods
 	/**********************************************************************/
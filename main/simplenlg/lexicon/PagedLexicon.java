@@ -0,0 +1,544 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class is a lexicon which stays on disk, for lexicons too big for the
+ * Java heap. The lexicon is a file, created by
+ * {@link #compile(XMLLexicon, File)} (or <code>LexiconCompiler -paged</code>),
+ * which holds the base forms, variants and IDs of the words as sorted keys,
+ * each followed by its words, in pages of about 4KB. Only the first key of
+ * each page is kept in memory; a lookup finds the page which may hold its key
+ * and reads it from the file. The most recently used pages are kept in memory
+ * as well, so that common words are not read again and again.
+ * 
+ * The memory used is therefore one key per page plus the page cache, however
+ * big the lexicon is. The lexicon can be shared between threads.
+ */
+public class PagedLexicon extends Lexicon {
+
+	// header of a paged lexicon file
+	static final int MAGIC = 0x534E4C50; // "SNLP"
+	static final short VERSION = 1;
+
+	/** default number of pages kept in memory */
+	public static final int DEFAULT_CACHE_PAGES = 256;
+
+	// pages are filled up to this size (unless one key needs more)
+	private static final int PAGE_SIZE = 4096;
+
+	// keys are tagged with the type of index
+	private static final char BASE_KEY = '\u0001';
+	private static final char VARIANT_KEY = '\u0002';
+	private static final char ID_KEY = '\u0003';
+
+	private RandomAccessFile file;
+	private boolean loaded = false; // true if the file was opened
+	private FileChannel channel;
+
+	// sparse index: first key, offset and length of each page
+	private String[] firstKeys = new String[0];
+	private long[] pageOffsets;
+	private int[] pageLengths;
+
+	private final PageCache cache;
+
+	//**********************************************************************
+	// constructors
+	//**********************************************************************
+
+	/**
+	 * Open a paged lexicon from a named file
+	 * 
+	 * @param filename
+	 *          name of the lexicon file
+	 */
+	public PagedLexicon(String filename) {
+		this(new File(filename));
+	}
+
+	/**
+	 * Open a paged lexicon from a File, with the default page cache
+	 * 
+	 * @param file
+	 *          path of the lexicon file
+	 */
+	public PagedLexicon(File file) {
+		this(file, DEFAULT_CACHE_PAGES);
+	}
+
+	/**
+	 * Open a paged lexicon from a File
+	 * 
+	 * @param file
+	 *          path of the lexicon file
+	 * @param cachePages
+	 *          number of pages to keep in memory
+	 */
+	public PagedLexicon(File file, int cachePages) {
+		super();
+		cache = new PageCache(Math.max(1, cachePages));
+		try {
+			openLexicon(file);
+		} catch (IOException ex) {
+			System.out.println(ex.toString());
+		}
+	}
+
+	/**
+	 * open the file and read its sparse index
+	 * 
+	 * @param lexiconFile
+	 * @throws IOException
+	 */
+	private void openLexicon(File lexiconFile) throws IOException {
+		file = new RandomAccessFile(lexiconFile, "r");
+		try {
+			readIndex(lexiconFile);
+		} catch (IOException ex) {
+			close();
+			throw ex;
+		} catch (RuntimeException ex) {
+			// a truncated file is read past its end
+			close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * check the header of the open file and read its sparse index
+	 * 
+	 * @param lexiconFile
+	 * @throws IOException
+	 */
+	private void readIndex(File lexiconFile) throws IOException {
+		channel = file.getChannel();
+
+		if (file.readInt() != MAGIC)
+			throw new IOException("Not a paged lexicon: " + lexiconFile);
+		short version = file.readShort();
+		if (version != VERSION)
+			throw new IOException("Unsupported paged lexicon version "
+					+ version);
+		int pageCount = file.readInt();
+		long indexOffset = file.readLong();
+
+		// the sparse index is at the end of the file
+		byte[] index = new byte[(int) (file.length() - indexOffset)];
+		file.seek(indexOffset);
+		file.readFully(index);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+				index));
+		String[] keys = new String[pageCount];
+		pageOffsets = new long[pageCount];
+		pageLengths = new int[pageCount];
+		for (int i = 0; i < pageCount; i++) {
+			keys[i] = in.readUTF();
+			pageOffsets[i] = in.readLong();
+			pageLengths[i] = in.readInt();
+		}
+		firstKeys = keys;
+		loaded = true;
+	}
+
+	//**********************************************************************
+	// lookups
+	//**********************************************************************
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWords(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	public List<WordElement> getWords(String baseForm, LexicalCategory category) {
+		return getWordsFromPage(BASE_KEY, baseForm, category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWordsByID(java.lang.String)
+	 */
+	@Override
+	public List<WordElement> getWordsByID(String id) {
+		return getWordsFromPage(ID_KEY, id, LexicalCategory.ANY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWordsFromVariant(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	public List<WordElement> getWordsFromVariant(String variant,
+			LexicalCategory category) {
+		return getWordsFromPage(VARIANT_KEY, variant, category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWord(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		return findWordInPage(BASE_KEY, baseForm, category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordFromVariant(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		return findWordInPage(VARIANT_KEY, variant, category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordByID(java.lang.String)
+	 */
+	@Override
+	protected WordElement findWordByID(String id) {
+		return findWordInPage(ID_KEY, id, LexicalCategory.ANY);
+	}
+
+	/**
+	 * get all matching words for a key
+	 * 
+	 * @param type
+	 *            type of key
+	 * @param key
+	 * @param category
+	 * @return matching words (may be empty)
+	 */
+	private List<WordElement> getWordsFromPage(char type, String key,
+			LexicalCategory category) {
+		List<WordElement> result = new ArrayList<WordElement>();
+		WordElement[] words = findWords(type, key);
+		if (words != null) {
+			for (WordElement word : words)
+				if (matchesCategory(word, category))
+					result.add(word.createSharedCopy());
+		}
+		return result;
+	}
+
+	/**
+	 * get the first matching word for a key
+	 * 
+	 * @param type
+	 *            type of key
+	 * @param key
+	 * @param category
+	 * @return first matching word, or null if there is none
+	 */
+	private WordElement findWordInPage(char type, String key,
+			LexicalCategory category) {
+		WordElement[] words = findWords(type, key);
+		if (words != null) {
+			for (WordElement word : words)
+				if (matchesCategory(word, category))
+					return word.createSharedCopy();
+		}
+		return null;
+	}
+
+	private static boolean matchesCategory(WordElement word,
+			LexicalCategory category) {
+		return category == LexicalCategory.ANY
+				|| word.getCategory() == category;
+	}
+
+	/**
+	 * @return the words stored with a key, or null if the key is not in the
+	 *         lexicon. These are the page's own words, and must not be changed
+	 */
+	private WordElement[] findWords(char type, String key) {
+		if (key == null)
+			return null;
+		String taggedKey = type + key;
+
+		// the key can only be in the last page which starts at or before it
+		String[] keys = firstKeys;
+		int pageNumber = Arrays.binarySearch(keys, taggedKey);
+		if (pageNumber < 0)
+			pageNumber = -pageNumber - 2;
+		if (pageNumber < 0)
+			return null;
+
+		Page page = getPage(pageNumber);
+		if (page == null)
+			return null;
+		int entry = Arrays.binarySearch(page.keys, taggedKey);
+		return entry < 0 ? null : page.words[entry];
+	}
+
+	/**
+	 * get a page from the cache, or read it from the file
+	 * 
+	 * @param pageNumber
+	 * @return the page, or null if it can't be read
+	 */
+	private Page getPage(int pageNumber) {
+		Page page;
+		synchronized (cache) {
+			page = cache.get(pageNumber);
+		}
+		if (page == null) {
+			try {
+				page = readPage(pageNumber);
+			} catch (IOException ex) {
+				System.out.println(ex.toString());
+				return null;
+			}
+			synchronized (cache) {
+				cache.put(pageNumber, page);
+			}
+		}
+		return page;
+	}
+
+	/**
+	 * read a page from the file. Positional reads are used, so pages can be
+	 * read by several threads at once
+	 * 
+	 * @param pageNumber
+	 * @return the page
+	 * @throws IOException
+	 */
+	private Page readPage(int pageNumber) throws IOException {
+		ByteBuffer bytes = ByteBuffer.allocate(pageLengths[pageNumber]);
+		long position = pageOffsets[pageNumber];
+		while (bytes.hasRemaining()) {
+			int read = channel.read(bytes, position + bytes.position());
+			if (read < 0)
+				throw new IOException("Paged lexicon is truncated");
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+				bytes.array()));
+		FeatureInterner interner = new FeatureInterner();
+		int entryCount = in.readInt();
+		Page page = new Page(entryCount);
+		for (int i = 0; i < entryCount; i++) {
+			page.keys[i] = in.readUTF();
+			WordElement[] words = new WordElement[in.readShort()];
+			for (int j = 0; j < words.length; j++)
+				words[j] = BinaryLexicon.readWord(in, interner);
+			page.words[i] = words;
+		}
+		return page;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#isLoaded()
+	 */
+	@Override
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#close()
+	 */
+	@Override
+	public void close() {
+		firstKeys = new String[0];
+		synchronized (cache) {
+			cache.clear();
+		}
+		if (file != null) {
+			try {
+				file.close();
+			} catch (IOException ex) {
+				System.out.println(ex.toString());
+			}
+			file = null;
+		}
+	}
+
+	/**
+	 * the keys in one page, in order, and their words
+	 */
+	private static class Page {
+		final String[] keys;
+		final WordElement[][] words;
+
+		Page(int entryCount) {
+			keys = new String[entryCount];
+			words = new WordElement[entryCount][];
+		}
+	}
+
+	/**
+	 * the most recently used pages. Must be used while synchronized on the
+	 * cache
+	 */
+	private static class PageCache extends LinkedHashMap<Integer, Page> {
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		PageCache(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+			return size() > capacity;
+		}
+	}
+
+	//**********************************************************************
+	// compiling
+	//**********************************************************************
+
+	/**
+	 * write the words of a lexicon to a paged lexicon file
+	 * 
+	 * @param lexicon
+	 *          the lexicon to compile
+	 * @param file
+	 *          the output file
+	 * @throws IOException
+	 */
+	public static void compile(XMLLexicon lexicon, File file)
+			throws IOException {
+		// all (tagged) keys, in order, and their words
+		TreeMap<String, List<WordElement>> entries = new TreeMap<String, List<WordElement>>();
+		WordIndex indexByBase = lexicon.getIndexByBase();
+		for (String key : indexByBase.keySet())
+			entries.put(BASE_KEY + key, indexByBase.get(key,
+					LexicalCategory.ANY));
+		WordIndex indexByVariant = lexicon.getIndexByVariant();
+		for (String key : indexByVariant.keySet())
+			entries.put(VARIANT_KEY + key, indexByVariant.get(key,
+					LexicalCategory.ANY));
+		for (Map.Entry<String, WordElement> entry : lexicon.getIndexByID()
+				.entrySet()) {
+			List<WordElement> words = new ArrayList<WordElement>(1);
+			words.add(entry.getValue());
+			entries.put(ID_KEY + entry.getKey(), words);
+		}
+
+		// fill pages
+		List<byte[]> pages = new ArrayList<byte[]>();
+		List<String> pageKeys = new ArrayList<String>();
+		ByteArrayOutputStream page = new ByteArrayOutputStream();
+		List<String> keys = new ArrayList<String>();
+		for (Map.Entry<String, List<WordElement>> entry : entries.entrySet()) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeUTF(entry.getKey());
+			out.writeShort(entry.getValue().size());
+			for (WordElement word : entry.getValue())
+				LexiconCompiler.writeWord(out, word);
+			out.flush();
+
+			if (!keys.isEmpty() && page.size() + bytes.size() > PAGE_SIZE) {
+				pages.add(finishPage(keys.size(), page));
+				pageKeys.add(keys.get(0));
+				page.reset();
+				keys.clear();
+			}
+			keys.add(entry.getKey());
+			bytes.writeTo(page);
+		}
+		if (!keys.isEmpty()) {
+			pages.add(finishPage(keys.size(), page));
+			pageKeys.add(keys.get(0));
+		}
+
+		// header, pages and sparse index
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+		try {
+			long offset = 4 + 2 + 4 + 8;
+			long[] offsets = new long[pages.size()];
+			for (int i = 0; i < pages.size(); i++) {
+				offsets[i] = offset;
+				offset += pages.get(i).length;
+			}
+
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeInt(pages.size());
+			out.writeLong(offset);
+			for (byte[] pageBytes : pages)
+				out.write(pageBytes);
+			for (int i = 0; i < pages.size(); i++) {
+				out.writeUTF(pageKeys.get(i));
+				out.writeLong(offsets[i]);
+				out.writeInt(pages.get(i).length);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * @param entryCount
+	 * @param entries
+	 *            the entries of a page
+	 * @return the page, with its entry count
+	 */
+	private static byte[] finishPage(int entryCount,
+			ByteArrayOutputStream entries) throws IOException {
+		ByteArrayOutputStream page = new ByteArrayOutputStream(
+				4 + entries.size());
+		DataOutputStream out = new DataOutputStream(page);
+		out.writeInt(entryCount);
+		entries.writeTo(out);
+		out.flush();
+		return page.toByteArray();
+	}
+}
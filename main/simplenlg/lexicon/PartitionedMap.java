@@ -0,0 +1,213 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map split by the hash of its keys into a fixed number of partitions, each
+ * an ordinary map. A copy made with {@link #PartitionedMap(PartitionedMap)}
+ * shares all the partitions of the original, and copies a partition only the
+ * first time it is changed, so changing a few keys of a copy costs a small
+ * fraction of copying the whole map. This is how the indices of a lexicon
+ * which is in use are changed (see {@link XMLLexicon#updateWords}).
+ *
+ * Keys are compared with <code>equals</code>, or by identity if the map is
+ * created with <code>identityKeys</code> set, as for a set of the words in a
+ * lexicon, which are distinct objects even when they are equal.
+ *
+ * A map which is shared with a copy must not be changed. The views returned
+ * by <code>entrySet</code>, <code>keySet</code> and <code>values</code> are
+ * read-only, and iterate over the keys in no particular order.
+ */
+class PartitionedMap<K, V> extends AbstractMap<K, V> {
+
+	/* number of partitions; must be a power of two */
+	private static final int PARTITIONS = 256;
+
+	private final Map<K, V>[] partitions; // null until a key is put in one
+	private final boolean[] owned; // true if a partition isn't shared
+	private final boolean identityKeys; // true if keys are compared by
+	// identity
+	private int size = 0;
+
+	private transient Set<Map.Entry<K, V>> entrySet = null;
+
+	/**
+	 * create an empty map whose keys are compared with <code>equals</code>
+	 */
+	PartitionedMap() {
+		this(false);
+	}
+
+	/**
+	 * create an empty map
+	 *
+	 * @param identityKeys
+	 *            true if keys are to be compared by identity
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	PartitionedMap(boolean identityKeys) {
+		partitions = new Map[PARTITIONS];
+		owned = new boolean[PARTITIONS];
+		this.identityKeys = identityKeys;
+	}
+
+	/**
+	 * create a map holding the entries of another map
+	 *
+	 * @param map
+	 */
+	PartitionedMap(Map<? extends K, ? extends V> map) {
+		this();
+		for (Map.Entry<? extends K, ? extends V> entry : map.entrySet())
+			put(entry.getKey(), entry.getValue());
+	}
+
+	/**
+	 * create a copy of a map, which can be changed without changing the
+	 * original. The partitions are shared until they are changed
+	 *
+	 * @param map
+	 */
+	PartitionedMap(PartitionedMap<K, V> map) {
+		partitions = map.partitions.clone();
+		owned = new boolean[PARTITIONS];
+		identityKeys = map.identityKeys;
+		size = map.size;
+	}
+
+	private int partitionOf(Object key) {
+		int hash = identityKeys ? System.identityHashCode(key)
+				: key == null ? 0 : key.hashCode();
+		hash *= 0x9E3779B9;
+		return hash >>> 24; // top 8 bits, for 256 partitions
+	}
+
+	/**
+	 * @param index
+	 * @return the partition, copied first if it is shared
+	 */
+	private Map<K, V> writable(int index) {
+		if (!owned[index]) {
+			Map<K, V> partition = partitions[index];
+			if (identityKeys)
+				partitions[index] = partition == null ? new IdentityHashMap<K, V>()
+						: new IdentityHashMap<K, V>(partition);
+			else
+				partitions[index] = partition == null ? new HashMap<K, V>()
+						: new HashMap<K, V>(partition);
+			owned[index] = true;
+		}
+		return partitions[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		Map<K, V> partition = partitions[partitionOf(key)];
+		return partition != null && partition.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		Map<K, V> partition = partitions[partitionOf(key)];
+		return partition == null ? null : partition.get(key);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		Map<K, V> partition = writable(partitionOf(key));
+		int before = partition.size();
+		V old = partition.put(key, value);
+		size += partition.size() - before;
+		return old;
+	}
+
+	@Override
+	public V remove(Object key) {
+		int index = partitionOf(key);
+		Map<K, V> partition = partitions[index];
+		if (partition == null || !partition.containsKey(key))
+			return null;
+		size--;
+		return writable(index).remove(key);
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<K, V>>() {
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					return new EntryIterator();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	/**
+	 * iterates over the partitions in turn; entries can't be removed
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+		private int index = 0;
+		private Iterator<Map.Entry<K, V>> current = Collections
+				.<Map.Entry<K, V>> emptySet().iterator();
+
+		public boolean hasNext() {
+			while (!current.hasNext()) {
+				if (index == PARTITIONS)
+					return false;
+				Map<K, V> partition = partitions[index++];
+				if (partition != null)
+					current = Collections.unmodifiableMap(partition)
+							.entrySet().iterator();
+			}
+			return true;
+		}
+
+		public Map.Entry<K, V> next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return current.next();
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,341 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class holds a lexicon which can be replaced while it is in use, eg to
+ * pick up lexicon updates without restarting a server. Lookups are passed to
+ * the current lexicon without any locking. A new lexicon is loaded completely
+ * (on the caller's thread, or in the background) before it is published with a
+ * single atomic swap, so readers never see a missing or partly loaded
+ * lexicon.
+ * 
+ * Each lookup uses whichever lexicon is current when it is made. To make all
+ * the lookups of one realisation use the same lexicon, get a snapshot with
+ * {@link #getLexicon()} and give that to the <code>NLGFactory</code> and
+ * <code>Realiser</code>.
+ * 
+ * Replaced lexicons are not closed by <code>swap</code> and
+ * <code>reload</code>, as other threads may still be using them. A caller
+ * which takes the lexicon with {@link #acquire()} and gives it back with
+ * {@link #release(Lexicon)} when it has finished can instead hand a replaced
+ * lexicon to {@link #retire(Lexicon)}, which closes it once no caller is
+ * using it.
+ */
+public class ReloadableLexicon extends Lexicon {
+
+	/* the current lexicon */
+	private final AtomicReference<Lexicon> current = new AtomicReference<Lexicon>();
+
+	/* the number of times the current lexicon has been replaced */
+	private final AtomicLong swaps = new AtomicLong();
+
+	/* serialises reloads; lookups never take this */
+	private final Object reloadLock = new Object();
+
+	/*
+	 * the number of callers using each acquired lexicon, and the retired
+	 * lexicons still in use; both guarded by users
+	 */
+	private final Map<Lexicon, Integer> users = new IdentityHashMap<Lexicon, Integer>();
+	private final Set<Lexicon> retired = Collections
+			.newSetFromMap(new IdentityHashMap<Lexicon, Boolean>());
+
+	/**********************************************************************/
+	// constructors
+	/**********************************************************************/
+
+	/**
+	 * create a holder with no lexicon; one must be set with <code>swap</code>
+	 * or <code>reload</code> before words are looked up
+	 */
+	public ReloadableLexicon() {
+		super();
+	}
+
+	/**
+	 * create a holder with an initial lexicon
+	 * 
+	 * @param lexicon
+	 */
+	public ReloadableLexicon(Lexicon lexicon) {
+		this();
+		current.set(lexicon);
+	}
+
+	/**********************************************************************/
+	// replacing the lexicon
+	/**********************************************************************/
+
+	/**
+	 * @return the current lexicon (null if none has been set). This snapshot
+	 *         is not affected by later reloads
+	 */
+	public Lexicon getLexicon() {
+		return current.get();
+	}
+
+	/**
+	 * replace the current lexicon
+	 * 
+	 * @param lexicon
+	 *            the new lexicon
+	 * @return the lexicon it replaced (not closed)
+	 */
+	public Lexicon swap(Lexicon lexicon) {
+		Lexicon old = current.getAndSet(lexicon);
+		swaps.incrementAndGet();
+		return old;
+	}
+
+	/**
+	 * replace the current lexicon, if it is the expected one
+	 * 
+	 * @param expected
+	 *            the lexicon expected to be current
+	 * @param lexicon
+	 *            the new lexicon
+	 * @return <code>true</code> if the lexicon was replaced
+	 */
+	public boolean compareAndSwap(Lexicon expected, Lexicon lexicon) {
+		if (!current.compareAndSet(expected, lexicon))
+			return false;
+		swaps.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * get the current lexicon for a piece of work, such as one realisation,
+	 * which must give it back with {@link #release(Lexicon)} when it has
+	 * finished. The lexicon is not closed by {@link #retire(Lexicon)} in the
+	 * meantime
+	 * 
+	 * @return the current lexicon
+	 * @throws IllegalStateException
+	 *             if no lexicon has been set
+	 */
+	public Lexicon acquire() {
+		synchronized (users) {
+			Lexicon lexicon = current();
+			Integer count = users.get(lexicon);
+			users.put(lexicon, count == null ? 1 : count + 1);
+			return lexicon;
+		}
+	}
+
+	/**
+	 * give back a lexicon got from {@link #acquire()}. If it has been retired
+	 * and this was its last user, it is closed
+	 * 
+	 * @param lexicon
+	 *            the lexicon
+	 */
+	public void release(Lexicon lexicon) {
+		synchronized (users) {
+			Integer count = users.get(lexicon);
+			if (count == null)
+				throw new IllegalStateException(
+						"Lexicon released more often than it was acquired");
+			if (count > 1) {
+				users.put(lexicon, count - 1);
+				return;
+			}
+			users.remove(lexicon);
+			if (!retired.remove(lexicon))
+				return;
+		}
+		lexicon.close();
+	}
+
+	/**
+	 * close a lexicon which has been replaced, now if no caller of
+	 * {@link #acquire()} is using it, otherwise when the last one releases
+	 * it. The current lexicon is never closed
+	 * 
+	 * @param lexicon
+	 *            the replaced lexicon (ignored if null)
+	 */
+	public void retire(Lexicon lexicon) {
+		if (lexicon == null)
+			return;
+		synchronized (users) {
+			if (lexicon == current.get())
+				return;
+			if (users.containsKey(lexicon)) {
+				retired.add(lexicon);
+				return;
+			}
+		}
+		lexicon.close();
+	}
+
+	/**
+	 * load a new lexicon on this thread and then make it current. Lookups by
+	 * other threads continue to use the old lexicon until it is replaced
+	 * 
+	 * @param loader
+	 *            creates the new lexicon
+	 * @return the lexicon it replaced (not closed)
+	 * @throws Exception
+	 *             if the loader fails, in which case the current lexicon is
+	 *             kept
+	 */
+	public Lexicon reload(Callable<? extends Lexicon> loader) throws Exception {
+		synchronized (reloadLock) {
+			Lexicon lexicon = loader.call();
+			if (lexicon == null)
+				throw new IllegalArgumentException("Lexicon loader returned null");
+			return swap(lexicon);
+		}
+	}
+
+	/**
+	 * load a new lexicon on a background thread and then make it current
+	 * 
+	 * @param loader
+	 *            creates the new lexicon
+	 * @return a <code>Future</code> which gives the lexicon that was replaced,
+	 *         or the loader's exception
+	 */
+	public Future<Lexicon> reloadInBackground(
+			final Callable<? extends Lexicon> loader) {
+		FutureTask<Lexicon> task = new FutureTask<Lexicon>(
+				new Callable<Lexicon>() {
+					public Lexicon call() throws Exception {
+						return reload(loader);
+					}
+				});
+		Thread thread = new Thread(task, "lexicon-reload");
+		thread.setDaemon(true);
+		thread.start();
+		return task;
+	}
+
+	/**
+	 * @return the current lexicon
+	 * @throws IllegalStateException
+	 *             if no lexicon has been set
+	 */
+	private Lexicon current() {
+		Lexicon lexicon = current.get();
+		if (lexicon == null)
+			throw new IllegalStateException("No lexicon has been loaded");
+		return lexicon;
+	}
+
+	/**********************************************************************/
+	// lookups, passed to the current lexicon
+	/**********************************************************************/
+
+	@Override
+	protected WordElement createWord(String baseForm, LexicalCategory category) {
+		return current().createWord(baseForm, category);
+	}
+
+	@Override
+	protected WordElement createWord(String baseForm) {
+		return current().createWord(baseForm);
+	}
+
+	@Override
+	public WordElement lookupWord(String baseForm, LexicalCategory category) {
+		return current().lookupWord(baseForm, category);
+	}
+
+	@Override
+	public LookupResult resolveWord(String baseForm, LexicalCategory category) {
+		return current().resolveWord(baseForm, category);
+	}
+
+	@Override
+	public List<WordElement> getWords(String baseForm, LexicalCategory category) {
+		return current().getWords(baseForm, category);
+	}
+
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		return current().findWord(baseForm, category);
+	}
+
+	@Override
+	public List<WordElement> getWordsByID(String id) {
+		return current().getWordsByID(id);
+	}
+
+	@Override
+	protected WordElement findWordByID(String id) {
+		return current().findWordByID(id);
+	}
+
+	@Override
+	public List<WordElement> getWordsFromVariant(String variant,
+			LexicalCategory category) {
+		return current().getWordsFromVariant(variant, category);
+	}
+
+	@Override
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		return current().findWordFromVariant(variant, category);
+	}
+
+	@Override
+	Collection<String> getBaseForms() {
+		return current().getBaseForms();
+	}
+
+	@Override
+	long getVersion() {
+		// the number of swaps in the high bits, so a new lexicon whose
+		// version equals the old one's still changes the version
+		Lexicon lexicon = current.get();
+		return (swaps.get() << 32)
+				+ (lexicon == null ? 0 : lexicon.getVersion());
+	}
+
+	@Override
+	public boolean isLoaded() {
+		return current().isLoaded();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#close()
+	 */
+	@Override
+	public void close() {
+		retire(swap(null));
+	}
+}
@@ -0,0 +1,541 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import simplenlg.framework.ElementCategory;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * This class is a lexicon for very large vocabularies (millions of words). The
+ * lexicon is a file, created by {@link #compile(XMLLexicon, File)} (or
+ * <code>LexiconCompiler -trie</code>), which is memory-mapped rather than read
+ * into the Java heap. Base forms, variants and IDs are indexed by a
+ * {@link DoubleArrayTrie} in the file, and words are stored as compact
+ * records; a <code>WordElement</code> is only created for a word when a
+ * lookup returns it.
+ * 
+ * The lexicon can be shared between threads. As the whole file is mapped as
+ * one buffer, it must be smaller than 2GB.
+ */
+public class TrieLexicon extends Lexicon {
+
+	// header of a trie lexicon file
+	static final int MAGIC = 0x534E4C54; // "SNLT"
+	static final short VERSION = 1;
+
+	// trie keys are tagged with the type of index
+	private static final char BASE_KEY = '\u0001';
+	private static final char VARIANT_KEY = '\u0002';
+	private static final char ID_KEY = '\u0003';
+
+	// types of feature values in word records
+	private static final byte VALUE_BOOLEAN = 0;
+	private static final byte VALUE_STRING = 1;
+
+	// category byte of words which do not have a lexical category
+	private static final byte NO_CATEGORY = -1;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private RandomAccessFile file;
+	private boolean loaded = false; // true if the file was opened
+	private MappedByteBuffer buffer;
+	private DoubleArrayTrie trie;
+	private String[] featureNames;
+	private int postingsStart; // offset of postings in buffer
+	private int recordsStart; // offset of word records in buffer
+
+	//**********************************************************************
+	// constructors
+	//**********************************************************************
+
+	/**
+	 * Open a trie lexicon from a named file
+	 * 
+	 * @param filename
+	 *          name of the lexicon file
+	 */
+	public TrieLexicon(String filename) {
+		this(new File(filename));
+	}
+
+	/**
+	 * Open a trie lexicon from a File
+	 * 
+	 * @param file
+	 *          path of the lexicon file
+	 */
+	public TrieLexicon(File file) {
+		super();
+		try {
+			openLexicon(file);
+		} catch (IOException ex) {
+			System.out.println(ex.toString());
+		}
+	}
+
+	/**
+	 * map the file and find its sections
+	 * 
+	 * @param lexiconFile
+	 * @throws IOException
+	 */
+	private void openLexicon(File lexiconFile) throws IOException {
+		file = new RandomAccessFile(lexiconFile, "r");
+		try {
+			readSections(lexiconFile);
+		} catch (IOException ex) {
+			close();
+			throw ex;
+		} catch (RuntimeException ex) {
+			// a truncated file is read past its end
+			close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * map the open file and find its sections
+	 * 
+	 * @param lexiconFile
+	 * @throws IOException
+	 */
+	private void readSections(File lexiconFile) throws IOException {
+		FileChannel channel = file.getChannel();
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+		if (buffer.getInt(0) != MAGIC)
+			throw new IOException("Not a trie lexicon: " + lexiconFile);
+		short version = buffer.getShort(4);
+		if (version != VERSION)
+			throw new IOException("Unsupported trie lexicon version "
+					+ version);
+
+		// alphabet table, base and check arrays
+		int pos = 6;
+		ByteBuffer codes = slice(pos, DoubleArrayTrie.ALPHABET_TABLE_SIZE * 2);
+		pos += DoubleArrayTrie.ALPHABET_TABLE_SIZE * 2;
+		int arraySize = buffer.getInt(pos);
+		pos += 4;
+		ByteBuffer base = slice(pos, arraySize * 4);
+		pos += arraySize * 4;
+		ByteBuffer check = slice(pos, arraySize * 4);
+		pos += arraySize * 4;
+		trie = new DoubleArrayTrie(codes.asCharBuffer(), base.asIntBuffer(),
+				check.asIntBuffer());
+
+		// feature names (the only part of the lexicon held on the heap)
+		int featureCount = buffer.getInt(pos);
+		pos += 4;
+		featureNames = new String[featureCount];
+		for (int i = 0; i < featureCount; i++) {
+			featureNames[i] = readString(pos);
+			pos += 2 + buffer.getShort(pos);
+		}
+
+		// postings and word records
+		int postingsSize = buffer.getInt(pos);
+		pos += 4;
+		postingsStart = pos;
+		pos += postingsSize;
+		pos += 4; // size of records
+		recordsStart = pos;
+		loaded = true;
+	}
+
+	private ByteBuffer slice(int position, int length) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(position);
+		view.limit(position + length);
+		return view.slice();
+	}
+
+	//**********************************************************************
+	// lookups
+	//**********************************************************************
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWords(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	public List<WordElement> getWords(String baseForm, LexicalCategory category) {
+		return getWordsFromTrie(BASE_KEY, baseForm, category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWordsByID(java.lang.String)
+	 */
+	@Override
+	public List<WordElement> getWordsByID(String id) {
+		return getWordsFromTrie(ID_KEY, id, LexicalCategory.ANY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getWordsFromVariant(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	public List<WordElement> getWordsFromVariant(String variant,
+			LexicalCategory category) {
+		return getWordsFromTrie(VARIANT_KEY, variant, category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWord(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		return findWordInTrie(BASE_KEY, baseForm, category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordFromVariant(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		return findWordInTrie(VARIANT_KEY, variant, category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordByID(java.lang.String)
+	 */
+	@Override
+	protected WordElement findWordByID(String id) {
+		return findWordInTrie(ID_KEY, id, LexicalCategory.ANY);
+	}
+
+	/**
+	 * get all matching words for a key
+	 * 
+	 * @param type
+	 *            type of key
+	 * @param key
+	 * @param category
+	 * @return matching words (may be empty)
+	 */
+	private List<WordElement> getWordsFromTrie(char type, String key,
+			LexicalCategory category) {
+		List<WordElement> result = new ArrayList<WordElement>();
+		int postings = findPostings(type, key);
+		if (postings >= 0) {
+			int count = buffer.getInt(postings);
+			for (int i = 0; i < count; i++) {
+				int record = recordsStart + buffer.getInt(postings + 4 + 4 * i);
+				if (matchesCategory(record, category))
+					result.add(readWord(record));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * get the first matching word for a key
+	 * 
+	 * @param type
+	 *            type of key
+	 * @param key
+	 * @param category
+	 * @return first matching word, or null if there is none
+	 */
+	private WordElement findWordInTrie(char type, String key,
+			LexicalCategory category) {
+		int postings = findPostings(type, key);
+		if (postings >= 0) {
+			int count = buffer.getInt(postings);
+			for (int i = 0; i < count; i++) {
+				int record = recordsStart + buffer.getInt(postings + 4 + 4 * i);
+				if (matchesCategory(record, category))
+					return readWord(record);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return offset in buffer of the postings for a key, or -1 if the key is
+	 *         not in the lexicon
+	 */
+	private int findPostings(char type, String key) {
+		if (trie == null || key == null)
+			return -1;
+		int value = trie.get(type + key);
+		return value < 0 ? -1 : postingsStart + value;
+	}
+
+	private boolean matchesCategory(int record, LexicalCategory category) {
+		return category == LexicalCategory.ANY
+				|| buffer.get(record) == category.ordinal();
+	}
+
+	/**
+	 * create a WordElement from a word record
+	 * 
+	 * @param record
+	 *            offset of the record in buffer
+	 * @return the word
+	 */
+	private WordElement readWord(int record) {
+		int pos = record;
+		byte category = buffer.get(pos++);
+		String baseForm = readString(pos);
+		pos += 2 + buffer.getShort(pos);
+		String id = null;
+		short idLength = buffer.getShort(pos);
+		if (idLength >= 0) {
+			id = readString(pos);
+			pos += 2 + idLength;
+		} else {
+			pos += 2;
+		}
+
+		WordElement word = new WordElement(baseForm,
+				category == NO_CATEGORY ? LexicalCategory.ANY
+						: LexicalCategory.values()[category], id);
+
+		short featureCount = buffer.getShort(pos);
+		pos += 2;
+		for (int i = 0; i < featureCount; i++) {
+			String feature = featureNames[buffer.getShort(pos)];
+			byte type = buffer.get(pos + 2);
+			pos += 3;
+			if (type == VALUE_BOOLEAN) {
+				word.setFeature(feature, buffer.get(pos) != 0);
+				pos++;
+			} else {
+				word.setFeature(feature, readString(pos));
+				pos += 2 + buffer.getShort(pos);
+			}
+		}
+		return word;
+	}
+
+	/**
+	 * read a string stored as a (short) length followed by UTF-8 bytes
+	 * 
+	 * @param pos
+	 *            offset of the string in buffer
+	 * @return the string
+	 */
+	private String readString(int pos) {
+		int length = buffer.getShort(pos);
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++)
+			bytes[i] = buffer.get(pos + 2 + i);
+		return new String(bytes, UTF8);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#isLoaded()
+	 */
+	@Override
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#close()
+	 */
+	@Override
+	public void close() {
+		trie = null;
+		buffer = null;
+		if (file != null) {
+			try {
+				file.close();
+			} catch (IOException ex) {
+				System.out.println(ex.toString());
+			}
+			file = null;
+		}
+	}
+
+	//**********************************************************************
+	// compiling
+	//**********************************************************************
+
+	/**
+	 * write the words of a lexicon to a trie lexicon file
+	 * 
+	 * @param lexicon
+	 *          the lexicon to compile
+	 * @param file
+	 *          the output file
+	 * @throws IOException
+	 */
+	public static void compile(XMLLexicon lexicon, File file)
+			throws IOException {
+		// word records, and the feature names they use
+		Map<String, Integer> featureIndex = new LinkedHashMap<String, Integer>();
+		Map<WordElement, Integer> recordOffsets = new IdentityHashMap<WordElement, Integer>();
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		DataOutputStream recordsOut = new DataOutputStream(records);
+		for (WordElement word : lexicon.getAllWords()) {
+			recordOffsets.put(word, recordsOut.size());
+			writeWord(recordsOut, word, featureIndex);
+		}
+
+		// postings for each (tagged) key, and the trie over the keys
+		Map<String, Integer> postingOffsets = new HashMap<String, Integer>();
+		ByteArrayOutputStream postings = new ByteArrayOutputStream();
+		DataOutputStream postingsOut = new DataOutputStream(postings);
+		WordIndex indexByBase = lexicon.getIndexByBase();
+		for (String key : indexByBase.keySet())
+			writePostings(postingsOut, BASE_KEY + key, indexByBase.get(key,
+					LexicalCategory.ANY), recordOffsets, postingOffsets);
+		WordIndex indexByVariant = lexicon.getIndexByVariant();
+		for (String key : indexByVariant.keySet())
+			writePostings(postingsOut, VARIANT_KEY + key, indexByVariant.get(
+					key, LexicalCategory.ANY), recordOffsets, postingOffsets);
+		for (Map.Entry<String, WordElement> entry : lexicon.getIndexByID()
+				.entrySet()) {
+			List<WordElement> words = new ArrayList<WordElement>(1);
+			words.add(entry.getValue());
+			writePostings(postingsOut, ID_KEY + entry.getKey(), words,
+					recordOffsets, postingOffsets);
+		}
+
+		String[] keys = postingOffsets.keySet().toArray(new String[0]);
+		int[] values = new int[keys.length];
+		for (int i = 0; i < keys.length; i++)
+			values[i] = postingOffsets.get(keys[i]);
+		DoubleArrayTrie.Builder trie = new DoubleArrayTrie.Builder(keys, values);
+
+		// now write the file
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			for (char code : trie.getCodeTable())
+				out.writeChar(code);
+			int[] base = trie.getBase();
+			int[] check = trie.getCheck();
+			out.writeInt(base.length);
+			for (int value : base)
+				out.writeInt(value);
+			for (int value : check)
+				out.writeInt(value);
+
+			out.writeInt(featureIndex.size());
+			for (String feature : featureIndex.keySet())
+				writeString(out, feature);
+
+			out.writeInt(postings.size());
+			postings.writeTo(out);
+			out.writeInt(records.size());
+			records.writeTo(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	private static void writeWord(DataOutputStream out, WordElement word,
+			Map<String, Integer> featureIndex) throws IOException {
+		ElementCategory category = word.getCategory();
+		out.writeByte(category instanceof LexicalCategory
+				&& category != LexicalCategory.ANY ? ((LexicalCategory) category)
+				.ordinal() : NO_CATEGORY);
+		writeString(out, word.getBaseForm() == null ? "" : word.getBaseForm());
+		if (word.getId() == null)
+			out.writeShort(-1);
+		else
+			writeString(out, word.getId());
+
+		List<String> features = new ArrayList<String>();
+		for (String feature : word.getAllFeatureNames())
+			if (word.getFeature(feature) != null)
+				features.add(feature);
+		out.writeShort(features.size());
+		for (String feature : features) {
+			Integer index = featureIndex.get(feature);
+			if (index == null) {
+				index = featureIndex.size();
+				featureIndex.put(feature, index);
+			}
+			out.writeShort(index);
+
+			Object value = word.getFeature(feature);
+			if (value instanceof Boolean) {
+				out.writeByte(VALUE_BOOLEAN);
+				out.writeBoolean(((Boolean) value).booleanValue());
+			} else {
+				out.writeByte(VALUE_STRING);
+				writeString(out, value.toString());
+			}
+		}
+	}
+
+	private static void writePostings(DataOutputStream out, String key,
+			List<WordElement> words, Map<WordElement, Integer> recordOffsets,
+			Map<String, Integer> postingOffsets) throws IOException {
+		postingOffsets.put(key, out.size());
+		out.writeInt(words.size());
+		for (WordElement word : words)
+			out.writeInt(recordOffsets.get(word));
+	}
+
+	private static void writeString(DataOutputStream out, String value)
+			throws IOException {
+		byte[] bytes = value.getBytes(UTF8);
+		if (bytes.length > Short.MAX_VALUE)
+			throw new IOException("String too long for trie lexicon: "
+					+ value.substring(0, 20) + "...");
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import simplenlg.framework.ElementCategory;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+
+/**
+ * An index from a key (base form or variant) to the words with this key,
+ * partitioned by {@link LexicalCategory}, so that looking up a key in a given
+ * category takes constant time however many homographs share the key (eg 在
+ * as adverb, verb and preposition). Words are kept in the order in which they
+ * were added.
+ * 
+ * An index which is in use may be shared with lookups on other threads, so it
+ * is never changed once built. To change it, make a copy with
+ * {@link #WordIndex(WordIndex)} and change that: the copy shares the
+ * unchanged entries, and the partitions of the map which hold them (see
+ * {@link PartitionedMap}), and copies each entry the first time it is
+ * changed. Copying an index and changing a few keys of the copy therefore
+ * takes much less time than copying all the keys.
+ */
+class WordIndex {
+
+	private final PartitionedMap<String, Entry> entries;
+
+	/* entries created since this index was copied; any others are shared
+	 * with the index this was copied from, so must be copied before they
+	 * are changed (null if this isn't a copy) */
+	private Set<Entry> ownEntries = null;
+
+	/**
+	 * create an empty index
+	 */
+	WordIndex() {
+		entries = new PartitionedMap<String, Entry>();
+	}
+
+	/**
+	 * create a copy of an index, which can be changed without changing the
+	 * original
+	 * 
+	 * @param index
+	 */
+	WordIndex(WordIndex index) {
+		entries = new PartitionedMap<String, Entry>(index.entries);
+		ownEntries = Collections.newSetFromMap(new IdentityHashMap<Entry, Boolean>());
+	}
+
+	/**
+	 * add a word to the index
+	 * 
+	 * @param key
+	 * @param word
+	 */
+	void add(String key, WordElement word) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			entry = new Entry();
+			entries.put(key, entry);
+			if (ownEntries != null)
+				ownEntries.add(entry);
+		} else if (ownEntries != null && !ownEntries.contains(entry)) {
+			entry = entry.copy();
+			entries.put(key, entry);
+			ownEntries.add(entry);
+		}
+		entry.add(word);
+	}
+
+	/**
+	 * remove a word from the index
+	 * 
+	 * @param key
+	 * @param word
+	 *            the indexed word (not an equal copy of it)
+	 */
+	void remove(String key, WordElement word) {
+		Entry entry = entries.get(key);
+		if (entry == null)
+			return;
+		Entry newEntry = new Entry();
+		for (WordElement existing : entry.words)
+			if (existing != word)
+				newEntry.add(existing);
+		if (newEntry.words.isEmpty()) {
+			entries.remove(key);
+		} else {
+			entries.put(key, newEntry);
+			if (ownEntries != null)
+				ownEntries.add(newEntry);
+		}
+	}
+
+	/**
+	 * @param key
+	 * @param category
+	 *            category of words (ANY for all words with the key)
+	 * @return the indexed words with this key and category, in the order in
+	 *         which they were added (an empty list if there are none). This is
+	 *         the index's own list and must not be changed
+	 */
+	List<WordElement> get(String key, LexicalCategory category) {
+		Entry entry = entries.get(key);
+		if (entry == null)
+			return Collections.emptyList();
+		return entry.get(category);
+	}
+
+	/**
+	 * @return the keys of the index, in no particular order (read-only)
+	 */
+	Set<String> keySet() {
+		return entries.keySet();
+	}
+
+	/**
+	 * @return number of keys in the index
+	 */
+	int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @param word
+	 * @return category of the word, or null if it doesn't have a lexical one
+	 */
+	static LexicalCategory categoryOf(WordElement word) {
+		ElementCategory category = word.getCategory();
+		return category instanceof LexicalCategory ? (LexicalCategory) category
+				: null;
+	}
+
+	/**
+	 * the words with one key. As most keys have words of only one category,
+	 * the partition by category is only created when a second category is
+	 * added
+	 */
+	private static class Entry {
+		final List<WordElement> words = new ArrayList<WordElement>(1);
+		EnumMap<LexicalCategory, List<WordElement>> byCategory = null;
+
+		void add(WordElement word) {
+			LexicalCategory category = categoryOf(word);
+			if (byCategory == null && !words.isEmpty()
+					&& categoryOf(words.get(0)) != category) {
+				byCategory = new EnumMap<LexicalCategory, List<WordElement>>(
+						LexicalCategory.class);
+				for (WordElement existing : words)
+					partition(existing, categoryOf(existing));
+			}
+			words.add(word);
+			if (byCategory != null)
+				partition(word, category);
+		}
+
+		Entry copy() {
+			Entry copy = new Entry();
+			for (WordElement word : words)
+				copy.add(word);
+			return copy;
+		}
+
+		private void partition(WordElement word, LexicalCategory category) {
+			if (category == null)
+				return;
+			List<WordElement> list = byCategory.get(category);
+			if (list == null) {
+				list = new ArrayList<WordElement>(1);
+				byCategory.put(category, list);
+			}
+			list.add(word);
+		}
+
+		List<WordElement> get(LexicalCategory category) {
+			if (category == LexicalCategory.ANY)
+				return words;
+			if (byCategory != null) {
+				List<WordElement> list = byCategory.get(category);
+				return list == null ? Collections.<WordElement> emptyList()
+						: list;
+			}
+			// all words have the same category
+			return categoryOf(words.get(0)) == category ? words : Collections
+					.<WordElement> emptyList();
+		}
+	}
+}
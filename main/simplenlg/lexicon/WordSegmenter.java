@@ -0,0 +1,160 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class splits a string into words, by finding the longest word in a
+ * dictionary (normally the base forms of a lexicon) at each position. This
+ * is done in one pass over the string using a {@link DoubleArrayTrie} of the
+ * dictionary, so it is fast however big the dictionary is.
+ * 
+ * Whitespace always separates words, but dictionary words may contain spaces
+ * (eg "我 自己"). Characters which don't start a dictionary word are kept
+ * together, up to the next whitespace or dictionary word, so eg "九寨沟123"
+ * gives "九寨沟" and "123" if only 九寨沟 is in the dictionary.
+ * 
+ * A segmenter can be shared between threads. It does not see words added to
+ * a lexicon after it was created, but {@link #isCurrent()} tells whether
+ * there have been any, so that it can be built again.
+ */
+public class WordSegmenter {
+
+	private final DoubleArrayTrie trie; // null if there are no words
+	private final Lexicon source; // lexicon the words came from, if any
+	private final long sourceVersion; // its version when they were taken
+
+	/**
+	 * create a segmenter for a dictionary of words
+	 * 
+	 * @param words
+	 */
+	public WordSegmenter(Collection<String> words) {
+		this(words, null, 0);
+	}
+
+	private WordSegmenter(Collection<String> words, Lexicon source,
+			long sourceVersion) {
+		this.source = source;
+		this.sourceVersion = sourceVersion;
+		Set<String> keys = new LinkedHashSet<String>();
+		for (String word : words) {
+			if (word != null && word.trim().length() > 0)
+				keys.add(word.trim());
+		}
+
+		if (keys.isEmpty()) {
+			trie = null;
+		} else {
+			int[] values = new int[keys.size()];
+			for (int i = 0; i < values.length; i++)
+				values[i] = i;
+			trie = new DoubleArrayTrie.Builder(keys.toArray(new String[keys
+					.size()]), values).build();
+		}
+	}
+
+	/**
+	 * create a segmenter for the base forms of a lexicon's words, plus some
+	 * other words (eg pronouns which aren't in the lexicon). Lexicons which
+	 * keep their words on disk ({@link TrieLexicon}, {@link PagedLexicon})
+	 * can't list them, and a segmenter which only knew the other words would
+	 * split almost every string wrongly, so these are refused
+	 * 
+	 * @param lexicon
+	 *            the lexicon (may be null, for only the other words)
+	 * @param otherWords
+	 *            other words to recognise (may be null)
+	 * @return the segmenter
+	 * @throws IllegalArgumentException
+	 *             if the lexicon can't list its words
+	 */
+	public static WordSegmenter forLexicon(Lexicon lexicon,
+			Collection<String> otherWords) {
+		List<String> words = new ArrayList<String>();
+		long version = 0;
+		if (lexicon != null) {
+			// read the version first, so a change while the words are
+			// listed makes the segmenter out of date rather than missed
+			version = lexicon.getVersion();
+			Collection<String> baseForms = lexicon.getBaseForms();
+			if (baseForms == null)
+				throw new IllegalArgumentException(
+						"Can't segment with a lexicon which can't list its words: "
+								+ lexicon.getClass().getSimpleName());
+			words.addAll(baseForms);
+		}
+		if (otherWords != null)
+			words.addAll(otherWords);
+		return new WordSegmenter(words, lexicon, version);
+	}
+
+	/**
+	 * @return false if this segmenter was built from a lexicon which has
+	 *         changed since, in which case it should be built again
+	 */
+	public boolean isCurrent() {
+		return source == null || source.getVersion() == sourceVersion;
+	}
+
+	/**
+	 * split a string into words
+	 * 
+	 * @param text
+	 * @return the words, in order (an empty list if there are none)
+	 */
+	public List<String> segment(String text) {
+		List<String> words = new ArrayList<String>();
+		int unknownStart = -1; // start of characters not in the dictionary
+		int i = 0;
+		while (i < text.length()) {
+			if (Character.isWhitespace(text.charAt(i))) {
+				addUnknown(words, text, unknownStart, i);
+				unknownStart = -1;
+				i++;
+				continue;
+			}
+
+			int length = trie == null ? 0 : trie.longestPrefix(text, i);
+			if (length > 0) {
+				addUnknown(words, text, unknownStart, i);
+				unknownStart = -1;
+				words.add(text.substring(i, i + length));
+				i += length;
+			} else {
+				if (unknownStart < 0)
+					unknownStart = i;
+				i++;
+			}
+		}
+		addUnknown(words, text, unknownStart, text.length());
+		return words;
+	}
+
+	private static void addUnknown(List<String> words, String text,
+			int start, int end) {
+		if (start >= 0 && end > start)
+			words.add(text.substring(start, end));
+	}
+}
@@ -19,23 +19,22 @@
 package simplenlg.lexicon;
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import simplenlg.features.LexicalFeature;
 import simplenlg.framework.ElementCategory;
@@ -46,6 +45,15 @@ import simplenlg.framework.WordElement;
  * This class loads words from an XML lexicon. All features specified in the
  * lexicon are loaded
  * 
+ * Words can be added, updated and removed while the lexicon is in use (see
+ * {@link #addWord(WordElement)}). Each change builds new indices, sharing
+ * whatever it doesn't change with the old ones, and then replaces the old
+ * indices in a single step. Lookups never wait for changes and always see
+ * either the old indices or the new ones, never a mixture. The indices are
+ * split into partitions (see {@link PartitionedMap}), and a change copies
+ * only the partitions holding the words it changes, so changing a word costs
+ * a small fraction of copying the indices.
+ * 
  * @author ereiter
  * 
  */
@@ -58,15 +66,10 @@ public class XMLLexicon extends Lexicon {
 	private static final String XML_WORD = "word"; // node defining a word
 
 	// lexicon
-	private Set<WordElement> words; // set of words
-	private Map<String, WordElement> indexByID; // map from ID to word
-	private Map<String, List<WordElement>> indexByBase; // map from base to set
-	// of words with this
-	// baseform
-	private Map<String, List<WordElement>> indexByVariant; // map from variants
-
-	// to set of words
-	// with this variant
+	private volatile Indices indices; // words and indices, replaced as a
+	// whole whenever words are changed
+	private boolean loaded = false; // true if the whole file was read
+	private boolean readOnly = false; // true if words can't be changed
 
 	//**********************************************************************
 	// constructors
@@ -127,97 +130,140 @@ public class XMLLexicon extends Lexicon {
 	}
 
 	/**
-	 * method to actually load and index the lexicon from a URI
+	 * Create a lexicon from indices which have already been built, eg when
+	 * reading a compiled lexicon (see {@link BinaryLexicon})
+	 * 
+	 * @param words
+	 *          set of words
+	 * @param indexByID
+	 *          map from ID to word
+	 * @param indexByBase
+	 *          index from base form to words with this base form
+	 * @param indexByVariant
+	 *          index from variant to words with this variant
+	 * @param filter
+	 *          filter of the keys of the indices, or null to build it
+	 */
+	XMLLexicon(Set<WordElement> words, Map<String, WordElement> indexByID,
+			WordIndex indexByBase, WordIndex indexByVariant,
+			BloomFilter filter) {
+		super();
+		PartitionedMap<WordElement, Boolean> wordSet = new PartitionedMap<WordElement, Boolean>(true);
+		for (WordElement word : words)
+			wordSet.put(word, Boolean.TRUE);
+		loaded = true;
+		indices = new Indices(wordSet, new PartitionedMap<String, WordElement>(
+				indexByID), indexByBase, indexByVariant, filter, 0);
+	}
+
+	/**
+	 * method to actually load and index the lexicon from a URI. The file is
+	 * read with a streaming (StAX) parser, so only one word is held in memory
+	 * in addition to the lexicon being built
 	 * 
 	 * @param lexiconURI
      *          The URI of the input lexicon
 	 */
 	private void createLexicon(URI lexiconURI) {
 		// initialise objects
-		words = new HashSet<WordElement>();
-		indexByID = new HashMap<String, WordElement>();
-		indexByBase = new HashMap<String, List<WordElement>>();
-		indexByVariant = new HashMap<String, List<WordElement>>();
+		PartitionedMap<WordElement, Boolean> words = new PartitionedMap<WordElement, Boolean>(true);
+		PartitionedMap<String, WordElement> indexByID = new PartitionedMap<String, WordElement>();
+		WordIndex indexByBase = new WordIndex();
+		WordIndex indexByVariant = new WordIndex();
 
+		InputStream input = null;
+		XMLStreamReader reader = null;
 		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory
-					.newInstance();
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			Document doc = builder.parse(lexiconURI.toString());
-
-			if (doc != null) {
-				Element lexRoot = doc.getDocumentElement();
-				NodeList wordNodes = lexRoot.getChildNodes();
-				for (int i = 0; i < wordNodes.getLength(); i++) {
-					Node wordNode = wordNodes.item(i);
-					// ignore things that aren't elements
-					if (wordNode.getNodeType() == Node.ELEMENT_NODE) {
-						WordElement word = convertNodeToWord(wordNode);
-						if (word != null) {
-							words.add(word);
-							IndexWord(word);
-						}
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+			input = lexiconURI.toURL().openStream();
+			reader = factory.createXMLStreamReader(lexiconURI.toString(),
+					input);
+
+			// skip to the root element
+			while (reader.hasNext()
+					&& reader.next() != XMLStreamConstants.START_ELEMENT)
+				;
+
+			// each child of the root defines a word; words share equal
+			// feature names and values
+			FeatureInterner interner = new FeatureInterner();
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					WordElement word = readWord(reader, interner);
+					if (word != null) {
+						words.put(word, Boolean.TRUE);
+						IndexWord(word, indexByID, indexByBase, indexByVariant);
 					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					break; // end of root element
 				}
 			}
+			loaded = true;
 		} catch (Exception ex) {
 			System.out.println(ex.toString());
+		} finally {
+			try {
+				if (reader != null)
+					reader.close();
+				if (input != null)
+					input.close();
+			} catch (Exception ex) {
+				// nothing to do
+			}
 		}
+
+		indices = new Indices(words, indexByID, indexByBase, indexByVariant,
+				null, 0);
 	}
 
 	/**
-	 * create a simplenlg WordElement from a Word node in a lexicon XML file
+	 * create a simplenlg WordElement from a Word element in a lexicon XML file.
+	 * On entry the reader is positioned at the start of the element, on exit
+	 * it is positioned at its end
 	 * 
-	 * @param wordNode
-     *          a Word node in a lexicon XML file
-	 * @return WordElement
+	 * @param reader
+     *          reader positioned at a Word element in a lexicon XML file
+	 * @param interner
+	 *          shares feature names and values between words
+	 * @return WordElement, or null if this isn't a Word element
+	 * @throws XMLStreamException
 	 */
-	private WordElement convertNodeToWord(Node wordNode) {
-		// if this isn't a Word node, ignore it
-		if (!wordNode.getNodeName().equalsIgnoreCase(XML_WORD))
+	private WordElement readWord(XMLStreamReader reader,
+			FeatureInterner interner) throws XMLStreamException {
+		// if this isn't a Word element, ignore it
+		if (!reader.getLocalName().equalsIgnoreCase(XML_WORD)) {
+			readText(reader);
 			return null;
-
-		// // if there is no base, flag an error and return null
-		// String base = XPathUtil.extractValue(wordNode, Constants.XML_BASE);
-		// if (base == null) {
-		// System.out.println("Error in loading XML lexicon: Word with no base");
-		// return null;
-		// }
+		}
 
 		// create word
 		WordElement word = new WordElement();
 
 		// now copy features
-		NodeList nodes = wordNode.getChildNodes();
-		for (int i = 0; i < nodes.getLength(); i++) {
-			Node featureNode = nodes.item(i);
-
-			if (featureNode.getNodeType() == Node.ELEMENT_NODE) {
-                String feature = featureNode.getNodeName().trim();
-				String value = featureNode.getTextContent();
-
-				if (value != null)
-					value = value.trim();
-
-				if (feature == null) {
-					System.err.println("Error in XML lexicon node for "
-							+ word.toString());
-					break;
-				}
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String feature = reader.getLocalName().trim();
+				String value = readText(reader).trim();
 
 				if (feature.equalsIgnoreCase(XML_BASE)) {
 					word.setBaseForm(value);
 				} else if (feature.equalsIgnoreCase(XML_CATEGORY)) {
-                    word.setCategory(LexicalCategory.valueOf(value.toUpperCase()));
-                } else if (feature.equalsIgnoreCase(XML_ID))
+					word.setCategory(LexicalCategory.valueOf(value.toUpperCase()));
+				} else if (feature.equalsIgnoreCase(XML_ID))
 					word.setId(value);
 
-				else if (value == null || value.equals("")) {
-                    word.setFeature(feature, true);
+				else if (value.equals("")) {
+					word.setFeature(interner.internName(feature), Boolean.TRUE);
 				} else
-					word.setFeature(feature, value);
-			}
+					word.setFeature(interner.internName(feature), interner
+							.internValue(value));
 
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				break; // end of Word element
+			}
 		}
 
 		// done, return word
@@ -225,16 +271,53 @@ public class XMLLexicon extends Lexicon {
 	}
 
 	/**
-	 * add word to internal indices
+	 * read the text content of the current element, including the text of any
+	 * nested elements. On exit the reader is positioned at the end of the
+	 * element
+	 * 
+	 * @param reader
+	 * @return text content (never null)
+	 * @throws XMLStreamException
+	 */
+	private String readText(XMLStreamReader reader) throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		int depth = 1;
+		while (depth > 0 && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				text.append(reader.getText());
+				break;
+			default:
+				break;
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * add word to indices
 	 * 
 	 * @param word
+	 * @param indexByID
+	 * @param indexByBase
+	 * @param indexByVariant
 	 */
-	private void IndexWord(WordElement word) {
+	private void IndexWord(WordElement word,
+			Map<String, WordElement> indexByID, WordIndex indexByBase,
+			WordIndex indexByVariant) {
 		// first index by base form
 		String base = word.getBaseForm();
 		// shouldn't really need is, as all words have base forms
 		if (base != null) {
-			updateIndex(word, base, indexByBase);
+			indexByBase.add(base, word);
 		}
 
 		// now index by ID, which should be unique (if present)
@@ -248,30 +331,385 @@ public class XMLLexicon extends Lexicon {
 
 		// now index by variant
 		for (String variant : getVariants(word)) {
-			updateIndex(word, variant, indexByVariant);
+			indexByVariant.add(variant, word);
 		}
 
 		// done
 	}
 
 	/**
-	 * convenience method to update an index
+	 * remove word from indices
 	 * 
 	 * @param word
-	 * @param base
-	 * @param index
+	 * @param indexByID
+	 * @param indexByBase
+	 * @param indexByVariant
+	 */
+	private void UnindexWord(WordElement word,
+			Map<String, WordElement> indexByID, WordIndex indexByBase,
+			WordIndex indexByVariant) {
+		String base = word.getBaseForm();
+		if (base != null) {
+			indexByBase.remove(base, word);
+		}
+
+		String id = word.getId();
+		if (id != null && indexByID.get(id) == word) {
+			indexByID.remove(id);
+		}
+
+		for (String variant : getVariants(word)) {
+			indexByVariant.remove(variant, word);
+		}
+	}
+
+	/**
+	 * the words in the lexicon and their indices. These are never changed once
+	 * they are in use; changes to the lexicon build new ones
+	 */
+	private static final class Indices {
+		final PartitionedMap<WordElement, Boolean> words; // set of words,
+		// compared by identity
+		final PartitionedMap<String, WordElement> indexByID; // map from ID
+		// to word
+		final WordIndex indexByBase; // map from base (and category) to
+		// words with this baseform
+		final WordIndex indexByVariant; // map from variants (and category)
+		// to words with this variant
+		final BloomFilter filter; // filter of bases, variants and IDs, to
+		// skip the indices for strings which aren't in the lexicon. Keys
+		// are added to it as words are added, and never removed
+		final long version; // number of changes made to the lexicon
+
+		Indices(PartitionedMap<WordElement, Boolean> words,
+				PartitionedMap<String, WordElement> indexByID,
+				WordIndex indexByBase, WordIndex indexByVariant,
+				BloomFilter filter, long version) {
+			this.words = words;
+			this.indexByID = indexByID;
+			this.indexByBase = indexByBase;
+			this.indexByVariant = indexByVariant;
+			this.filter = filter != null ? filter : buildFilter(1);
+			this.version = version;
+		}
+
+		/**
+		 * @return number of keys in the base, variant and ID indices
+		 */
+		int keyCount() {
+			return indexByBase.size() + indexByVariant.size()
+					+ indexByID.size();
+		}
+
+		/**
+		 * build a filter of the keys in the base, variant and ID indices
+		 * 
+		 * @param spare
+		 *            how many times the number of keys it is to have room for
+		 * @return the filter
+		 */
+		BloomFilter buildFilter(int spare) {
+			BloomFilter keys = new BloomFilter(keyCount() * spare);
+			for (String base : indexByBase.keySet())
+				keys.add(base);
+			for (String variant : indexByVariant.keySet())
+				keys.add(variant);
+			for (String id : indexByID.keySet())
+				keys.add(id);
+			return keys;
+		}
+	}
+
+	/******************************************************************************************/
+	// changing words while the lexicon is in use
+	/******************************************************************************************/
+
+	/**
+	 * add a word to the lexicon. The lexicon keeps its own copy of the word,
+	 * so later changes to <code>word</code> don't affect the lexicon
+	 * 
+	 * @param word
+	 *            the new word
+	 * @throws IllegalArgumentException
+	 *             if the lexicon already has a word with this word's ID
+	 */
+	public void addWord(WordElement word) {
+		updateWords(null, Collections.singleton(word));
+	}
+
+	/**
+	 * replace the word in the lexicon which has the same ID as this word
+	 * 
+	 * @param word
+	 *            the new version of the word
+	 * @throws IllegalArgumentException
+	 *             if the word has no ID, or the lexicon has no word with its
+	 *             ID
+	 */
+	public void updateWord(WordElement word) {
+		if (word.getId() == null)
+			throw new IllegalArgumentException("Lexicon has no word with ID "
+					+ word.getId());
+		changeWords(Collections.singleton(word), Collections.singleton(word),
+				true);
+	}
+
+	/**
+	 * remove a word from the lexicon
+	 * 
+	 * @param word
+	 *            the word to remove, eg as returned by <code>getWord</code>.
+	 *            If it has an ID, the word with this ID is removed; otherwise
+	 *            the first word with its base form and category is removed
+	 * @return <code>true</code> if a word was removed
+	 */
+	public boolean removeWord(WordElement word) {
+		return updateWords(Collections.singleton(word), null) > 0;
+	}
+
+	/**
+	 * remove and add several words in a single change. Removals are done
+	 * first, so a word can be updated by removing and adding it
+	 * 
+	 * @param removed
+	 *            words to remove (may be null); see
+	 *            <code>removeWord</code>
+	 * @param added
+	 *            words to add (may be null); see <code>addWord</code>
+	 * @return number of words removed
+	 * @throws IllegalArgumentException
+	 *             if a word which is added has the same ID as a word in the
+	 *             lexicon
+	 */
+	public int updateWords(Collection<WordElement> removed,
+			Collection<WordElement> added) {
+		return changeWords(removed, added, false);
+	}
+
+	/**
+	 * remove and add words in a single change, as <code>updateWords</code>
+	 * does
+	 * 
+	 * @param removed
+	 * @param added
+	 * @param mustExist
+	 *            <code>true</code> if nothing is to be changed unless every
+	 *            word to remove is in the lexicon
+	 * @return number of words removed
+	 * @throws IllegalArgumentException
+	 *             if a word to remove isn't in the lexicon and
+	 *             <code>mustExist</code> is true, or a word which is added has
+	 *             the same ID as a word in the lexicon
+	 */
+	private synchronized int changeWords(Collection<WordElement> removed,
+			Collection<WordElement> added, boolean mustExist) {
+		if (readOnly)
+			throw new UnsupportedOperationException(
+					"This lexicon can't be changed; use a copy of it");
+
+		// copy the current indices, which shares their partitions and
+		// entries until they are changed
+		Indices current = indices;
+		PartitionedMap<WordElement, Boolean> words = new PartitionedMap<WordElement, Boolean>(
+				current.words);
+		PartitionedMap<String, WordElement> indexByID = new PartitionedMap<String, WordElement>(
+				current.indexByID);
+		WordIndex indexByBase = new WordIndex(current.indexByBase);
+		WordIndex indexByVariant = new WordIndex(current.indexByVariant);
+
+		int removedCount = 0;
+		if (removed != null) {
+			for (WordElement word : removed) {
+				WordElement indexed = findIndexedWord(word, indexByID,
+						indexByBase);
+				if (indexed == null && mustExist)
+					throw new IllegalArgumentException(
+							"Lexicon has no word with ID " + word.getId());
+				if (indexed != null) {
+					words.remove(indexed);
+					UnindexWord(indexed, indexByID, indexByBase, indexByVariant);
+					removedCount++;
+				}
+			}
+		}
+
+		if (added != null) {
+			for (WordElement word : added) {
+				if (word.getId() != null && indexByID.containsKey(word.getId()))
+					throw new IllegalArgumentException("Lexicon already has a word with ID "
+							+ word.getId());
+				WordElement copy = word.createSharedCopy();
+				words.put(copy, Boolean.TRUE);
+				IndexWord(copy, indexByID, indexByBase, indexByVariant);
+			}
+		}
+
+		Indices changed = new Indices(words, indexByID, indexByBase,
+				indexByVariant, current.filter, current.version + 1);
+		if (changed.keyCount() > current.filter.getCapacity()) {
+			// rebuild the filter with room to spare, so that this is rare
+			changed = new Indices(words, indexByID, indexByBase,
+					indexByVariant, changed.buildFilter(2), changed.version);
+		} else if (added != null) {
+			// the filter is shared with the current indices, whose lookups
+			// may then see the new keys, which only makes them search the
+			// indices
+			for (WordElement word : added)
+				addKeys(current.filter, word);
+		}
+		indices = changed;
+		return removedCount;
+	}
+
+	/**
+	 * add the base, variants and ID of a word to a filter
+	 * 
+	 * @param filter
+	 * @param word
+	 */
+	private void addKeys(BloomFilter filter, WordElement word) {
+		if (word.getBaseForm() != null)
+			filter.add(word.getBaseForm());
+		if (word.getId() != null)
+			filter.add(word.getId());
+		for (String variant : getVariants(word))
+			filter.add(variant);
+	}
+
+	/**
+	 * @param word
+	 * @param indexByID
+	 * @param indexByBase
+	 * @return the word in the indices which matches this word (by ID if it
+	 *         has one, otherwise by base form and category), or null
+	 */
+	private static WordElement findIndexedWord(WordElement word,
+			Map<String, WordElement> indexByID, WordIndex indexByBase) {
+		if (word.getId() != null)
+			return indexByID.get(word.getId());
+		if (word.getBaseForm() == null)
+			return null;
+		ElementCategory category = word.getCategory();
+		List<WordElement> entries = indexByBase.get(word.getBaseForm(),
+				category instanceof LexicalCategory ? (LexicalCategory) category
+						: LexicalCategory.ANY);
+		return entries.isEmpty() ? null : entries.get(0);
+	}
+
+	/**
+	 * stop the words in this lexicon being changed, eg because it is shared
+	 */
+	void setReadOnly() {
+		readOnly = true;
+	}
+
+	/**
+	 * @return <code>true</code> if words can't be added, updated or removed
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	/******************************************************************************************/
+	// access to the indices, used by LexiconCompiler
+	/******************************************************************************************/
+
+	/**
+	 * @return set of all words in the lexicon
+	 */
+	Set<WordElement> getAllWords() {
+		return Collections.unmodifiableSet(indices.words.keySet());
+	}
+
+	/**
+	 * @return map from ID to word
+	 */
+	Map<String, WordElement> getIndexByID() {
+		return Collections.unmodifiableMap(indices.indexByID);
+	}
+
+	/**
+	 * @return index from base form to words with this base form
+	 */
+	WordIndex getIndexByBase() {
+		return indices.indexByBase;
+	}
+
+	/**
+	 * @return index from variant to words with this variant
 	 */
-	private void updateIndex(WordElement word, String base,
-			Map<String, List<WordElement>> index) {
-		if (!index.containsKey(base))
-			index.put(base, new ArrayList<WordElement>());
-		index.get(base).add(word);
+	WordIndex getIndexByVariant() {
+		return indices.indexByVariant;
+	}
+
+	/**
+	 * @return filter of the keys of the indices
+	 */
+	BloomFilter getFilter() {
+		return indices.filter;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#isLoaded()
+	 */
+	@Override
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#getBaseForms()
+	 */
+	@Override
+	Collection<String> getBaseForms() {
+		return Collections.unmodifiableSet(indices.indexByBase.keySet());
+	}
+
+	/**
+	 * @return number of changes made to the words since the lexicon was
+	 *         loaded
+	 */
+	@Override
+	long getVersion() {
+		return indices.version;
 	}
 
 	/******************************************************************************************/
 	// main methods to get data from lexicon
 	/******************************************************************************************/
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#lookupWord(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	public WordElement lookupWord(String baseForm, LexicalCategory category) {
+		// a string which isn't a base, variant or ID can't be found
+		if (!indices.filter.mightContain(baseForm))
+			return createWord(baseForm, category);
+		return super.lookupWord(baseForm, category);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#resolveWord(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	public LookupResult resolveWord(String baseForm, LexicalCategory category) {
+		if (!indices.filter.mightContain(baseForm))
+			return new LookupResult(createWord(baseForm, category),
+					LookupResult.Match.NONE);
+		return super.resolveWord(baseForm, category);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -280,44 +718,92 @@ public class XMLLexicon extends Lexicon {
 	 */
 	@Override
 	public List<WordElement> getWords(String baseForm, LexicalCategory category) {
-		return getWordsFromIndex(baseForm, category, indexByBase);
+		Indices current = indices;
+		return getWordsFromIndex(baseForm, category, current.indexByBase,
+				current.filter);
 	}
 
 	/**
-	 * get matching keys from an index map
+	 * get matching words from an index
 	 * 
 	 * @param indexKey
 	 * @param category
-	 * @param indexMap
+	 * @param index
+	 * @param filter
+	 *          filter of the index keys
 	 * @return
 	 */
 	private List<WordElement> getWordsFromIndex(String indexKey,
-			LexicalCategory category, Map<String, List<WordElement>> indexMap) {
-		List<WordElement> result = new ArrayList<WordElement>();
-
-		// case 1: unknown, return empty list
-		if (!indexMap.containsKey(indexKey)) {
-			return result;
-		}
-
-		// case 2: category is ANY, return everything
-		if (category == LexicalCategory.ANY) {
-			for(WordElement word : indexMap.get(indexKey)) {
-				result.add(new WordElement(word));
-			}
-			return result;
+			LexicalCategory category, WordIndex index, BloomFilter filter) {
+		if (!filter.mightContain(indexKey))
+			return new ArrayList<WordElement>();
+		List<WordElement> entries = index.get(indexKey, category);
+		List<WordElement> result = new ArrayList<WordElement>(entries.size());
+		for (WordElement word : entries) {
+			result.add(word.createSharedCopy());
 		}
-		else {
-			// case 3: other category, search for match
-			for (WordElement word : indexMap.get(indexKey)) {
-				if (word.getCategory() == category) {
-					result.add(new WordElement(word));
-				}
-			}
-		}	
 		return result;
 	}
 
+	/**
+	 * get the first matching word from an index, without building a list
+	 * 
+	 * @param indexKey
+	 * @param category
+	 * @param index
+	 * @param filter
+	 *          filter of the index keys
+	 * @return first matching word, or null if there is none
+	 */
+	private WordElement findWordInIndex(String indexKey,
+			LexicalCategory category, WordIndex index, BloomFilter filter) {
+		if (!filter.mightContain(indexKey))
+			return null;
+		List<WordElement> entries = index.get(indexKey, category);
+		return entries.isEmpty() ? null : entries.get(0).createSharedCopy();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWord(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWord(String baseForm, LexicalCategory category) {
+		Indices current = indices;
+		return findWordInIndex(baseForm, category, current.indexByBase,
+				current.filter);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordFromVariant(java.lang.String,
+	 * simplenlg.framework.LexicalCategory)
+	 */
+	@Override
+	protected WordElement findWordFromVariant(String variant,
+			LexicalCategory category) {
+		Indices current = indices;
+		return findWordInIndex(variant, category, current.indexByVariant,
+				current.filter);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see simplenlg.lexicon.Lexicon#findWordByID(java.lang.String)
+	 */
+	@Override
+	protected WordElement findWordByID(String id) {
+		Indices current = indices;
+		if (!current.filter.mightContain(id))
+			return null;
+		WordElement word = current.indexByID.get(id);
+		return word == null ? null : word.createSharedCopy();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -325,9 +811,12 @@ public class XMLLexicon extends Lexicon {
 	 */
 	@Override
 	public List<WordElement> getWordsByID(String id) {
+		Indices current = indices;
 		List<WordElement> result = new ArrayList<WordElement>();
-		if (indexByID.containsKey(id)) {
-			result.add(new WordElement(indexByID.get(id)));
+		WordElement word = current.filter.mightContain(id) ? current.indexByID
+				.get(id) : null;
+		if (word != null) {
+			result.add(word.createSharedCopy());
 		}
 		return result;
 	}
@@ -341,7 +830,9 @@ public class XMLLexicon extends Lexicon {
 	@Override
 	public List<WordElement> getWordsFromVariant(String variant,
 			LexicalCategory category) {
-		return getWordsFromIndex(variant, category, indexByVariant);
+		Indices current = indices;
+		return getWordsFromIndex(variant, category, current.indexByVariant,
+				current.filter);
 	}
 
 	/**
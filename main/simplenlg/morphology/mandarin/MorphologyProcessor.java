@@ -92,10 +92,11 @@ public class MorphologyProcessor extends NLGModule {
 
 		} else if(element instanceof ListElement) {
 			realisedElement = new ListElement();
-            if(element.getFeatureAsBoolean(Feature.TOPIC)) {
+            if(element.getBooleanFeature(Feature.TOPIC)) {
                 realisedElement.setFeature(Feature.TOPIC, true);
             }
-			((ListElement) realisedElement).addComponents(realise(element.getChildren()));
+			((ListElement) realisedElement).addComponents(realise(element
+					.getFeatureAsElementListView(InternalFeature.COMPONENTS)));
 
 		} else if(element instanceof CoordinatedPhraseElement) {
 			List<NLGElement> children = element.getChildren();
@@ -130,7 +131,7 @@ public class MorphologyProcessor extends NLGModule {
 	 */
 	private NLGElement doMorphology(InflectedWordElement element) {
 		NLGElement realisedElement = null;
-		if(element.getFeatureAsBoolean(InternalFeature.NON_MORPH)) {
+		if(element.getBooleanFeature(InternalFeature.NON_MORPH)) {
 			realisedElement = new StringElement(element.getBaseForm());
 			realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
 			                           element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
@@ -223,13 +224,13 @@ public class MorphologyProcessor extends NLGModule {
 
 						if(currentElement instanceof ListElement) {
 							// list elements: ensure det matches first element
-							NLGElement firstChild = ((ListElement) currentElement).getChildren().get(0);
+							NLGElement firstChild = currentElement.getChild(0);
 
 							if(firstChild != null) {
 								//AG: need to check if child is a coordinate
 								if(firstChild instanceof CoordinatedPhraseElement) {
 									MorphologyRules.doDeterminerMorphology(determiner,
-									                                       firstChild.getChildren().get(0).getRealisation());
+									                                       firstChild.getChild(0).getRealisation());
 								} else {
 									MorphologyRules.doDeterminerMorphology(determiner, firstChild.getRealisation());
 								}
@@ -88,7 +88,7 @@ public abstract class MorphologyRules extends NLGModule {
 
 		// base form from baseWord if it exists, otherwise from element
 		String baseForm = getBaseForm(element, baseWord);
-		if(element.isPlural() && element.getFeatureAsBoolean(LexicalFeature.MEN)) {
+		if(element.isPlural() && element.getBooleanFeature(LexicalFeature.MEN)) {
 
 			String pluralForm = buildRegularPluralNoun(baseForm);
 			realised.append(pluralForm);
@@ -115,7 +115,7 @@ public abstract class MorphologyRules extends NLGModule {
 	 */
 	private static void checkPossessive(InflectedWordElement element, StringBuffer realised) {
 
-		if(element.getFeatureAsBoolean(Feature.POSSESSIVE)) {
+		if(element.getBooleanFeature(Feature.POSSESSIVE)) {
 			realised.append(" 的"); //$NON-NLS-1$
 		}
 	}
@@ -396,7 +396,7 @@ public abstract class MorphologyRules extends NLGModule {
 	public static NLGElement doPronounMorphology(InflectedWordElement element) {
 		String realised = null;
 
-		if(!element.getFeatureAsBoolean(InternalFeature.NON_MORPH) && !isWHPronoun(element)) {
+		if(!element.getBooleanFeature(InternalFeature.NON_MORPH) && !isWHPronoun(element)) {
 			Object genderValue = element.getFeature(LexicalFeature.GENDER);
 			Object personValue = element.getFeature(Feature.PERSON);
 			Object discourseValue = element.getFeature(InternalFeature.DISCOURSE_FUNCTION);
@@ -415,9 +415,9 @@ public abstract class MorphologyRules extends NLGModule {
 
 			int positionIndex = 0;
 
-			if(element.getFeatureAsBoolean(LexicalFeature.REFLEXIVE)) {
+			if(element.getBooleanFeature(LexicalFeature.REFLEXIVE)) {
 				positionIndex = 1;
-			} else if(element.getFeatureAsBoolean(Feature.POSSESSIVE)) {
+			} else if(element.getBooleanFeature(Feature.POSSESSIVE)) {
 				positionIndex = 2;
 			}
 			realised = PRONOUNS[numberIndex][positionIndex][personIndex];
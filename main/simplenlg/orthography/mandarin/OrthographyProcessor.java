@@ -120,9 +120,8 @@ public class OrthographyProcessor extends NLGModule {
 
 		//get the element's function first
 		if(element instanceof ListElement) {
-			List<NLGElement> children = element.getChildren();
-			if(!children.isEmpty()) {
-				NLGElement firstChild = children.get(0);
+			if(element.getChildCount() > 0) {
+				NLGElement firstChild = element.getChild(0);
 				function = firstChild.getFeature(InternalFeature.DISCOURSE_FUNCTION);
 			}
 		} else {
@@ -178,7 +177,7 @@ public class OrthographyProcessor extends NLGModule {
 
 						// if the postmod is appositive, it's sandwiched in
 						// commas
-						if(postmod.getFeatureAsBoolean(Feature.APPOSITIVE)) {
+						if(postmod.getBooleanFeature(Feature.APPOSITIVE)) {
 							buffer.append("， ");
 							buffer.append(realise(postmod));
 							buffer.append("， ");
@@ -272,7 +271,7 @@ public class OrthographyProcessor extends NLGModule {
 
 			stripLeadingCommas(realisation);
 			capitaliseFirstLetter(realisation);
-			terminateSentence(realisation, element.getFeatureAsBoolean(InternalFeature.INTERROGATIVE).booleanValue());
+			terminateSentence(realisation, element.getBooleanFeature(InternalFeature.INTERROGATIVE));
 
 			((DocumentElement) element).clearComponents();
 			// realisation.append(' ');
@@ -421,7 +420,7 @@ public class OrthographyProcessor extends NLGModule {
 				realisation.append("， "); //$NON-NLS-1$
 			} else {
 
-                if (realisedChild.getFeatureAsBoolean(Feature.TOPIC)) {
+                if (realisedChild.getBooleanFeature(Feature.TOPIC)) {
                     realisedChild = realise(realisedChild);
                     realisation.append(realisedChild.getRealisation()).append("， ");
                 } else {
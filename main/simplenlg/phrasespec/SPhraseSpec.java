@@ -228,11 +228,26 @@ public class SPhraseSpec extends PhraseElement {
 		return null;
 	}
 
+	/* (non-Javadoc)
+	 * @see simplenlg.framework.NLGElement#getBooleanFeature(java.lang.String)
+	 */
+	@Override
+	public boolean getBooleanFeature(String featureName) {
+		if (super.getFeature(featureName) != null)
+			return super.getBooleanFeature(featureName);
+		if (vpFeatures.contains(featureName)) {
+			NLGElement verbPhrase = getFeatureAsElement(InternalFeature.VERB_PHRASE);
+			if (verbPhrase != null)
+				return verbPhrase.getBooleanFeature(featureName);
+		}
+		return false;
+	}
+
 	/**
 	 * @return VP for this clause
 	 */
 	public NLGElement getVerbPhrase() {
-		return getFeatureAsElement(InternalFeature.VERB_PHRASE);
+		return getVerbPhraseElement();
 	}
 
 	public void setVerbPhrase(NLGElement vp) {
@@ -444,4 +459,20 @@ public class SPhraseSpec extends PhraseElement {
 		addPostModifier(modifierElement);
 	}
 
+	/**
+	 * Sets a feature of a new variant of this clause. As with
+	 * <code>setFeature</code>, features such as the tense are also given to
+	 * the verb phrase, whose variant is then the only other element copied.
+	 */
+	@Override
+	protected void setVariantFeature(String featureName, Object featureValue) {
+		super.setVariantFeature(featureName, featureValue);
+		if (vpFeatures.contains(featureName)) {
+			NLGElement verbPhrase = getFeatureAsElement(InternalFeature.VERB_PHRASE);
+			if (verbPhrase != null) {
+				super.setVariantFeature(InternalFeature.VERB_PHRASE, verbPhrase
+						.withFeature(featureName, featureValue));
+			}
+		}
+	}
 }
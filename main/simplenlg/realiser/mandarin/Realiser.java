@@ -24,11 +24,13 @@ import java.util.List;
 import simplenlg.format.mandarin.TextFormatter;
 import simplenlg.framework.DocumentCategory;
 import simplenlg.framework.DocumentElement;
+import simplenlg.framework.ElementCopier;
 import simplenlg.framework.NLGElement;
 import simplenlg.framework.NLGModule;
 import simplenlg.lexicon.Lexicon;
 import simplenlg.morphology.mandarin.MorphologyProcessor;
 import simplenlg.orthography.mandarin.OrthographyProcessor;
+import simplenlg.syntax.mandarin.RealisationCache;
 import simplenlg.syntax.mandarin.SyntaxProcessor;
 
 /**
@@ -42,6 +44,7 @@ public class Realiser extends NLGModule {
 	private SyntaxProcessor      syntax;
 	private NLGModule            formatter = null;
 	private boolean              debug     = false;
+	private boolean              preserveInput = false;
 
 	/**
 	 * create a realiser (no lexicon)
@@ -92,6 +95,7 @@ public class Realiser extends NLGModule {
 		if(this.orthography != null) {
 			this.orthography.setCommaSepPremodifiers(commaSepPremodifiers);
 		}
+		clearRealisationCache();
 	}
 
 	/**
@@ -122,6 +126,73 @@ public class Realiser extends NLGModule {
 		if(this.orthography != null) {
 			this.orthography.setCommaSepCuephrase(commaSepCuephrase);
 		}
+		clearRealisationCache();
+	}
+
+	/**
+	 * Check whether this realiser leaves the elements given to it unchanged.
+	 * 
+	 * @return <code>true</code> if the realiser works on a copy of each
+	 *         element it is given.
+	 */
+	public boolean isPreserveInput() {
+		return this.preserveInput;
+	}
+
+	/**
+	 * Set whether to leave the elements given to this realiser unchanged. By
+	 * default the realiser changes the trees it realises as it works, eg by
+	 * replacing the components of documents with their realisations, so a
+	 * tree can only be realised once. If <code>true</code>, each tree is
+	 * copied with {@link ElementCopier#copyOnDemand(NLGElement)} as it is
+	 * realised and only the copy is changed, so the same tree can be realised
+	 * any number of times, and by several threads at once as long as none of
+	 * them changes it. Only the elements which realisation reaches are
+	 * copied. Frozen trees (see {@link NLGElement#freeze()}) are always
+	 * copied in this way, whatever this is set to.
+	 * 
+	 * @param preserveInput
+	 *            <code>true</code> to realise copies of the elements given.
+	 */
+	public void setPreserveInput(boolean preserveInput) {
+		this.preserveInput = preserveInput;
+	}
+
+	/**
+	 * Get the cache in which this realiser remembers the realisations of
+	 * phrases.
+	 * 
+	 * @return the cache, or <code>null</code> if realisations are not
+	 *         remembered.
+	 */
+	public RealisationCache getRealisationCache() {
+		return this.syntax.getRealisationCache();
+	}
+
+	/**
+	 * Set a cache in which to remember the realisations of phrases, so that
+	 * phrases which appear again and again, in the same or different
+	 * sentences, are only realised once. By default there is no cache. The
+	 * cache is cleared whenever the lexicon or settings of this realiser are
+	 * changed. See {@link RealisationCache} for the phrases which are
+	 * remembered.
+	 * 
+	 * @param cache
+	 *            the cache, or <code>null</code> to realise every phrase.
+	 */
+	public void setRealisationCache(RealisationCache cache) {
+		this.syntax.setRealisationCache(cache, this.morphology, this.orthography);
+	}
+
+	/**
+	 * Forgets the remembered realisations, if there are any, as they may no
+	 * longer be right.
+	 */
+	private void clearRealisationCache() {
+		RealisationCache cache = getRealisationCache();
+		if(cache != null) {
+			cache.clear();
+		}
 	}
 
 	@Override
@@ -139,6 +210,52 @@ public class Realiser extends NLGModule {
 
 	@Override
 	public NLGElement realise(NLGElement element) {
+		if(element != null && mustCopy(element)) {
+			element = copyInput(element);
+		}
+		return realiseTree(element);
+	}
+
+	/**
+	 * Checks whether an element given to this realiser is to be copied
+	 * rather than changed: it is if the input is to be preserved, or if the
+	 * element is frozen and so cannot be changed.
+	 * 
+	 * @param element
+	 *            the element.
+	 * @return <code>true</code> if the element is to be copied.
+	 */
+	private boolean mustCopy(NLGElement element) {
+		return this.preserveInput || element.isFrozen();
+	}
+
+	/**
+	 * Copies an element which is to be left unchanged. Each element in the
+	 * tree is only copied when realisation first reads or changes it, so a
+	 * phrase whose realisation is found in the cache, or which is elided,
+	 * costs a copy of itself rather than of everything below it. If there is
+	 * a cache, the fingerprints of the element are worked out first, so that
+	 * they are kept in the element and given to each copy made of it.
+	 * 
+	 * @param element
+	 *            the element.
+	 * @return the copy.
+	 */
+	private NLGElement copyInput(NLGElement element) {
+		if(getRealisationCache() != null) {
+			element.getFingerprint();
+		}
+		return ElementCopier.copyOnDemand(element);
+	}
+
+	/**
+	 * Realises a tree, changing it as the realisation goes.
+	 * 
+	 * @param element
+	 *            the root of the tree.
+	 * @return the realised element.
+	 */
+	private NLGElement realiseTree(NLGElement element) {
 
 		StringBuilder debug = new StringBuilder();
 		//this.debug = true;
@@ -207,8 +324,10 @@ public class Realiser extends NLGModule {
 			realised = realise(element);
 		else {
 			DocumentElement sentence = new DocumentElement(DocumentCategory.SENTENCE, null);
-			sentence.addComponent(element);
-			realised = realise(sentence);
+			// the sentence becomes the parent of what it holds, so it is
+			// given a copy of the element if the element is to be unchanged
+			sentence.addComponent(element != null && mustCopy(element) ? copyInput(element) : element);
+			realised = realiseTree(sentence);
 		}
 
 		if(realised == null)
@@ -234,6 +353,7 @@ public class Realiser extends NLGModule {
 		this.syntax.setLexicon(newLexicon);
 		this.morphology.setLexicon(newLexicon);
 		this.orthography.setLexicon(newLexicon);
+		clearRealisationCache();
 	}
 
 	public void setFormatter(NLGModule formatter) {
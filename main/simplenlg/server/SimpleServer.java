@@ -34,6 +34,7 @@ import java.util.Properties;
 
 import simplenlg.xmlrealiser.XMLRealiser;
 import simplenlg.xmlrealiser.XMLRealiser.LexiconType;
+import simplenlg.xmlrealiser.XMLRealiserException;
 
 /**
  * SimpleServer is a program that realises xml requests.
@@ -126,7 +127,11 @@ public class SimpleServer implements Runnable {
         System.out.println("Server is using the following lexicon: "
                            + lexiconPath);
         
-        XMLRealiser.setLexicon(LexiconType.NIHDB, this.lexiconPath);
+        try {
+            XMLRealiser.setLexicon(LexiconType.NIHDB, this.lexiconPath);
+        } catch (XMLRealiserException e) {
+            throw new IOException(e.getMessage());
+        }
 	}
 
     static void print(Object o) {
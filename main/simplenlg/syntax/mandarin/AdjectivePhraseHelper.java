@@ -19,7 +19,7 @@ abstract class AdjectivePhraseHelper {
         ListElement realisedElement = null;
 
         if (phrase != null
-                && !phrase.getFeatureAsBoolean(Feature.ELIDED)) {
+                && !phrase.getBooleanFeature(Feature.ELIDED)) {
             realisedElement = new ListElement();
 
             realiseSpecifier(phrase, parent, realisedElement);
@@ -31,7 +31,7 @@ abstract class AdjectivePhraseHelper {
 
     private static void realiseSpecifier(PhraseElement phrase,
                                          SyntaxProcessor parent, ListElement realisedElement) {
-        List<NLGElement> preModifiers = phrase.getPreModifiers();
+        List<NLGElement> preModifiers = phrase.getPreModifierList();
         preModifiers = sortAdjPPreModifiers(preModifiers);
         PhraseHelper.realiseList(parent, realisedElement, preModifiers,
                 DiscourseFunction.PRE_MODIFIER);
@@ -65,7 +65,7 @@ abstract class ClauseHelper {
 
 		if(phrase != null) {
 			realisedElement = new ListElement();
-			NLGElement verbElement = phrase.getFeatureAsElement(InternalFeature.VERB_PHRASE);
+			NLGElement verbElement = phrase.getVerbPhraseElement();
 
 			if(verbElement == null) {
 				verbElement = phrase.getHead();
@@ -84,7 +84,7 @@ abstract class ClauseHelper {
 			} else {
 				PhraseHelper.realiseList(parent,
 				                         realisedElement,
-				                         phrase.getFeatureAsElementList(InternalFeature.FRONT_MODIFIERS),
+				                         phrase.getFrontModifierList(),
 				                         DiscourseFunction.FRONT_MODIFIER);
 			}
 
@@ -157,7 +157,7 @@ abstract class ClauseHelper {
 	                                                   ListElement realisedElement) {
 		NLGElement currentElement = null;
 		if(phrase.hasFeature(Feature.INTERROGATIVE_TYPE)) {
-			for(NLGElement subject : phrase.getFeatureAsElementList(InternalFeature.FRONT_MODIFIERS)) {
+			for(NLGElement subject : phrase.getFrontModifierList()) {
 				currentElement = parent.realise(subject);
 				if(currentElement != null) {
 					currentElement.setFeature(InternalFeature.DISCOURSE_FUNCTION, DiscourseFunction.FRONT_MODIFIER);
@@ -189,15 +189,15 @@ abstract class ClauseHelper {
 	    NLGElement currentElement = null;
         String modal = phrase.getFeatureAsString(Feature.MODAL);
 
-		if(phrase.getFeatureAsBoolean(Feature.PASSIVE)) {
-			List<NLGElement> allSubjects = phrase.getFeatureAsElementList(InternalFeature.SUBJECTS);
+		if(phrase.getBooleanFeature(Feature.PASSIVE)) {
+			List<NLGElement> allSubjects = phrase.getSubjectList();
 
-			if (modal != null && !phrase.getFeatureAsBoolean(InternalFeature.IGNORE_MODAL)) {
+			if (modal != null && !phrase.getBooleanFeature(InternalFeature.IGNORE_MODAL)) {
                 realisedElement.addComponent((new InflectedWordElement(modal,
                         LexicalCategory.MODAL)));
             }
 
-            if (phrase.getFeatureAsBoolean(Feature.NEGATED)) {
+            if (phrase.getBooleanFeature(Feature.NEGATED)) {
                 String negWord = phrase.getFeatureAsString(Feature.NEGATIVE_WORD);
                 realisedElement.addComponent(parent.realise(new InflectedWordElement(
                         negWord, LexicalCategory.ADVERB)));
@@ -296,25 +296,25 @@ abstract class ClauseHelper {
 		Object passivePerson = null;
 		NLGElement currentElement = null;
 		NLGElement splitVerb = null;
-		NLGElement verbPhrase = phrase.getFeatureAsElement(InternalFeature.VERB_PHRASE);
+		NLGElement verbPhrase = phrase.getVerbPhraseElement();
         String modal = phrase.getFeatureAsString(Feature.MODAL);
 		// count complements to set plural feature if more than one
 		int numComps = 0;
 		boolean coordSubj = false;
 
-        if(phrase.getFeatureAsBoolean(Feature.BA) && verbPhrase != null
+        if(phrase.getBooleanFeature(Feature.BA) && verbPhrase != null
                 && !InterrogativeType.WHAT_OBJECT.equals(phrase.getFeature(Feature.INTERROGATIVE_TYPE))) {
             for (NLGElement subject : verbPhrase.getFeatureAsElementList(InternalFeature.COMPLEMENTS)) {
                 if (DiscourseFunction.OBJECT.equals(subject.getFeature(InternalFeature.DISCOURSE_FUNCTION))) {
                     currentElement = parent.realise(subject);
                     if(currentElement != null) {
                         currentElement.setFeature(InternalFeature.DISCOURSE_FUNCTION, DiscourseFunction.OBJECT);
-                        if (modal != null && !phrase.getFeatureAsBoolean(InternalFeature.IGNORE_MODAL)) {
+                        if (modal != null && !phrase.getBooleanFeature(InternalFeature.IGNORE_MODAL)) {
                             realisedElement.addComponent((new InflectedWordElement(modal,
                                     LexicalCategory.MODAL)));
                         }
 
-                        if (phrase.getFeatureAsBoolean(Feature.NEGATED)) {
+                        if (phrase.getBooleanFeature(Feature.NEGATED)) {
                             String negWord = phrase.getFeatureAsString(Feature.NEGATIVE_WORD);
                             realisedElement.addComponent(parent.realise(new InflectedWordElement(
                                     negWord, LexicalCategory.ADVERB)));
@@ -327,7 +327,7 @@ abstract class ClauseHelper {
             }
         }
 
-		if(phrase.getFeatureAsBoolean(Feature.PASSIVE) && verbPhrase != null
+		if(phrase.getBooleanFeature(Feature.PASSIVE) && verbPhrase != null
 		   && !InterrogativeType.WHAT_OBJECT.equals(phrase.getFeature(Feature.INTERROGATIVE_TYPE))) {
 
 			// complements of a clause are stored in the VPPhraseSpec
@@ -366,7 +366,7 @@ abstract class ClauseHelper {
 					}
 
 					if(Form.GERUND.equals(phrase.getFeature(Feature.FORM))
-					   && !phrase.getFeatureAsBoolean(Feature.SUPPRESS_GENITIVE_IN_GERUND)) {
+					   && !phrase.getBooleanFeature(Feature.SUPPRESS_GENITIVE_IN_GERUND)) {
 						subject.setFeature(Feature.POSSESSIVE, true);
 					}
 				}
@@ -408,7 +408,7 @@ abstract class ClauseHelper {
 	                                       NLGElement splitVerb) {
 		if(!Form.INFINITIVE.equals(phrase.getFeature(Feature.FORM))
 		   && !Form.IMPERATIVE.equals(phrase.getFeature(Feature.FORM))
-		   && !phrase.getFeatureAsBoolean(Feature.PASSIVE) && splitVerb == null) {
+		   && !phrase.getBooleanFeature(Feature.PASSIVE) && splitVerb == null) {
 			realisedElement.addComponents(realiseSubjects(phrase, parent).getChildren());
 		}
 	}
@@ -427,11 +427,11 @@ abstract class ClauseHelper {
 		NLGElement currentElement = null;
 		ListElement realisedElement = new ListElement();
 
-		for(NLGElement subject : phrase.getFeatureAsElementList(InternalFeature.SUBJECTS)) {
+		for(NLGElement subject : phrase.getSubjectList()) {
 
 			subject.setFeature(InternalFeature.DISCOURSE_FUNCTION, DiscourseFunction.SUBJECT);
 			if(Form.GERUND.equals(phrase.getFeature(Feature.FORM))
-			   && !phrase.getFeatureAsBoolean(Feature.SUPPRESS_GENITIVE_IN_GERUND)) {
+			   && !phrase.getBooleanFeature(Feature.SUPPRESS_GENITIVE_IN_GERUND)) {
 				subject.setFeature(Feature.POSSESSIVE, true);
 			}
 			currentElement = parent.realise(subject);
@@ -500,13 +500,13 @@ abstract class ClauseHelper {
 				break;
 
 			case HOW :
-                NLGElement vp = ((SPhraseSpec) phrase).getFeatureAsElement(InternalFeature.VERB_PHRASE);
+                NLGElement vp = ((SPhraseSpec) phrase).getVerbPhrase();
                 ((VPPhraseSpec) vp).addPreModifier
                         (phraseFactory.createWord(((InterrogativeType) type).getString(), LexicalCategory.PRONOUN));
                 break;
 
             case HOW_PREDICATE :
-                vp = ((SPhraseSpec) phrase).getFeatureAsElement(InternalFeature.VERB_PHRASE);
+                vp = ((SPhraseSpec) phrase).getVerbPhrase();
                 ((VPPhraseSpec) vp).addPreModifier
                         (phraseFactory.createWord(((InterrogativeType) type).getString(), LexicalCategory.PRONOUN));
                 ((VPPhraseSpec) vp).setHead(null);
@@ -551,8 +551,8 @@ abstract class ClauseHelper {
 	 * correctly)
 	 */
 	private static boolean hasAuxiliary(PhraseElement phrase) {
-		return phrase.hasFeature(Feature.MODAL) || phrase.getFeatureAsBoolean(Feature.PERFECT)
-		       || phrase.getFeatureAsBoolean(Feature.PROGRESSIVE)
+		return phrase.hasFeature(Feature.MODAL) || phrase.getBooleanFeature(Feature.PERFECT)
+		       || phrase.getBooleanFeature(Feature.PROGRESSIVE)
 		       || Tense.FUTURE.equals(phrase.getFeature(Feature.TENSE));
 	}
 
@@ -657,7 +657,7 @@ abstract class ClauseHelper {
 		NLGElement currentElement;
 
 		if(ClauseStatus.SUBORDINATE.equals(phrase.getFeature(InternalFeature.CLAUSE_STATUS))
-		   && !phrase.getFeatureAsBoolean(Feature.SUPRESSED_COMPLEMENTISER)) {
+		   && !phrase.getBooleanFeature(Feature.SUPRESSED_COMPLEMENTISER)) {
 
 			currentElement = parent.realise(phrase.getFeatureAsElement(Feature.COMPLEMENTISER));
 
@@ -678,16 +678,16 @@ abstract class ClauseHelper {
 	 *            this clause.
 	 */
 	private static void copyFrontModifiers(PhraseElement phrase, NLGElement verbElement) {
-		List<NLGElement> frontModifiers = phrase.getFeatureAsElementList(InternalFeature.FRONT_MODIFIERS);
+		List<NLGElement> frontModifiers = phrase.getFrontModifierList();
 		Object clauseForm = phrase.getFeature(Feature.FORM);
 
 		// bug fix by Chris Howell (Agfa) -- do not overwrite existing post-mods
 		// in the VP
 		if(verbElement != null) {
-			List<NLGElement> phrasePostModifiers = phrase.getFeatureAsElementList(InternalFeature.POSTMODIFIERS);
+			List<NLGElement> phrasePostModifiers = phrase.getPostModifierList();
 
 			if(verbElement instanceof PhraseElement) {
-				List<NLGElement> verbPostModifiers = verbElement.getFeatureAsElementList(InternalFeature.POSTMODIFIERS);
+				List<NLGElement> verbPostModifiers = ((PhraseElement) verbElement).getPostModifierList();
 
 				for(NLGElement eachModifier : phrasePostModifiers) {
 
@@ -743,7 +743,7 @@ abstract class ClauseHelper {
 	 *            the <code>PhraseElement</code> representing this clause.
 	 */
 	private static void checkDiscourseFunction(PhraseElement phrase) {
-		List<NLGElement> subjects = phrase.getFeatureAsElementList(InternalFeature.SUBJECTS);
+		List<NLGElement> subjects = phrase.getSubjectList();
 		Object clauseForm = phrase.getFeature(Feature.FORM);
 		Object discourseValue = phrase.getFeature(InternalFeature.DISCOURSE_FUNCTION);
 
@@ -774,7 +774,7 @@ abstract class ClauseHelper {
 	 */
 	private static void checkSubjectNumberPerson(PhraseElement phrase, NLGElement verbElement) {
 		NLGElement currentElement = null;
-		List<NLGElement> subjects = phrase.getFeatureAsElementList(InternalFeature.SUBJECTS);
+		List<NLGElement> subjects = phrase.getSubjectList();
 		boolean pluralSubjects = false;
 		Person person = null;
 
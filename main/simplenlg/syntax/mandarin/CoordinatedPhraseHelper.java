@@ -75,7 +75,7 @@ abstract class CoordinatedPhraseHelper {
 
 			if (children != null && children.size() > 0) {
 				
-				if (phrase.getFeatureAsBoolean(Feature.RAISE_SPECIFIER)) {
+				if (phrase.getBooleanFeature(Feature.RAISE_SPECIFIER)) {
 					raiseSpecifier(children);
 				}
 
@@ -88,14 +88,14 @@ abstract class CoordinatedPhraseHelper {
 				setChildFeatures(phrase, child);
 
                 NLGElement realisedChild = parent.realise(child);
-                if (child.getFeatureAsBoolean(Feature.TOPIC)) {
+                if (child.getBooleanFeature(Feature.TOPIC)) {
                     realisedChild.setFeature(Feature.TOPIC, true);
                 }
 				coordinated.addCoordinate(realisedChild);
 				for (int index = 1; index < children.size(); index++) {
 					child = children.get(index);
 					setChildFeatures(phrase, child);
-					if (phrase.getFeatureAsBoolean(Feature.AGGREGATE_AUXILIARY)) {
+					if (phrase.getBooleanFeature(Feature.AGGREGATE_AUXILIARY)) {
 						child.setFeature(InternalFeature.REALISE_AUXILIARY,
 								false);
 					}
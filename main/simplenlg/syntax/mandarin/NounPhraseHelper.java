@@ -68,10 +68,10 @@ abstract class NounPhraseHelper {
 		ListElement realisedElement = null;
 
 		if (phrase != null
-				&& !phrase.getFeatureAsBoolean(Feature.ELIDED)) {
+				&& !phrase.getBooleanFeature(Feature.ELIDED)) {
 			realisedElement = new ListElement();
 
-			if (phrase.getFeatureAsBoolean(Feature.PRONOMINAL)) {
+			if (phrase.getBooleanFeature(Feature.PRONOMINAL)) {
 				realisedElement.addComponent(createPronoun(parent, phrase));
 			} else {
 				realiseSpecifier(phrase, parent, realisedElement);
@@ -137,8 +137,8 @@ abstract class NounPhraseHelper {
 	private static void realisePreModifiers(PhraseElement phrase,
 			SyntaxProcessor parent, ListElement realisedElement) {
 
-		List<NLGElement> preModifiers = phrase.getPreModifiers();
-		if (phrase.getFeatureAsBoolean(Feature.ADJECTIVE_ORDERING)) {
+		List<NLGElement> preModifiers = phrase.getPreModifierList();
+		if (phrase.getBooleanFeature(Feature.ADJECTIVE_ORDERING)) {
 			preModifiers = sortNPPreModifiers(preModifiers);
 		}
 
@@ -151,8 +151,8 @@ abstract class NounPhraseHelper {
         List<NLGElement> processedList = new ArrayList<NLGElement>();
         for (NLGElement eachElement: preModifiers) {
             processedList.add(eachElement);
-            if (eachElement.getFeatureAsBoolean(Feature.ASSOCIATIVE)
-                    && !eachElement.getFeatureAsBoolean(LexicalFeature.NO_DE)) {
+            if (eachElement.getBooleanFeature(Feature.ASSOCIATIVE)
+                    && !eachElement.getBooleanFeature(LexicalFeature.NO_DE)) {
                 processedList.add(new StringElement("的"));
             }
         }
@@ -161,14 +161,14 @@ abstract class NounPhraseHelper {
 
     private static void realisePostModifiers(PhraseElement phrase,
                                              SyntaxProcessor parent, ListElement realisedElement) {
-	    List<NLGElement> postModifiers = phrase.getPostModifiers();
+	    List<NLGElement> postModifiers = phrase.getPostModifierList();
 	    postModifiers = realisePreParticle(postModifiers);
         PhraseHelper.realiseList(parent, realisedElement, postModifiers, DiscourseFunction.POST_MODIFIER);
     }
 
     private static void realiseComplements(PhraseElement phrase,
                                              SyntaxProcessor parent, ListElement realisedElement) {
-        List<NLGElement> complements = phrase.getFeatureAsElementList(InternalFeature.COMPLEMENTS);
+        List<NLGElement> complements = phrase.getComplementList();
         complements = realisePreParticle(complements);
         PhraseHelper.realiseList(parent, realisedElement, complements, DiscourseFunction.COMPLEMENT);
     }
@@ -176,8 +176,8 @@ abstract class NounPhraseHelper {
     private static List<NLGElement> realisePreParticle(List<NLGElement> elements) {
         List<NLGElement> processedList = new ArrayList<NLGElement>();
         for (NLGElement eachElement: elements) {
-            if (eachElement.getFeatureAsBoolean(Feature.PREASSOCIATIVE)
-                    && !eachElement.getFeatureAsBoolean(LexicalFeature.NO_DE)) {
+            if (eachElement.getBooleanFeature(Feature.PREASSOCIATIVE)
+                    && !eachElement.getBooleanFeature(LexicalFeature.NO_DE)) {
                 processedList.add(new StringElement("的"));
             }
             processedList.add(eachElement);
@@ -199,10 +199,10 @@ abstract class NounPhraseHelper {
 	private static void realiseSpecifier(PhraseElement phrase,
 			SyntaxProcessor parent, ListElement realisedElement) {
 		List<NLGElement> specifiers = phrase
-				.getFeatureAsElementList(InternalFeature.SPECIFIERS);
-		if (specifiers != null && !phrase.getFeatureAsBoolean(InternalFeature.RAISED)
-				&& ! phrase.getFeatureAsBoolean(Feature.ELIDED)) {
-			if (phrase.getFeatureAsBoolean(Feature.SPECIFIER_ORDERING)) {
+				.getSpecifierList();
+		if (specifiers != null && !phrase.getBooleanFeature(InternalFeature.RAISED)
+				&& ! phrase.getBooleanFeature(Feature.ELIDED)) {
+			if (phrase.getBooleanFeature(Feature.SPECIFIER_ORDERING)) {
 				specifiers = sortNPSpecifiers(specifiers, phrase);
 			}
 			PhraseHelper.realiseList(parent, realisedElement, specifiers, DiscourseFunction.SPECIFIER);
@@ -225,7 +225,7 @@ abstract class NounPhraseHelper {
 	        orderedSpecifiers = new ArrayList<NLGElement>();
 	        Map<ElementCategory, NLGElement> specMap = new HashMap<ElementCategory, NLGElement>();
 	        for (NLGElement specifier: originalSpecifiers) {
-	            if (specifier.getFeatureAsBoolean(LexicalFeature.PROPER)) {
+	            if (specifier.getBooleanFeature(LexicalFeature.PROPER)) {
 	                properName = specifier;
                 } else {
                     specMap.put(specifier.getCategory(), specifier);
@@ -236,7 +236,7 @@ abstract class NounPhraseHelper {
 
 
             if (specMap.containsKey(PhraseCategory.NOUN_PHRASE)
-                    && specMap.get(PhraseCategory.NOUN_PHRASE).getFeatureAsBoolean(Feature.POSSESSIVE)) {
+                    && specMap.get(PhraseCategory.NOUN_PHRASE).getBooleanFeature(Feature.POSSESSIVE)) {
                 orderedSpecifiers.add(specMap.get(PhraseCategory.NOUN_PHRASE));
             } else if (specMap.containsKey(LexicalCategory.PRONOUN)
                     && ((WordElement) specMap.get(LexicalCategory.PRONOUN)).getBaseForm().equals("多少")) {
@@ -281,7 +281,7 @@ abstract class NounPhraseHelper {
 
             if (orderedSpecifiers.size() == 0 &&
                     (DiscourseFunction.SUBJECT.equals(phraseElement.getFeature(InternalFeature.DISCOURSE_FUNCTION))
-                    || phraseElement.getFeatureAsBoolean(Feature.TOPIC))) {
+                    || phraseElement.getBooleanFeature(Feature.TOPIC))) {
 	            if (specMap.containsKey(LexicalCategory.CLASSIFIER)) {
 	                specMap.get(LexicalCategory.CLASSIFIER).setFeature(Feature.ELIDED, true);
 	                orderedSpecifiers.add(specMap.get(LexicalCategory.CLASSIFIER));
@@ -303,7 +303,7 @@ abstract class NounPhraseHelper {
             }
 
             if (specMap.containsKey(LexicalCategory.NOUN)
-                    && specMap.get(LexicalCategory.NOUN).getFeatureAsBoolean(Feature.POSSESSIVE)) {
+                    && specMap.get(LexicalCategory.NOUN).getBooleanFeature(Feature.POSSESSIVE)) {
                 orderedSpecifiers.add(specMap.get(LexicalCategory.NOUN));
             }
 
@@ -369,19 +369,19 @@ abstract class NounPhraseHelper {
             position = VERB_POSITION;
         } else if (modifier.isA(LexicalCategory.ADJECTIVE)
                 || modifier.isA(PhraseCategory.ADJECTIVE_PHRASE)) {
-		    if (!modifier.getFeatureAsBoolean(LexicalFeature.NO_DE)
-                    && !modifier.getFeatureAsBoolean(LexicalFeature.NONPREDICATE)) {
+		    if (!modifier.getBooleanFeature(LexicalFeature.NO_DE)
+                    && !modifier.getBooleanFeature(LexicalFeature.NONPREDICATE)) {
 		        position = ADJECTIVE_POSITION_DE;
-            } else if (!modifier.getFeatureAsBoolean(LexicalFeature.NONPREDICATE)) {
+            } else if (!modifier.getBooleanFeature(LexicalFeature.NONPREDICATE)) {
                 position = ADJECTIVE_POSITION;
             } else {
 		        position = NONPREDICATE_POSITION;
             }
         } else if (modifier.isA(LexicalCategory.NOUN)
-				|| (modifier.isA(PhraseCategory.NOUN_PHRASE) && !modifier.getFeatureAsBoolean(InternalFeature.LOCATIVE))) {
+				|| (modifier.isA(PhraseCategory.NOUN_PHRASE) && !modifier.getBooleanFeature(InternalFeature.LOCATIVE))) {
 			position = NOUN_POSITION;
 
-			if (modifier.getFeatureAsBoolean(Feature.ASSOCIATIVE)) {
+			if (modifier.getBooleanFeature(Feature.ASSOCIATIVE)) {
 			    position = NOUN_ASSOCIATION_POSITION;
             }
 		}
@@ -399,16 +399,16 @@ abstract class NounPhraseHelper {
 		int position = NOUN_POSITION;
 
 		if ((modifier.isA(LexicalCategory.NOUN) || modifier.isA(PhraseCategory.NOUN_PHRASE))
-                && modifier.getFeatureAsBoolean(Feature.ASSOCIATIVE)) {
+                && modifier.getBooleanFeature(Feature.ASSOCIATIVE)) {
             position = NOUN_ASSOCIATION_POSITION;
         }
 
 		if (modifier.isA(LexicalCategory.ADJECTIVE)
                 || modifier.isA(PhraseCategory.ADJECTIVE_PHRASE)) {
-		    if (modifier.getFeatureAsBoolean(LexicalFeature.NONPREDICATE)) {
+		    if (modifier.getBooleanFeature(LexicalFeature.NONPREDICATE)) {
 		        position = NONPREDICATE_POSITION;
-            } else if (modifier.getFeatureAsBoolean(LexicalFeature.NO_DE)
-                    || !modifier.getFeatureAsBoolean(Feature.ASSOCIATIVE)) {
+            } else if (modifier.getBooleanFeature(LexicalFeature.NO_DE)
+                    || !modifier.getBooleanFeature(Feature.ASSOCIATIVE)) {
                 position = ADJECTIVE_POSITION;
             } else {
                 position = ADJECTIVE_POSITION_DE;
@@ -416,7 +416,7 @@ abstract class NounPhraseHelper {
         } else if (modifier.isA(LexicalCategory.VERB)
                 || modifier.isA(PhraseCategory.VERB_PHRASE) || modifier.isA(PhraseCategory.CLAUSE)) {
             position = VERB_POSITION;
-        } else if (modifier.isA(PhraseCategory.NOUN_PHRASE) && modifier.getFeatureAsBoolean(InternalFeature.LOCATIVE)) {
+        } else if (modifier.isA(PhraseCategory.NOUN_PHRASE) && modifier.getBooleanFeature(InternalFeature.LOCATIVE)) {
             position = LOCALISER_POSITION;
         }
 
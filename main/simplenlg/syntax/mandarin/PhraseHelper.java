@@ -52,14 +52,14 @@ abstract class PhraseHelper {
 		if (phrase != null) {
 			realisedElement = new ListElement();
 
-			realiseList(parent, realisedElement, phrase.getPreModifiers(),
+			realiseList(parent, realisedElement, phrase.getPreModifierList(),
 					DiscourseFunction.PRE_MODIFIER);
 
 			realiseHead(parent, phrase, realisedElement);
 			realiseComplements(parent, phrase, realisedElement);
 
 			PhraseHelper.realiseList(parent, realisedElement, phrase
-					.getPostModifiers(), DiscourseFunction.POST_MODIFIER);
+					.getPostModifierList(), DiscourseFunction.POST_MODIFIER);
 		}
 		
 		return realisedElement;
@@ -84,7 +84,7 @@ abstract class PhraseHelper {
 		NLGElement currentElement = null;
 
 		for (NLGElement complement : phrase
-				.getFeatureAsElementList(InternalFeature.COMPLEMENTS)) {
+				.getComplementList()) {
 			currentElement = parent.realise(complement);
 			if (currentElement != null) {
 				currentElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
@@ -167,7 +167,7 @@ abstract class PhraseHelper {
 				currentElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
 						function);
 
-				if (eachElement.getFeatureAsBoolean(Feature.APPOSITIVE)) {
+				if (eachElement.getBooleanFeature(Feature.APPOSITIVE)) {
 					currentElement.setFeature(Feature.APPOSITIVE, true);
 				}
 
@@ -190,15 +190,15 @@ abstract class PhraseHelper {
 	 */
 	public static boolean isExpletiveSubject(PhraseElement phrase) {
 		List<NLGElement> subjects = phrase
-				.getFeatureAsElementList(InternalFeature.SUBJECTS);
+				.getSubjectList();
 		boolean expletive = false;
 
 		if (subjects.size() == 1) {
 			NLGElement subjectNP = subjects.get(0);
 
 			if (subjectNP.isA(PhraseCategory.NOUN_PHRASE)) {
-				expletive = subjectNP.getFeatureAsBoolean(
-						LexicalFeature.EXPLETIVE_SUBJECT).booleanValue();
+				expletive = subjectNP.getBooleanFeature(
+						LexicalFeature.EXPLETIVE_SUBJECT);
 			} else if (subjectNP.isA(PhraseCategory.CANNED_TEXT)) {
 				expletive = "there".equalsIgnoreCase(subjectNP.getRealisation()); //$NON-NLS-1$
 			}
@@ -0,0 +1,236 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.syntax.mandarin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import simplenlg.framework.NLGElement;
+
+/**
+ * <p>
+ * This class remembers the realisations of phrases, so that a phrase which
+ * appears again and again, such as <em>一 个 人</em> or <em>那 把 椅子</em>,
+ * only goes through the syntax, morphology and orthography processors once.
+ * It is given to the realiser with
+ * <code>Realiser.setRealisationCache</code>.
+ * </p>
+ * 
+ * <p>
+ * Only noun, prepositional, adjective and adverb phrases which hold no
+ * clauses or verb phrases are remembered, as the realisation of these depends
+ * on nothing outside them. A phrase is looked up by its fingerprint (see
+ * <code>NLGElement.getFingerprint()</code>), its discourse function and
+ * whether it is a topic, and the realisation remembered is the text the
+ * phrase would have had in the sentence. A frozen copy of each phrase is
+ * kept with its realisation, and a realisation is only used for a phrase
+ * equal to it, so phrases whose fingerprints happen to be equal are not
+ * confused.
+ * </p>
+ * 
+ * <p>
+ * The cache holds at most a given number of realisations; when it is full,
+ * the least recently used one is dropped. Hit, miss and eviction counts are
+ * kept to help choose the size. A cache may be used by several threads at
+ * once, but should only be shared by realisers with the same lexicon and
+ * settings.
+ * </p>
+ */
+public class RealisationCache {
+
+	/** default maximum number of remembered realisations */
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	private final int capacity;
+
+	/* the realisations, in least recently used order */
+	private final Map<Key, Entry> realisations;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Creates a cache with the default capacity.
+	 */
+	public RealisationCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a cache.
+	 * 
+	 * @param capacity
+	 *            the maximum number of realisations to remember.
+	 */
+	public RealisationCache(int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Cache capacity must be positive");
+		this.capacity = capacity;
+		this.realisations = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				if (size() <= RealisationCache.this.capacity)
+					return false;
+				RealisationCache.this.evictions.incrementAndGet();
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * @return the maximum number of realisations remembered.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return the number of phrases whose realisation was remembered.
+	 */
+	public long getHitCount() {
+		return this.hits.get();
+	}
+
+	/**
+	 * @return the number of phrases which had to be realised.
+	 */
+	public long getMissCount() {
+		return this.misses.get();
+	}
+
+	/**
+	 * @return the number of realisations dropped because the cache was full.
+	 */
+	public long getEvictionCount() {
+		return this.evictions.get();
+	}
+
+	/**
+	 * @return the proportion of lookups which found a realisation, or 0 if
+	 *         there have been none.
+	 */
+	public double getHitRate() {
+		long hitCount = this.hits.get();
+		long total = hitCount + this.misses.get();
+		return total == 0 ? 0.0 : (double) hitCount / total;
+	}
+
+	/**
+	 * @return the number of realisations remembered.
+	 */
+	public synchronized int getSize() {
+		return this.realisations.size();
+	}
+
+	/**
+	 * Forgets all the realisations (the counts are kept).
+	 */
+	public synchronized void clear() {
+		this.realisations.clear();
+	}
+
+	/**
+	 * @param key
+	 *            the key of a phrase.
+	 * @param phrase
+	 *            the phrase, which has not been realised.
+	 * @return the realisation of the phrase, or <code>null</code> if it is
+	 *         not remembered.
+	 */
+	String get(Key key, NLGElement phrase) {
+		Entry entry;
+		synchronized (this) {
+			entry = this.realisations.get(key);
+		}
+		// the phrases are compared outside the lock, as the remembered one
+		// is frozen
+		if (entry == null || !entry.phrase.equals(phrase)) {
+			this.misses.incrementAndGet();
+			return null;
+		}
+		this.hits.incrementAndGet();
+		return entry.realisation;
+	}
+
+	/**
+	 * @param key
+	 *            the key of a phrase.
+	 * @param phrase
+	 *            a frozen copy of the phrase, made before it was realised.
+	 * @param realisation
+	 *            the realisation of the phrase.
+	 */
+	synchronized void put(Key key, NLGElement phrase, String realisation) {
+		this.realisations.put(key, new Entry(phrase, realisation));
+	}
+
+	/**
+	 * A remembered realisation and the phrase it was made from.
+	 */
+	private static final class Entry {
+		final NLGElement phrase;
+		final String realisation;
+
+		Entry(NLGElement phrase, String realisation) {
+			this.phrase = phrase;
+			this.realisation = realisation;
+		}
+	}
+
+	/**
+	 * The key of a remembered realisation: the fingerprint of the phrase, its
+	 * discourse function and whether it is a topic.
+	 */
+	static final class Key {
+		private final long fingerprint;
+		private final Object function;
+		private final boolean topic;
+
+		Key(long fingerprint, Object function, boolean topic) {
+			this.fingerprint = fingerprint;
+			this.function = function;
+			this.topic = topic;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = (int) (this.fingerprint ^ (this.fingerprint >>> 32));
+			// use the name rather than the enum's identity hash code
+			hash = 31 * hash
+					+ (this.function == null ? 0 : this.function.toString()
+							.hashCode());
+			return this.topic ? ~hash : hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return this.fingerprint == other.fingerprint
+					&& this.topic == other.topic
+					&& (this.function == null ? other.function == null
+							: this.function.equals(other.function));
+		}
+	}
+}
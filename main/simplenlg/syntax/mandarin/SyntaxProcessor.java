@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import simplenlg.features.Feature;
+import simplenlg.features.InternalFeature;
 import simplenlg.framework.CoordinatedPhraseElement;
 import simplenlg.framework.DocumentElement;
 import simplenlg.framework.ElementCategory;
@@ -29,9 +30,11 @@ import simplenlg.framework.InflectedWordElement;
 import simplenlg.framework.LexicalCategory;
 import simplenlg.framework.ListElement;
 import simplenlg.framework.NLGElement;
+import simplenlg.framework.NLGElementVisitor;
 import simplenlg.framework.NLGModule;
 import simplenlg.framework.PhraseCategory;
 import simplenlg.framework.PhraseElement;
+import simplenlg.framework.StringElement;
 import simplenlg.framework.WordElement;
 
 /**
@@ -59,17 +62,55 @@ import simplenlg.framework.WordElement;
  */
 public class SyntaxProcessor extends NLGModule {
 
+	/* the remembered realisations of phrases, or null if there are none */
+	private RealisationCache cache = null;
+
+	/* the processors which finish the realisation of a remembered phrase */
+	private NLGModule morphology = null;
+	private NLGModule orthography = null;
+
 	@Override
 	public void initialise() {
 		// Do nothing
 	}
 
+	/**
+	 * Sets the cache in which the realisations of phrases are remembered. A
+	 * phrase which can be remembered is realised by this processor and then
+	 * by the given morphology and orthography processors, and is replaced by
+	 * a string element holding the text, so that a phrase found in the cache
+	 * is not processed again. See {@link RealisationCache}.
+	 * 
+	 * @param cache
+	 *            the cache, or <code>null</code> if realisations are not to be
+	 *            remembered.
+	 * @param morphology
+	 *            the morphology processor used after this one.
+	 * @param orthography
+	 *            the orthography processor used after the morphology
+	 *            processor.
+	 */
+	public void setRealisationCache(RealisationCache cache,
+			NLGModule morphology, NLGModule orthography) {
+		this.cache = cache;
+		this.morphology = morphology;
+		this.orthography = orthography;
+	}
+
+	/**
+	 * @return the cache in which the realisations of phrases are remembered,
+	 *         or <code>null</code> if there is none.
+	 */
+	public RealisationCache getRealisationCache() {
+		return this.cache;
+	}
+
 	@Override
 	public NLGElement realise(NLGElement element) {
 		NLGElement realisedElement = null;
 
 		if (element != null
-				&& !element.getFeatureAsBoolean(Feature.ELIDED).booleanValue()) {
+				&& !element.getBooleanFeature(Feature.ELIDED)) {
 
 			if (element instanceof DocumentElement) {
 				List<NLGElement> children = element.getChildren();
@@ -77,12 +118,16 @@ public class SyntaxProcessor extends NLGModule {
 				realisedElement = element;
 
 			} else if (element instanceof PhraseElement) {
-				realisedElement = realisePhraseElement((PhraseElement) element);
+				if (this.cache != null && isCacheable(element)) {
+					realisedElement = realiseCachedPhrase((PhraseElement) element);
+				} else {
+					realisedElement = realisePhraseElement((PhraseElement) element);
+				}
 
 			} else if (element instanceof ListElement) {
 				realisedElement = new ListElement();
 				((ListElement) realisedElement).addComponents(realise(element
-						.getChildren()));
+						.getFeatureAsElementListView(InternalFeature.COMPONENTS)));
 
 			} else if (element instanceof InflectedWordElement) {
 				String baseForm = ((InflectedWordElement) element)
@@ -153,9 +198,10 @@ public class SyntaxProcessor extends NLGModule {
 					childRealisation = realise(eachElement);
 					if (childRealisation != null) {
 						if (childRealisation instanceof ListElement) {
-							realisedList
-									.addAll(((ListElement) childRealisation)
-											.getChildren());
+							int count = childRealisation.getChildCount();
+							for (int i = 0; i < count; i++) {
+								realisedList.add(childRealisation.getChild(i));
+							}
 						} else {
 							realisedList.add(childRealisation);
 						}
@@ -166,6 +212,84 @@ public class SyntaxProcessor extends NLGModule {
 		return realisedList;
 	}
 
+	/**
+	 * Checks whether the realisation of a phrase can be remembered: it must
+	 * be a noun, prepositional, adjective or adverb phrase with no clause or
+	 * verb phrase in it, as these may read or change elements outside the
+	 * phrase when they are realised.
+	 * 
+	 * @param phrase
+	 *            the phrase.
+	 * @return <code>true</code> if the realisation can be remembered.
+	 */
+	private static boolean isCacheable(NLGElement phrase) {
+		ElementCategory category = phrase.getCategory();
+		if (category != PhraseCategory.NOUN_PHRASE
+				&& category != PhraseCategory.PREPOSITIONAL_PHRASE
+				&& category != PhraseCategory.ADJECTIVE_PHRASE
+				&& category != PhraseCategory.ADVERB_PHRASE) {
+			return false;
+		}
+
+		final boolean[] selfContained = { true };
+		phrase.accept(new NLGElementVisitor() {
+			public boolean enter(NLGElement element) {
+				if (element.isA(PhraseCategory.CLAUSE)
+						|| element.isA(PhraseCategory.VERB_PHRASE)
+						|| element instanceof DocumentElement) {
+					selfContained[0] = false;
+				}
+				return selfContained[0];
+			}
+
+			public void leave(NLGElement element) {
+				// nothing to do
+			}
+		});
+		return selfContained[0];
+	}
+
+	/**
+	 * Realises a phrase whose realisation can be remembered. If it is not in
+	 * the cache, it is realised as any other phrase and then passed through
+	 * the morphology and orthography processors, which give the same text as
+	 * they would to the phrase in place.
+	 * 
+	 * @param phrase
+	 *            the phrase.
+	 * @return a string element holding the realisation, or <code>null</code>
+	 *         if the phrase has none.
+	 */
+	private NLGElement realiseCachedPhrase(PhraseElement phrase) {
+		// the key is made before the phrase is realised, as realisation
+		// changes its features
+		RealisationCache.Key key = new RealisationCache.Key(phrase
+				.getFingerprint(), phrase
+				.getFeature(InternalFeature.DISCOURSE_FUNCTION), phrase
+				.getBooleanFeature(Feature.TOPIC));
+		String realisation = this.cache.get(key, phrase);
+
+		if (realisation == null) {
+			NLGElement original = phrase.freeze();
+			NLGElement realisedElement = realisePhraseElement(phrase);
+			if (realisedElement == null) {
+				return null;
+			}
+			if (this.morphology != null) {
+				realisedElement = this.morphology.realise(realisedElement);
+			}
+			if (realisedElement != null && this.orthography != null) {
+				realisedElement = this.orthography.realise(realisedElement);
+			}
+			if (realisedElement == null) {
+				return null;
+			}
+			realisation = realisedElement.getRealisation();
+			this.cache.put(key, original, realisation);
+		}
+		return new StringElement(realisation);
+	}
+
 	/**
 	 * Realises a phrase element.
 	 * 
@@ -75,7 +75,7 @@ abstract class VerbPhraseHelper {
 			realisedElement = new ListElement();
 
 			if (!phrase.hasFeature(InternalFeature.REALISE_AUXILIARY)
-					|| phrase.getFeatureAsBoolean(
+					|| phrase.getBooleanFeature(
 							InternalFeature.REALISE_AUXILIARY)) {
 
                 realiseAuxiliaries(parent, realisedElement,
@@ -115,7 +115,7 @@ abstract class VerbPhraseHelper {
 	private static void realisePreModifiers(PhraseElement phrase,
 											SyntaxProcessor parent, ListElement realisedElement) {
 
-		List<NLGElement> preModifiers = phrase.getPreModifiers();
+		List<NLGElement> preModifiers = phrase.getPreModifierList();
 
 		preModifiers = realisePostPredicates(preModifiers);
 		PhraseHelper.realiseList(parent, realisedElement, preModifiers,
@@ -126,8 +126,8 @@ abstract class VerbPhraseHelper {
         List<NLGElement> processedList = new ArrayList<NLGElement>();
         for (NLGElement eachElement: preModifiers) {
             processedList.add(eachElement);
-            if (eachElement.getFeatureAsBoolean(Feature.ASSOCIATIVE)
-                    && !eachElement.getFeatureAsBoolean(LexicalFeature.NO_DE)) {
+            if (eachElement.getBooleanFeature(Feature.ASSOCIATIVE)
+                    && !eachElement.getBooleanFeature(LexicalFeature.NO_DE)) {
                 processedList.add(new StringElement("地"));
             }
         }
@@ -136,7 +136,7 @@ abstract class VerbPhraseHelper {
 
     private static void realisePostModifiers(PhraseElement phrase,
                                              SyntaxProcessor parent, ListElement realisedElement) {
-        List<NLGElement> postModifiers = phrase.getPostModifiers();
+        List<NLGElement> postModifiers = phrase.getPostModifierList();
         postModifiers = realisePrePredicates(postModifiers);
         PhraseHelper.realiseList(parent, realisedElement, postModifiers, DiscourseFunction.POST_MODIFIER);
     }
@@ -144,8 +144,8 @@ abstract class VerbPhraseHelper {
     private static List<NLGElement> realisePrePredicates(List<NLGElement> elements) {
         List<NLGElement> processedList = new ArrayList<NLGElement>();
         for (NLGElement eachElement: elements) {
-            if (eachElement.getFeatureAsBoolean(Feature.PREASSOCIATIVE)
-                    && !eachElement.getFeatureAsBoolean(LexicalFeature.NO_DE)) {
+            if (eachElement.getBooleanFeature(Feature.PREASSOCIATIVE)
+                    && !eachElement.getBooleanFeature(LexicalFeature.NO_DE)) {
                 processedList.add(new StringElement("得"));
             }
             processedList.add(eachElement);
@@ -234,7 +234,7 @@ abstract class VerbPhraseHelper {
 		NLGElement currentElement = null;
 
 		for (NLGElement complement : phrase
-				.getFeatureAsElementList(InternalFeature.COMPLEMENTS)) {
+				.getComplementList()) {
 
 			discourseValue = complement
 					.getFeature(InternalFeature.DISCOURSE_FUNCTION);
@@ -254,8 +254,8 @@ abstract class VerbPhraseHelper {
 		}
 		realisedElement.addComponents(indirects.getChildren());
 
-		if (!phrase.getFeatureAsBoolean(Feature.PASSIVE)
-                && !phrase.getFeatureAsBoolean(Feature.BA)) {
+		if (!phrase.getBooleanFeature(Feature.PASSIVE)
+                && !phrase.getBooleanFeature(Feature.BA)) {
             realisedElement.addComponents(directs.getChildren());
 			realisedElement.addComponents(unknowns.getChildren());
 		}
@@ -353,7 +353,7 @@ abstract class VerbPhraseHelper {
 		checkImperativeInfinitive(formValue, frontVG);
 
 
-		if (phrase.getFeatureAsBoolean(Feature.PERFECT) || modalPast) {
+		if (phrase.getBooleanFeature(Feature.PERFECT) || modalPast) {
 			frontVG = addHave(frontVG, vgComponents, modal, tenseValue);
 		}
 
@@ -368,8 +368,8 @@ abstract class VerbPhraseHelper {
 					interrogative);
 		}
 
-        if (!phrase.getFeatureAsBoolean(Feature.PASSIVE)
-                && !phrase.getFeatureAsBoolean(Feature.BA)) {
+        if (!phrase.getBooleanFeature(Feature.PASSIVE)
+                && !phrase.getBooleanFeature(Feature.BA)) {
             pushModal(actualModal, phrase, vgComponents);
         } else {
 		    phrase.setFeature(Feature.MODAL, actualModal);
@@ -391,7 +391,7 @@ abstract class VerbPhraseHelper {
 	private static void pushModal(String actualModal, PhraseElement phrase,
 			Stack<NLGElement> vgComponents) {
 		if (actualModal != null
-				&& !phrase.getFeatureAsBoolean(InternalFeature.IGNORE_MODAL)) {
+				&& !phrase.getBooleanFeature(InternalFeature.IGNORE_MODAL)) {
 			vgComponents.push(new InflectedWordElement(actualModal,
 					LexicalCategory.MODAL));
 		}
@@ -443,7 +443,7 @@ abstract class VerbPhraseHelper {
 			frontVG.setFeature(Feature.NUMBER, numToUse);
 			
 			//don't push the front VG if it's a negated interrogative WH object question
-			if (!(phrase.getFeatureAsBoolean(Feature.NEGATED) && (InterrogativeType.WHO_OBJECT
+			if (!(phrase.getBooleanFeature(Feature.NEGATED) && (InterrogativeType.WHO_OBJECT
 					.equals(interrogType) || InterrogativeType.WHAT_OBJECT
 					.equals(interrogType)))) {
 				vgComponents.push(frontVG);
@@ -468,8 +468,8 @@ abstract class VerbPhraseHelper {
 			Stack<NLGElement> vgComponents, NLGElement frontVG, boolean hasModal) {
 		NLGElement newFront = frontVG;
 
-		if (phrase.getFeatureAsBoolean(Feature.NEGATED) || (phrase instanceof VPPhraseSpec
-                && ((VPPhraseSpec) phrase).getObject() != null && ((VPPhraseSpec) phrase).getObject().getFeatureAsBoolean(Feature.NEGATED))) {
+		if (phrase.getBooleanFeature(Feature.NEGATED) || (phrase instanceof VPPhraseSpec
+                && ((VPPhraseSpec) phrase).getObject() != null && ((VPPhraseSpec) phrase).getObject().getBooleanFeature(Feature.NEGATED))) {
 
 			String alterNegWord = phrase.getFeatureAsString(Feature.NEGATIVE_WORD);
 			if ( alterNegWord != null) {
@@ -477,8 +477,8 @@ abstract class VerbPhraseHelper {
             }
 
 			if (!vgComponents.empty()) {
-                if (!phrase.getFeatureAsBoolean(Feature.PASSIVE)
-                        && !phrase.getFeatureAsBoolean(Feature.BA)) {
+                if (!phrase.getBooleanFeature(Feature.PASSIVE)
+                        && !phrase.getBooleanFeature(Feature.BA)) {
 				    vgComponents.push(new InflectedWordElement(
                             NEGATIVE_WORD, LexicalCategory.ADVERB));
                 } else {
@@ -490,8 +490,8 @@ abstract class VerbPhraseHelper {
 					vgComponents.push(frontVG);
 				}
 
-                if (!phrase.getFeatureAsBoolean(Feature.PASSIVE)
-                        && !phrase.getFeatureAsBoolean(Feature.BA)) {
+                if (!phrase.getBooleanFeature(Feature.PASSIVE)
+                        && !phrase.getBooleanFeature(Feature.BA)) {
                     vgComponents.push(new InflectedWordElement(
                             NEGATIVE_WORD, LexicalCategory.ADVERB));
                 } else {
@@ -524,7 +524,7 @@ abstract class VerbPhraseHelper {
 
 		NLGElement newFront = frontVG;
 		if (hasModal
-				&& !phrase.getFeatureAsBoolean(InternalFeature.IGNORE_MODAL)) {
+				&& !phrase.getBooleanFeature(InternalFeature.IGNORE_MODAL)) {
 			if (frontVG != null) {
 				frontVG.setFeature(InternalFeature.NON_MORPH, true);
 				vgComponents.push(frontVG);
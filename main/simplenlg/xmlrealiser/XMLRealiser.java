@@ -10,6 +10,8 @@ import java.io.StringReader;
 import simplenlg.framework.DocumentElement;
 import simplenlg.framework.NLGElement;
 import simplenlg.lexicon.Lexicon;
+import simplenlg.lexicon.PagedLexicon;
+import simplenlg.lexicon.ReloadableLexicon;
 import simplenlg.lexicon.XMLLexicon;
 import simplenlg.realiser.mandarin.Realiser;
 
@@ -24,10 +26,13 @@ public class XMLRealiser {
 	/** The lex db. */
 	static String lexDB = null;
 
-	/** The lexicon. */
-	static Lexicon lexicon = null;
+	/** The lexicon, which can be replaced while realisations are running. */
+	static final ReloadableLexicon lexicon = new ReloadableLexicon();
 
-	/** The lexicon type. */
+	/**
+	 * The lexicon type. It is only read and written while holding the class
+	 * lock, along with the lexicon it describes.
+	 */
 	static LexiconType lexiconType = null;
 
 	/** The record. */
@@ -68,7 +73,11 @@ public class XMLRealiser {
 		DEFAULT,
 		/** The XML. */
 		XML,
-		/** The NIHDB. */
+		/**
+		 * A disk-backed lexicon, compiled by <code>LexiconCompiler -paged</code>
+		 * (see {@link PagedLexicon}). The NIH lexicon database itself is not
+		 * supported.
+		 */
 		NIHDB
 	}
 
@@ -156,31 +165,66 @@ public class XMLRealiser {
 	}
 
 	/**
-	 * Sets the lexicon.
+	 * Sets the lexicon. The new lexicon is loaded before it replaces the old
+	 * one, so realisations on other threads carry on with the old lexicon in
+	 * the meantime, and the old lexicon is closed when the last of them has
+	 * finished. A lexicon read from a file is always loaded again, even if
+	 * the type has not changed, so that a changed file is picked up. If the
+	 * file cannot be read, the old lexicon is kept.
 	 * 
 	 * @param lexType
 	 *            the lex type
 	 * @param lexFile
 	 *            the lex file
+	 * @throws XMLRealiserException
+	 *             if the type is null or the lexicon cannot be loaded
 	 */
-	public static void setLexicon(LexiconType lexType, String lexFile) {
-		if (lexiconType != null && lexicon != null && lexType == lexiconType) {
-			return; // done already
-		}
-
-		if (lexicon != null) {
-			lexicon.close();
-			lexicon = null;
-			lexiconType = null;
+	public static synchronized void setLexicon(LexiconType lexType,
+			String lexFile) throws XMLRealiserException {
+		if (lexType == LexiconType.DEFAULT && lexiconType == LexiconType.DEFAULT
+				&& lexicon.getLexicon() != null) {
+			return; // the default lexicon never changes
 		}
 
+		Lexicon newLexicon;
 		if (lexType == LexiconType.XML) {
-			lexicon = new XMLLexicon(lexFile);
+			newLexicon = new XMLLexicon(lexFile);
 		} else if (lexType == LexiconType.DEFAULT) {
-			lexicon = Lexicon.getDefaultLexicon();
+			newLexicon = Lexicon.getDefaultLexicon();
+		} else if (lexType == LexiconType.NIHDB) {
+			newLexicon = new PagedLexicon(lexFile);
+		} else {
+			throw new XMLRealiserException("invalid lexicon type " + lexType);
+		}
+		if (!newLexicon.isLoaded()) {
+			newLexicon.close();
+			throw new XMLRealiserException("cannot load " + lexType
+					+ " lexicon " + lexFile);
 		}
 
+		Lexicon oldLexicon = lexicon.swap(newLexicon);
 		lexiconType = lexType;
+		// the default lexicon is shared, so is never closed
+		if (oldLexicon != Lexicon.getDefaultLexicon()) {
+			lexicon.retire(oldLexicon);
+		}
+	}
+
+	/**
+	 * Gets the lexicon to realise with, setting the default lexicon if none
+	 * has been set.
+	 * 
+	 * @return the lexicon, which must be given back with
+	 *         <code>lexicon.release</code>
+	 * @throws XMLRealiserException
+	 *             if the default lexicon cannot be loaded
+	 */
+	private static synchronized Lexicon acquireLexicon()
+			throws XMLRealiserException {
+		if (lexicon.getLexicon() == null) {
+			setLexicon(LexiconType.DEFAULT, null);
+		}
+		return lexicon.acquire();
 	}
 
 	/**
@@ -240,14 +284,15 @@ public class XMLRealiser {
 			throws XMLRealiserException {
 		String output = "";
 		if (wt != null) {
+			// use one lexicon for the whole realisation, even if it is
+			// replaced meanwhile; it is not closed until this one finishes
+			Lexicon current = lexicon.getLexicon() != null ? lexicon.acquire()
+					: acquireLexicon();
 			try {
-				if (lexicon == null) {
-					lexicon = Lexicon.getDefaultLexicon();
-				}
-				UnWrapper w = new UnWrapper(lexicon);
+				UnWrapper w = new UnWrapper(current);
 				DocumentElement t = w.UnwrapDocumentElement(wt);
 				if (t != null) {
-					Realiser r = new Realiser(lexicon);
+					Realiser r = new Realiser(current);
 					r.initialise();
 
 					NLGElement tr = r.realise(t);
@@ -257,6 +302,8 @@ public class XMLRealiser {
 
 			} catch (Exception e) {
 				throw new XMLRealiserException("NLG XMLRealiser Error", e);
+			} finally {
+				lexicon.release(current);
 			}
 		}
 
@@ -0,0 +1,98 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon.mandarin;
+
+import java.io.File;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.BinaryLexicon;
+import simplenlg.lexicon.LexiconCompiler;
+import simplenlg.lexicon.XMLLexicon;
+
+/**
+ * Tests that a compiled lexicon loads the same words as the XML lexicon it was
+ * compiled from.
+ */
+public class BinaryLexiconTest {
+
+	XMLLexicon xmlLexicon = null;
+	BinaryLexicon binaryLexicon = null;
+	File compiled = null;
+
+	@Before
+	public void setUp() throws Exception {
+		this.xmlLexicon = new XMLLexicon();
+		this.compiled = File.createTempFile("lexicon", ".bin");
+		LexiconCompiler.compile(this.xmlLexicon, this.compiled);
+
+		long startTime = System.currentTimeMillis();
+		this.binaryLexicon = new BinaryLexicon(this.compiled);
+		long stopTime = System.currentTimeMillis();
+
+		System.out.format("Loading binary lexicon took %d ms%n",
+				stopTime - startTime);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		if (this.compiled != null)
+			this.compiled.delete();
+	}
+
+	@Test
+	public void sameWordsTest() {
+		WordElement xmlWord = this.xmlLexicon.getWord("男人", LexicalCategory.NOUN);
+		WordElement binaryWord = this.binaryLexicon.getWord("男人", LexicalCategory.NOUN);
+
+		Assert.assertEquals(xmlWord.getId(), binaryWord.getId());
+		Assert.assertEquals(xmlWord.getCategory(), binaryWord.getCategory());
+		Assert.assertEquals(xmlWord.getAllFeatures(), binaryWord.getAllFeatures());
+
+		Assert.assertEquals(this.xmlLexicon.getWords("狗").size(),
+				this.binaryLexicon.getWords("狗").size());
+		Assert.assertEquals(0, this.binaryLexicon.getWords("狗",
+				LexicalCategory.VERB).size());
+	}
+
+	@Test
+	public void indicesTest() {
+		WordElement dog = this.binaryLexicon.getWord("狗");
+
+		Assert.assertTrue(this.binaryLexicon.hasWordByID(dog.getId()));
+		Assert.assertEquals("狗", this.binaryLexicon.getWordByID(dog.getId())
+				.getBaseForm());
+		Assert.assertTrue(this.binaryLexicon.hasWordFromVariant("狗们",
+				LexicalCategory.NOUN));
+	}
+
+	@Test
+	public void unknownWordTest() {
+		Assert.assertFalse(this.binaryLexicon.hasWord("九寨沟"));
+		Assert.assertFalse(this.binaryLexicon.hasWordByID("九寨沟"));
+		Assert.assertEquals("九寨沟", this.binaryLexicon.lookupWord("九寨沟",
+				LexicalCategory.NOUN).getBaseForm());
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon.mandarin;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import simplenlg.features.LexicalFeature;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.CachingLexicon;
+import simplenlg.lexicon.XMLLexicon;
+
+/**
+ * Tests that a caching lexicon gives the same words as the lexicon it wraps,
+ * and counts hits, misses and evictions.
+ */
+public class CachingLexiconTest {
+
+	XMLLexicon xmlLexicon = null;
+	CachingLexicon lexicon = null;
+
+	@Before
+	public void setUp() {
+		this.xmlLexicon = new XMLLexicon();
+		this.lexicon = new CachingLexicon(this.xmlLexicon, 16);
+	}
+
+	@Test
+	public void cachedLookupTest() {
+		WordElement dog = this.lexicon.lookupWord("狗", LexicalCategory.NOUN);
+		Assert.assertEquals(this.xmlLexicon.getWord("狗").getId(), dog.getId());
+		Assert.assertEquals(0, this.lexicon.getHitCount());
+		Assert.assertEquals(1, this.lexicon.getMissCount());
+
+		// changing a looked up word does not change the cache
+		dog.setFeature(LexicalFeature.PROPER, true);
+		WordElement dogAgain = this.lexicon.lookupWord("狗", LexicalCategory.NOUN);
+		Assert.assertNotSame(dog, dogAgain);
+		Assert.assertFalse(dogAgain.getFeatureAsBoolean(LexicalFeature.PROPER)
+				.booleanValue());
+		Assert.assertEquals(1, this.lexicon.getHitCount());
+
+		// words which aren't found are cached too
+		Assert.assertEquals(0, this.lexicon.getWords("没有这个词").size());
+		Assert.assertEquals(0, this.lexicon.getWords("没有这个词").size());
+		Assert.assertEquals(2, this.lexicon.getHitCount());
+		Assert.assertEquals(2, this.lexicon.getMissCount());
+		Assert.assertEquals(2, this.lexicon.getSize());
+	}
+
+	@Test
+	public void evictionTest() {
+		for (int i = 0; i < 100; i++)
+			this.lexicon.getWords("词" + i);
+
+		Assert.assertTrue(this.lexicon.getEvictionCount() > 0);
+		Assert.assertEquals(100, this.lexicon.getSize()
+				+ this.lexicon.getEvictionCount());
+
+		this.lexicon.clear();
+		Assert.assertEquals(0, this.lexicon.getSize());
+	}
+
+	@Test
+	public void capacityTest() {
+		// a small cache holds as many results as it was asked to before
+		// dropping any
+		for (int i = 0; i < 16; i++)
+			this.lexicon.getWords("词" + i);
+		Assert.assertEquals(16, this.lexicon.getSize());
+		Assert.assertEquals(0, this.lexicon.getEvictionCount());
+		this.lexicon.getWords("词16");
+		Assert.assertEquals(16, this.lexicon.getSize());
+		Assert.assertEquals(1, this.lexicon.getEvictionCount());
+
+		// the capacity of a large cache is not rounded up
+		for (int capacity : new int[] { 1, 100, 1000, 10001 })
+			Assert.assertEquals(capacity, new CachingLexicon(this.xmlLexicon,
+					capacity).getCapacity());
+	}
+}
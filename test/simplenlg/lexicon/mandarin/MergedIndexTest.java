@@ -0,0 +1,108 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon.mandarin;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.MultipleLexicon;
+import simplenlg.lexicon.XMLLexicon;
+
+/**
+ * Tests that the merged index of a MultipleLexicon gives the same words as
+ * searching its lexicons in order.
+ */
+public class MergedIndexTest {
+
+	XMLLexicon small = null;
+	MultipleLexicon searched = null;
+	MultipleLexicon merged = null;
+
+	@Before
+	public void setUp() throws Exception {
+		this.small = new XMLLexicon();
+		XMLLexicon large = new XMLLexicon(XMLLexicon.class.getResource(
+				"/simplenlg/lexicon/default-lexicon.xml").toURI());
+
+		this.searched = new MultipleLexicon(this.small, large);
+		this.merged = new MultipleLexicon(this.small, large);
+		this.merged.setUseMergedIndex(true);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.merged.close();
+	}
+
+	@Test
+	public void precedenceTest() {
+		for (boolean searchAll : new boolean[] { false, true }) {
+			this.searched.setAlwaysSearchAll(searchAll);
+			this.merged.setAlwaysSearchAll(searchAll);
+
+			for (String base : new String[] { "男人", "狗", "在", "没有这个词" }) {
+				assertSameWords(this.searched.getWords(base), this.merged
+						.getWords(base));
+				assertSameWords(this.searched.getWords(base,
+						LexicalCategory.NOUN), this.merged.getWords(base,
+						LexicalCategory.NOUN));
+				assertSameWords(this.searched.getWords(base,
+						LexicalCategory.PREPOSITION), this.merged.getWords(
+						base, LexicalCategory.PREPOSITION));
+				assertSameWords(this.searched.getWordsFromVariant(base + "们"),
+						this.merged.getWordsFromVariant(base + "们"));
+			}
+		}
+
+		// 男人 is in both lexicons, but only the first is used for lookups
+		WordElement man = this.merged.getWord("男人", LexicalCategory.NOUN);
+		Assert.assertEquals(this.searched.getWord("男人", LexicalCategory.NOUN)
+				.getId(), man.getId());
+		Assert.assertEquals("男人", this.merged.getWordByID(man.getId())
+				.getBaseForm());
+		Assert.assertEquals(3, this.merged.getWords("在").size());
+	}
+
+	@Test
+	public void changedLexiconTest() {
+		Assert.assertFalse(this.merged.hasWord("黄果树"));
+
+		// the merged index is rebuilt when a lexicon changes
+		this.small.addWord(new WordElement("黄果树", LexicalCategory.NOUN));
+		Assert.assertTrue(this.merged.hasWord("黄果树"));
+		Assert.assertTrue(this.merged.hasWordFromVariant("黄果树们"));
+	}
+
+	private static void assertSameWords(List<WordElement> expected,
+			List<WordElement> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i).getId(), actual.get(i).getId());
+			Assert.assertEquals(expected.get(i).getCategory(), actual.get(i)
+					.getCategory());
+		}
+	}
+}
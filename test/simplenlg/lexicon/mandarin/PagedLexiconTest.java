@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon.mandarin;
+
+import java.io.File;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import simplenlg.features.LexicalFeature;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.PagedLexicon;
+import simplenlg.lexicon.XMLLexicon;
+
+/**
+ * Tests that a paged lexicon finds the same words as the XML lexicon it was
+ * compiled from, when only a few pages are kept in memory.
+ */
+public class PagedLexiconTest {
+
+	XMLLexicon xmlLexicon = null;
+	PagedLexicon pagedLexicon = null;
+	File compiled = null;
+
+	@Before
+	public void setUp() throws Exception {
+		this.xmlLexicon = new XMLLexicon(XMLLexicon.class.getResource(
+				"/simplenlg/lexicon/default-lexicon.xml").toURI());
+		this.compiled = File.createTempFile("lexicon", ".paged");
+		PagedLexicon.compile(this.xmlLexicon, this.compiled);
+		this.pagedLexicon = new PagedLexicon(this.compiled, 2);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		if (this.pagedLexicon != null)
+			this.pagedLexicon.close();
+		if (this.compiled != null)
+			this.compiled.delete();
+	}
+
+	@Test
+	public void sameWordsTest() {
+		for (String base : new String[] { "男人", "九寨沟", "在", "商洛", "没有这个词" }) {
+			Assert.assertEquals(this.xmlLexicon.getWords(base).size(),
+					this.pagedLexicon.getWords(base).size());
+			for (WordElement xmlWord : this.xmlLexicon.getWords(base)) {
+				WordElement pagedWord = this.pagedLexicon.getWord(base,
+						(LexicalCategory) xmlWord.getCategory());
+				Assert.assertEquals(xmlWord.getId(), pagedWord.getId());
+				Assert.assertEquals(xmlWord.getAllFeatures(), pagedWord
+						.getAllFeatures());
+			}
+		}
+
+		Assert.assertTrue(this.pagedLexicon.getWord("九寨沟")
+				.getFeatureAsBoolean(LexicalFeature.PROPER).booleanValue());
+		Assert.assertEquals(0, this.pagedLexicon.getWords("男人",
+				LexicalCategory.VERB).size());
+	}
+
+	@Test
+	public void indicesTest() {
+		WordElement man = this.pagedLexicon.getWord("男人");
+
+		Assert.assertEquals("男人", this.pagedLexicon.getWordByID(man.getId())
+				.getBaseForm());
+		Assert.assertEquals("男人", this.pagedLexicon.getWordFromVariant("男人们",
+				LexicalCategory.NOUN).getBaseForm());
+		Assert.assertFalse(this.pagedLexicon.hasWordByID("没有这个词"));
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon.mandarin;
+
+import java.util.concurrent.Callable;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.lexicon.Lexicon;
+import simplenlg.lexicon.ReloadableLexicon;
+import simplenlg.lexicon.XMLLexicon;
+
+/**
+ * Tests that a reloadable lexicon passes lookups to whichever lexicon is
+ * current, and that a failed reload keeps the old one.
+ */
+public class ReloadableLexiconTest {
+
+	XMLLexicon first = null;
+	ReloadableLexicon lexicon = null;
+
+	@Before
+	public void setUp() {
+		this.first = new XMLLexicon();
+		this.lexicon = new ReloadableLexicon(this.first);
+	}
+
+	@Test
+	public void reloadTest() throws Exception {
+		Assert.assertTrue(this.lexicon.hasWord("狗", LexicalCategory.NOUN));
+		Lexicon snapshot = this.lexicon.getLexicon();
+
+		final XMLLexicon second = new XMLLexicon();
+		Lexicon old = this.lexicon.reloadInBackground(new Callable<Lexicon>() {
+			public Lexicon call() {
+				return second;
+			}
+		}).get();
+
+		Assert.assertSame(this.first, old);
+		Assert.assertSame(this.first, snapshot);
+		Assert.assertSame(second, this.lexicon.getLexicon());
+		Assert.assertEquals("狗", this.lexicon.getWordFromVariant("狗们")
+				.getBaseForm());
+	}
+
+	@Test
+	public void failedReloadTest() {
+		try {
+			this.lexicon.reload(new Callable<Lexicon>() {
+				public Lexicon call() throws Exception {
+					throw new Exception("missing lexicon file");
+				}
+			});
+			Assert.fail("reload should have failed");
+		} catch (Exception ex) {
+			Assert.assertEquals("missing lexicon file", ex.getMessage());
+		}
+
+		Assert.assertSame(this.first, this.lexicon.getLexicon());
+		Assert.assertTrue(this.lexicon.hasWord("狗"));
+	}
+
+	@Test
+	public void retireTest() {
+		Lexicon inUse = this.lexicon.acquire();
+		Assert.assertSame(this.first, inUse);
+
+		// the replaced lexicon is closed when its last user releases it
+		ClosingLexicon second = new ClosingLexicon();
+		this.lexicon.retire(this.lexicon.swap(second));
+		Assert.assertSame(second, this.lexicon.acquire());
+		ClosingLexicon third = new ClosingLexicon();
+		this.lexicon.retire(this.lexicon.swap(third));
+		Assert.assertFalse(second.closed);
+		this.lexicon.release(second);
+		Assert.assertTrue(second.closed);
+		this.lexicon.release(inUse);
+
+		// a lexicon which is not in use is closed straight away, and the
+		// current one is never closed
+		this.lexicon.retire(third);
+		Assert.assertFalse(third.closed);
+		ClosingLexicon fourth = new ClosingLexicon();
+		this.lexicon.retire(this.lexicon.swap(fourth));
+		Assert.assertTrue(third.closed);
+	}
+
+	@Test
+	public void failedLoadTest() {
+		Assert.assertTrue(this.first.isLoaded());
+		Assert.assertFalse(new XMLLexicon("no-such-lexicon.xml").isLoaded());
+	}
+
+	/**
+	 * A lexicon which records whether it has been closed.
+	 */
+	private static class ClosingLexicon extends XMLLexicon {
+		boolean closed = false;
+
+		@Override
+		public void close() {
+			this.closed = true;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon.mandarin;
+
+import java.io.File;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.NLGFactory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.TrieLexicon;
+import simplenlg.lexicon.XMLLexicon;
+
+/**
+ * Tests that a trie lexicon finds the same words as the XML lexicon it was
+ * compiled from.
+ */
+public class TrieLexiconTest {
+
+	XMLLexicon xmlLexicon = null;
+	TrieLexicon trieLexicon = null;
+	File compiled = null;
+
+	@Before
+	public void setUp() throws Exception {
+		this.xmlLexicon = new XMLLexicon();
+		this.compiled = File.createTempFile("lexicon", ".trie");
+		TrieLexicon.compile(this.xmlLexicon, this.compiled);
+		this.trieLexicon = new TrieLexicon(this.compiled);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		if (this.trieLexicon != null)
+			this.trieLexicon.close();
+		if (this.compiled != null)
+			this.compiled.delete();
+	}
+
+	@Test
+	public void sameWordsTest() {
+		WordElement xmlWord = this.xmlLexicon.getWord("男人", LexicalCategory.NOUN);
+		WordElement trieWord = this.trieLexicon.getWord("男人", LexicalCategory.NOUN);
+
+		Assert.assertEquals(xmlWord.getBaseForm(), trieWord.getBaseForm());
+		Assert.assertEquals(xmlWord.getId(), trieWord.getId());
+		Assert.assertEquals(xmlWord.getCategory(), trieWord.getCategory());
+		Assert.assertEquals(xmlWord.getAllFeatures(), trieWord.getAllFeatures());
+
+		Assert.assertEquals(1, this.trieLexicon.getWords("狗").size());
+		Assert.assertEquals(0, this.trieLexicon.getWords("狗",
+				LexicalCategory.VERB).size());
+		Assert.assertFalse(this.trieLexicon.hasWord("九寨沟"));
+	}
+
+	@Test
+	public void indicesTest() {
+		WordElement dog = this.trieLexicon.getWord("狗");
+
+		Assert.assertEquals("狗", this.trieLexicon.getWordByID(dog.getId())
+				.getBaseForm());
+		Assert.assertEquals("狗", this.trieLexicon.getWordFromVariant("狗们",
+				LexicalCategory.NOUN).getBaseForm());
+	}
+
+	@Test
+	public void factoryTest() {
+		NLGFactory factory = new NLGFactory(this.trieLexicon);
+		NLGElement dog = factory.createWord("狗", LexicalCategory.NOUN);
+
+		Assert.assertTrue(dog instanceof WordElement);
+		Assert.assertEquals(this.xmlLexicon.getWord("狗").getId(),
+				((WordElement) dog).getId());
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.lexicon.mandarin;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.ListElement;
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.NLGFactory;
+import simplenlg.framework.StringElement;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.Lexicon;
+import simplenlg.lexicon.TrieLexicon;
+import simplenlg.lexicon.WordSegmenter;
+import simplenlg.lexicon.XMLLexicon;
+
+/**
+ * Tests that strings are split into the longest lexicon words, and that the
+ * factory does so only when asked to.
+ */
+public class WordSegmenterTest {
+
+	@Test
+	public void longestMatchTest() {
+		WordSegmenter segmenter = new WordSegmenter(Arrays.asList("正", "正面",
+				"侧", "侧面"));
+
+		Assert.assertEquals(Arrays.asList("正面", "侧"), segmenter.segment("正面侧"));
+		Assert.assertEquals(Arrays.asList("正面", "侧面"), segmenter.segment("正面 侧面"));
+		// unknown characters are kept together
+		Assert.assertEquals(Arrays.asList("正", "abc", "侧"), segmenter.segment("正abc侧"));
+		Assert.assertEquals(0, segmenter.segment("  ").size());
+	}
+
+	@Test
+	public void factoryTest() {
+		Lexicon lexicon = new XMLLexicon();
+		NLGFactory factory = new NLGFactory(lexicon);
+
+		NLGElement element = factory.createNLGElement("男人 狗");
+		Assert.assertTrue(element instanceof StringElement);
+
+		factory.setSegmentStrings(true);
+		element = factory.createNLGElement("男人狗");
+		Assert.assertTrue(element instanceof ListElement);
+		List<NLGElement> words = element.getChildren();
+		Assert.assertEquals(2, words.size());
+		Assert.assertEquals("男人", ((WordElement) words.get(0)).getBaseForm());
+		Assert.assertEquals("狗", ((WordElement) words.get(1)).getBaseForm());
+
+		// a single word is not made into a list
+		Assert.assertTrue(factory.createNLGElement("狗") instanceof WordElement);
+	}
+
+	@Test
+	public void updatedLexiconTest() {
+		XMLLexicon lexicon = new XMLLexicon();
+		NLGFactory factory = new NLGFactory(lexicon);
+		WordSegmenter segmenter = factory.getSegmenter();
+		Assert.assertSame(segmenter, factory.getSegmenter());
+		Assert.assertEquals(Arrays.asList("黄果树瀑布"), segmenter.segment("黄果树瀑布"));
+
+		// a word added to the lexicon is seen by a new segmenter
+		lexicon.addWord(new WordElement("黄果树", LexicalCategory.NOUN));
+		Assert.assertFalse(segmenter.isCurrent());
+		Assert.assertEquals(Arrays.asList("黄果树", "瀑布"), factory
+				.getSegmenter().segment("黄果树瀑布"));
+	}
+
+	@Test
+	public void unlistedLexiconTest() throws Exception {
+		File compiled = File.createTempFile("lexicon", ".trie");
+		TrieLexicon.compile(new XMLLexicon(), compiled);
+		TrieLexicon lexicon = new TrieLexicon(compiled);
+		try {
+			NLGFactory factory = new NLGFactory(lexicon);
+			factory.setSegmentStrings(true);
+			try {
+				factory.createNLGElement("男人狗");
+				Assert.fail("a trie lexicon can't list its words to segment");
+			} catch (IllegalArgumentException ex) {
+				// expected
+			}
+
+			// a segmenter can still be given to the factory
+			factory.setSegmenter(new WordSegmenter(Arrays.asList("男人", "狗")));
+			Assert.assertTrue(factory.createNLGElement("男人狗") instanceof ListElement);
+		} finally {
+			lexicon.close();
+			compiled.delete();
+		}
+	}
+}
@@ -18,12 +18,20 @@
  */
 package simplenlg.lexicon.mandarin;
 
+import java.util.Map;
+
 import org.junit.*;
 
 import simplenlg.features.Feature;
+import simplenlg.features.LexicalFeature;
 import simplenlg.features.NumberAgreement;
 import simplenlg.features.Tense;
+import simplenlg.framework.LexicalCategory;
 import simplenlg.framework.NLGFactory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.Lexicon;
+import simplenlg.lexicon.LexiconMemoryReport;
+import simplenlg.lexicon.LookupResult;
 import simplenlg.lexicon.XMLLexicon;
 import simplenlg.phrasespec.NPPhraseSpec;
 import simplenlg.phrasespec.PPPhraseSpec;
@@ -101,4 +109,141 @@ public class XMLLexiconTest {
 	    Assert.assertEquals(NumberAgreement.SINGULAR, wall.getFeature(Feature.NUMBER));    
 	}
 
+	/**
+	 * Tests that words returned by lookups share their features with the
+	 * lexicon entry, but changing them does not change the entry.
+	 */
+	@Test
+	public void sharedLookupTest() {
+		WordElement dog = lexicon.lookupWord("狗", LexicalCategory.NOUN);
+		Assert.assertFalse(dog.hasFeature(LexicalFeature.PROPER));
+
+		dog.setFeature(LexicalFeature.PROPER, true);
+		Assert.assertTrue(dog.getFeatureAsBoolean(LexicalFeature.PROPER)
+				.booleanValue());
+
+		WordElement dog2 = lexicon.lookupWord("狗", LexicalCategory.NOUN);
+		Assert.assertFalse(dog2.hasFeature(LexicalFeature.PROPER));
+		Assert.assertEquals(dog.getId(), dog2.getId());
+	}
+
+	/**
+	 * Tests that resolveWord reports how a word was found.
+	 */
+	@Test
+	public void resolveWordTest() {
+		LookupResult base = lexicon.resolveWord("狗", LexicalCategory.NOUN);
+		Assert.assertEquals(LookupResult.Match.BASE, base.getMatch());
+		Assert.assertEquals("狗", base.getWord().getBaseForm());
+
+		LookupResult variant = lexicon.resolveWord("狗们", LexicalCategory.NOUN);
+		Assert.assertEquals(LookupResult.Match.VARIANT, variant.getMatch());
+		Assert.assertEquals("狗", variant.getWord().getBaseForm());
+
+		LookupResult id = lexicon.resolveWord(base.getWord().getId());
+		Assert.assertEquals(LookupResult.Match.ID, id.getMatch());
+
+		LookupResult none = lexicon.resolveWord("九寨沟", LexicalCategory.NOUN);
+		Assert.assertFalse(none.isFound());
+		Assert.assertEquals("九寨沟", none.getWord().getBaseForm());
+	}
+
+	@Test
+	public void defaultLexiconTest() {
+		// the default lexicon is loaded once and shared
+		Lexicon shared = Lexicon.getDefaultLexicon();
+		Assert.assertSame(shared, Lexicon.getDefaultLexicon());
+
+		// a private copy is a different lexicon with the same words
+		XMLLexicon copy = Lexicon.createDefaultLexicon();
+		Assert.assertNotSame(shared, copy);
+		Assert.assertEquals(shared.getWord("狗").getId(), copy.getWord("狗")
+				.getId());
+	}
+
+	@Test
+	public void sharedFeaturesTest() throws Exception {
+		XMLLexicon fullLexicon = new XMLLexicon(XMLLexicon.class.getResource(
+				"/simplenlg/lexicon/default-lexicon.xml").toURI());
+
+		// words share feature names and values
+		WordElement jiuzhaigou = fullLexicon.getWord("九寨沟");
+		WordElement shangluo = fullLexicon.getWord("商洛");
+		Assert.assertSame(Boolean.TRUE, jiuzhaigou
+				.getFeature(LexicalFeature.PROPER));
+		Assert.assertSame(jiuzhaigou.getFeature(LexicalFeature.PROPER),
+				shangluo.getFeature(LexicalFeature.PROPER));
+		Assert.assertTrue(jiuzhaigou.getAllFeatureNames().contains(
+				LexicalFeature.PROPER));
+
+		Map<String, Long> bytes = LexiconMemoryReport
+				.getBytesByFeature(fullLexicon);
+		Assert.assertTrue(bytes.get(LexiconMemoryReport.WORDS).longValue() > 0);
+		Assert.assertTrue(bytes.get(LexicalFeature.PROPER).longValue() > 0);
+	}
+
+	@Test
+	public void updateWordsTest() {
+		XMLLexicon copy = Lexicon.createDefaultLexicon();
+		WordElement place = new WordElement("九寨沟", LexicalCategory.NOUN,
+				"D0000001");
+		place.setFeature(LexicalFeature.PROPER, true);
+		copy.addWord(place);
+
+		// the new word is in all the indices
+		Assert.assertTrue(copy.hasWord("九寨沟", LexicalCategory.NOUN));
+		Assert.assertTrue(copy.hasWordFromVariant("九寨沟们"));
+		Assert.assertEquals("九寨沟", copy.getWordByID("D0000001").getBaseForm());
+		Assert.assertEquals(LookupResult.Match.BASE, copy.resolveWord("九寨沟")
+				.getMatch());
+
+		// the lexicon keeps its own copy
+		place.setFeature(LexicalFeature.PROPER, false);
+		Assert.assertTrue(copy.getWord("九寨沟").getFeatureAsBoolean(
+				LexicalFeature.PROPER).booleanValue());
+
+		copy.updateWord(place);
+		Assert.assertFalse(copy.getWord("九寨沟").getFeatureAsBoolean(
+				LexicalFeature.PROPER).booleanValue());
+		Assert.assertEquals(1, copy.getWords("九寨沟").size());
+
+		Assert.assertTrue(copy.removeWord(copy.getWord("九寨沟")));
+		Assert.assertFalse(copy.hasWord("九寨沟"));
+		Assert.assertFalse(copy.hasWordFromVariant("九寨沟们"));
+		Assert.assertFalse(copy.hasWordByID("D0000001"));
+
+		// other words are unchanged, and so is the shared default lexicon
+		Assert.assertTrue(copy.hasWord("狗"));
+		Assert.assertTrue(Lexicon.getDefaultLexicon().hasWord("狗"));
+		try {
+			((XMLLexicon) Lexicon.getDefaultLexicon()).addWord(place);
+			Assert.fail("the shared default lexicon should not be changed");
+		} catch (UnsupportedOperationException ex) {
+			// expected
+		}
+
+		// updating a word which isn't there changes nothing
+		try {
+			copy.updateWord(place);
+			Assert.fail("a missing word was updated");
+		} catch (IllegalArgumentException ex) {
+			// expected
+		}
+		Assert.assertFalse(copy.hasWordByID("D0000001"));
+	}
+
+	@Test
+	public void manyUpdatesTest() {
+		// enough words to fill the filter of the loaded lexicon, which is
+		// then rebuilt
+		XMLLexicon copy = Lexicon.createDefaultLexicon();
+		int wordCount = copy.getWords("狗").size();
+		for (int i = 0; i < 3000; i++)
+			copy.addWord(new WordElement("地名" + i, LexicalCategory.NOUN));
+		for (int i = 0; i < 3000; i += 299)
+			Assert.assertTrue(copy.hasWord("地名" + i, LexicalCategory.NOUN));
+		Assert.assertFalse(copy.hasWord("地名3000"));
+		Assert.assertEquals(wordCount, copy.getWords("狗").size());
+	}
+
 }
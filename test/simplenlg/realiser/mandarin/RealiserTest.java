@@ -31,6 +31,7 @@ import simplenlg.features.Feature;
 import simplenlg.features.Form;
 import simplenlg.features.LexicalFeature;
 import simplenlg.features.Gender;
+import simplenlg.framework.CoordinatedPhraseElement;
 import simplenlg.framework.DocumentElement;
 import simplenlg.framework.NLGElement;
 import simplenlg.framework.NLGFactory;
@@ -40,6 +41,7 @@ import simplenlg.phrasespec.NPPhraseSpec;
 import simplenlg.phrasespec.PPPhraseSpec;
 import simplenlg.phrasespec.SPhraseSpec;
 import simplenlg.phrasespec.VPPhraseSpec;
+import simplenlg.syntax.mandarin.RealisationCache;
 
 /**
  * JUnit test class for the {@link Realiser} class.
@@ -170,4 +172,155 @@ public class RealiserTest {
                                     realiser.realise(sisterNP).getRealisation());
 	}
 
+	/**
+	 * Tests that a tree can be realised again, and by several threads at once,
+	 * when the realiser is not to change its input.
+	 */
+	@Test
+	public void preserveInputTest() throws InterruptedException {
+		realiser.setPreserveInput(true);
+
+		NPPhraseSpec dogs = nlgFactory.createNounPhrase("一", "条", "狗");
+		dogs.setPlural(true);
+		SPhraseSpec clause1 = nlgFactory.createClause(nlgFactory
+				.createNounPhrase("男人"), "踢", dogs);
+		SPhraseSpec clause2 = nlgFactory.createClause(nlgFactory
+				.createCoordinatedPhrase(nlgFactory.createNounPhrase("男人"),
+						nlgFactory.createNounPhrase("女人")), "踢", "狗");
+		clause2.setFeature(Feature.INTERROGATIVE_TYPE,
+				simplenlg.features.InterrogativeType.YES_NO);
+		final DocumentElement paragraph = nlgFactory.createParagraph();
+		paragraph.addComponent(nlgFactory.createSentence(clause1));
+		paragraph.addComponent(nlgFactory.createSentence(clause2));
+
+		String before = paragraph.printTree(null);
+		final String expected = realiser.realise(paragraph).getRealisation();
+		Assert.assertEquals(before, paragraph.printTree(null));
+		Assert.assertEquals(expected, realiser.realise(paragraph)
+				.getRealisation());
+		NLGElement parent = clause1.getParent();
+		String sentence = realiser.realiseSentence(clause1);
+		Assert.assertSame(parent, clause1.getParent());
+		Assert.assertEquals(sentence, realiser.realiseSentence(clause1));
+		Assert.assertEquals(before, paragraph.printTree(null));
+
+		final List<String> failures = new ArrayList<String>();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 50; j++) {
+						String realised = realiser.realise(paragraph)
+								.getRealisation();
+						if (!expected.equals(realised)) {
+							synchronized (failures) {
+								failures.add(realised);
+							}
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertTrue(failures.toString(), failures.isEmpty());
+		Assert.assertEquals(before, paragraph.printTree(null));
+	}
+
+	/**
+	 * Tests that a realiser which remembers the realisations of phrases gives
+	 * the same text as one which does not.
+	 */
+	@Test
+	public void realisationCacheTest() {
+		Realiser cachingRealiser = new Realiser(lexicon);
+		RealisationCache cache = new RealisationCache();
+		cachingRealiser.setRealisationCache(cache);
+		Assert.assertSame(cache, cachingRealiser.getRealisationCache());
+
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 4; j++) {
+				Assert.assertEquals(realiser.realiseSentence(makeCacheClause(j)),
+						cachingRealiser.realiseSentence(makeCacheClause(j)));
+			}
+		}
+		Assert.assertTrue(cache.getHitCount() > 0);
+		Assert.assertTrue(cache.getMissCount() > 0);
+		Assert.assertTrue(cache.getSize() > 0);
+		Assert.assertTrue(cache.getHitRate() > 0.5);
+
+		// copies of a tree which is left unchanged are found in the cache
+		cachingRealiser.setPreserveInput(true);
+		SPhraseSpec clause = makeCacheClause(0);
+		String expected = realiser.realiseSentence(makeCacheClause(0));
+		long misses = cache.getMissCount();
+		Assert.assertEquals(expected, cachingRealiser.realiseSentence(clause));
+		Assert.assertEquals(expected, cachingRealiser.realiseSentence(clause));
+		Assert.assertEquals(misses, cache.getMissCount());
+
+		cachingRealiser.setLexicon(lexicon);
+		Assert.assertEquals(0, cache.getSize());
+	}
+
+	/**
+	 * Tests that noun phrases which differ only in their heads are not given
+	 * each other's remembered realisations.
+	 */
+	@Test
+	public void realisationCacheHeadTest() {
+		Realiser cachingRealiser = new Realiser(lexicon);
+		cachingRealiser.setRealisationCache(new RealisationCache());
+
+		for (String noun : new String[] { "狗", "学生", "人" }) {
+			SPhraseSpec clause = nlgFactory.createClause("我", "喜欢",
+					nlgFactory.createNounPhrase("那", noun));
+			SPhraseSpec expected = nlgFactory.createClause("我", "喜欢",
+					nlgFactory.createNounPhrase("那", noun));
+			Assert.assertEquals(realiser.realiseSentence(expected),
+					cachingRealiser.realiseSentence(clause));
+		}
+	}
+
+	/**
+	 * @param variant
+	 *            which clause to make.
+	 * @return a clause whose noun phrases appear in the other clauses too.
+	 */
+	private SPhraseSpec makeCacheClause(int variant) {
+		NPPhraseSpec chair = nlgFactory.createNounPhrase("那", "把", "椅子");
+		NPPhraseSpec hair = nlgFactory.createNounPhrase("头发");
+		hair.setFeature(Feature.ASSOCIATIVE, true);
+		NPPhraseSpec person = nlgFactory.createNounPhrase("一", "个", "人");
+		person.addPreModifier(hair);
+		PPPhraseSpec place = nlgFactory.createPrepositionPhrase("在",
+				nlgFactory.createNounPhrase("公园"));
+
+		SPhraseSpec clause;
+		switch (variant) {
+		case 0:
+			clause = nlgFactory.createClause(person, "踢", chair);
+			break;
+		case 1:
+			clause = nlgFactory.createClause(chair, "是", person);
+			clause.addComplement(place);
+			break;
+		case 2:
+			CoordinatedPhraseElement people = nlgFactory.createCoordinatedPhrase(
+					person, nlgFactory.createNounPhrase("男人"));
+			people.topicalise();
+			clause = nlgFactory.createClause(people, "喜欢", chair);
+			break;
+		default:
+			clause = nlgFactory.createClause(person, nlgFactory
+					.createVerbPhrase("坐"));
+			clause.addComplement(place);
+			clause.setFeature(Feature.NEGATED, true);
+			break;
+		}
+		return clause;
+	}
+
 }
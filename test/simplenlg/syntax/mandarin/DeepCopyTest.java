@@ -0,0 +1,108 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.syntax.mandarin;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.Tense;
+import simplenlg.framework.CoordinatedPhraseElement;
+import simplenlg.framework.DocumentElement;
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.NLGFactory;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.XMLLexicon;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+import simplenlg.realiser.mandarin.Realiser;
+
+/**
+ * Tests that a deep copy of an element realises as the original does, and
+ * that the copy and the original can be changed independently.
+ */
+public class DeepCopyTest {
+
+	private final XMLLexicon lexicon = new XMLLexicon();
+
+	private final NLGFactory factory = new NLGFactory(this.lexicon);
+
+	private SPhraseSpec makeClause() {
+		NPPhraseSpec dog = this.factory.createNounPhrase("一", "条", "狗");
+		CoordinatedPhraseElement subject = this.factory.createCoordinatedPhrase(
+				this.factory.createNounPhrase("男人"), this.factory
+						.createNounPhrase("女人"));
+		return this.factory.createClause(subject, "踢", dog);
+	}
+
+	@Test
+	public void copyTest() {
+		SPhraseSpec clause = makeClause();
+		SPhraseSpec copy = (SPhraseSpec) clause.deepCopy();
+		Assert.assertNotSame(clause, copy);
+		Assert.assertEquals(clause.printTree(null), copy.printTree(null));
+
+		Realiser realiser = new Realiser(this.lexicon);
+		String expected = realiser.realiseSentence(makeClause());
+		Assert.assertEquals(expected, realiser.realiseSentence(copy));
+		Assert.assertEquals(expected, realiser.realiseSentence(clause));
+	}
+
+	@Test
+	public void independenceTest() {
+		SPhraseSpec clause = makeClause();
+		String before = clause.printTree(null);
+		SPhraseSpec copy = (SPhraseSpec) clause.deepCopy();
+
+		copy.setFeature(Feature.TENSE, Tense.PAST);
+		copy.getVerbPhrase().setFeature(Feature.NEGATED, true);
+		NPPhraseSpec object = (NPPhraseSpec) copy.getObject();
+		object.addPreModifier("黑");
+		object.getHead().setFeature(Feature.NUMBER, null);
+		Assert.assertEquals(before, clause.printTree(null));
+
+		copy = (SPhraseSpec) clause.deepCopy();
+		clause.setFeature(Feature.NEGATED, true);
+		((NPPhraseSpec) clause.getObject()).addPreModifier("黑");
+		Assert.assertFalse(before.equals(clause.printTree(null)));
+		Assert.assertEquals(before, copy.printTree(null));
+	}
+
+	@Test
+	public void parentTest() {
+		SPhraseSpec clause = makeClause();
+		DocumentElement sentence = this.factory.createSentence(clause);
+		DocumentElement copy = (DocumentElement) sentence.deepCopy();
+		Assert.assertNull(copy.getParent());
+
+		NLGElement copiedClause = copy.getChildren().get(0);
+		Assert.assertNotSame(clause, copiedClause);
+		Assert.assertSame(copy, copiedClause.getParent());
+		Assert.assertSame(sentence, clause.getParent());
+
+		// the copy of an element held twice is held twice
+		WordElement word = this.lexicon.lookupWord("狗");
+		NPPhraseSpec np = this.factory.createNounPhrase(word);
+		np.addPostModifier(word);
+		NPPhraseSpec npCopy = (NPPhraseSpec) np.deepCopy();
+		Assert.assertNotSame(np.getHead(), npCopy.getHead());
+		Assert.assertSame(npCopy.getHead(), npCopy.getPostModifiers().get(0));
+	}
+}
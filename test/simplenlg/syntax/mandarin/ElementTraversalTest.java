@@ -0,0 +1,156 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.syntax.mandarin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.framework.CoordinatedPhraseElement;
+import simplenlg.framework.DocumentElement;
+import simplenlg.framework.ElementCursor;
+import simplenlg.framework.ListElement;
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.NLGElementVisitor;
+import simplenlg.framework.NLGFactory;
+import simplenlg.lexicon.XMLLexicon;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+import simplenlg.phrasespec.VPPhraseSpec;
+
+/**
+ * Tests that the cursor and the visitor walk a tree of elements in the same
+ * order as a recursive walk over <code>getChildren()</code>. Elements are
+ * compared with <code>equals</code>, since a cue phrase given as a string is
+ * wrapped in a new element each time it is read.
+ */
+public class ElementTraversalTest {
+
+	private final NLGFactory factory = new NLGFactory(new XMLLexicon());
+
+	private NLGElement makeDocument() {
+		NPPhraseSpec dog = this.factory.createNounPhrase("一", "条", "狗");
+		dog.addPreModifier("黑");
+		VPPhraseSpec vp = this.factory.createVerbPhrase("踢");
+		SPhraseSpec clause1 = this.factory.createClause(this.factory
+				.createNounPhrase("男人"), vp, dog);
+		clause1.setFeature(Feature.CUE_PHRASE, "然后");
+		CoordinatedPhraseElement subject = this.factory.createCoordinatedPhrase(
+				this.factory.createNounPhrase("男人"), this.factory
+						.createNounPhrase("女人"));
+		SPhraseSpec clause2 = this.factory.createClause(subject, "踢", "狗");
+		ListElement list = new ListElement(Arrays.asList((NLGElement) clause1,
+				clause2));
+		DocumentElement paragraph = this.factory.createParagraph(list);
+		return this.factory.createDocument("title", paragraph);
+	}
+
+	private static void walk(NLGElement element, int depth,
+			List<NLGElement> elements, List<Integer> depths) {
+		elements.add(element);
+		depths.add(depth);
+		for (NLGElement child : element.getChildren()) {
+			walk(child, depth + 1, elements, depths);
+		}
+	}
+
+	@Test
+	public void cursorTest() {
+		NLGElement document = makeDocument();
+		List<NLGElement> expected = new ArrayList<NLGElement>();
+		List<Integer> depths = new ArrayList<Integer>();
+		walk(document, 0, expected, depths);
+
+		ElementCursor cursor = new ElementCursor(document);
+		Assert.assertNull(cursor.getElement());
+		for (int pass = 0; pass < 2; pass++) {
+			int index = 0;
+			while (cursor.next()) {
+				Assert.assertEquals(expected.get(index), cursor.getElement());
+				Assert.assertEquals(depths.get(index).intValue(), cursor
+						.getDepth());
+				if (cursor.getParent() != null) {
+					Assert.assertEquals(cursor.getElement(), cursor.getParent()
+							.getChild(cursor.getIndex()));
+				}
+				index++;
+			}
+			Assert.assertEquals(expected.size(), index);
+			Assert.assertNull(cursor.getElement());
+			Assert.assertFalse(cursor.next());
+			cursor.reset(document);
+		}
+	}
+
+	@Test
+	public void skipChildrenTest() {
+		NLGElement document = makeDocument();
+		ElementCursor cursor = new ElementCursor(document);
+		int count = 0;
+		while (cursor.next()) {
+			Assert.assertTrue(cursor.getDepth() <= 1);
+			if (cursor.getDepth() == 1) {
+				cursor.skipChildren();
+			}
+			count++;
+		}
+		Assert.assertEquals(1 + document.getChildCount(), count);
+	}
+
+	@Test
+	public void visitorTest() {
+		NLGElement document = makeDocument();
+		List<NLGElement> expected = new ArrayList<NLGElement>();
+		walk(document, 0, expected, new ArrayList<Integer>());
+
+		final List<NLGElement> entered = new ArrayList<NLGElement>();
+		final List<NLGElement> stack = new ArrayList<NLGElement>();
+		document.accept(new NLGElementVisitor() {
+			public boolean enter(NLGElement element) {
+				entered.add(element);
+				stack.add(element);
+				return true;
+			}
+
+			public void leave(NLGElement element) {
+				Assert.assertSame(stack.remove(stack.size() - 1), element);
+			}
+		});
+		Assert.assertEquals(expected.size(), entered.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), entered.get(i));
+		}
+		Assert.assertTrue(stack.isEmpty());
+	}
+
+	@Test
+	public void changedChildrenTest() {
+		ListElement list = new ListElement(this.factory.createNounPhrase("狗"));
+		Assert.assertEquals(1, list.getChildCount());
+		list.addComponent(this.factory.createNounPhrase("男人"));
+		Assert.assertEquals(2, list.getChildCount());
+		list.setComponents(new ArrayList<NLGElement>());
+		Assert.assertEquals(0, list.getChildCount());
+	}
+}
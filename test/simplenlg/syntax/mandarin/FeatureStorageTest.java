@@ -0,0 +1,268 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.syntax.mandarin;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.InternalFeature;
+import simplenlg.features.LexicalFeature;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.ListElement;
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.NLGFactory;
+import simplenlg.framework.StringElement;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.XMLLexicon;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+import simplenlg.phrasespec.VPPhraseSpec;
+
+/**
+ * Tests that element features behave as a map, whether their names are
+ * feature constants or not, and that the typed accessors for boolean and
+ * structural features agree with the map.
+ */
+public class FeatureStorageTest {
+
+	@Test
+	public void featureMapTest() {
+		NLGFactory factory = new NLGFactory(new XMLLexicon());
+		NPPhraseSpec np = factory.createNounPhrase("狗");
+		np.clearAllFeatures();
+
+		Map<String, Object> expected = new HashMap<String, Object>();
+		for (int i = 0; i < 10; i++) {
+			np.setFeature("adhoc" + i, i);
+			expected.put("adhoc" + i, Integer.valueOf(i));
+		}
+		np.setFeature(Feature.ELIDED, true);
+		np.setFeature(InternalFeature.DISCOURSE_FUNCTION, "subject");
+		np.setFeature(LexicalFeature.PROPER, false);
+		expected.put(Feature.ELIDED, Boolean.TRUE);
+		expected.put(InternalFeature.DISCOURSE_FUNCTION, "subject");
+		expected.put(LexicalFeature.PROPER, Boolean.FALSE);
+
+		Assert.assertEquals(expected, np.getAllFeatures());
+		Assert.assertEquals(expected.hashCode(), np.getAllFeatures().hashCode());
+		Assert.assertEquals(expected.keySet(), np.getAllFeatureNames());
+		Assert.assertTrue(np.hasFeature(Feature.ELIDED));
+		Assert.assertTrue(np.hasFeature("adhoc3"));
+		Assert.assertEquals(Integer.valueOf(3), np.getFeature("adhoc3"));
+
+		// a feature set to null is removed
+		np.setFeature(Feature.ELIDED, null);
+		Assert.assertFalse(np.hasFeature(Feature.ELIDED));
+		Assert.assertNull(np.getFeature(Feature.ELIDED));
+
+		// the names can be removed while iterating
+		Iterator<String> names = np.getAllFeatureNames().iterator();
+		while (names.hasNext()) {
+			String name = names.next();
+			if (!name.startsWith("adhoc"))
+				names.remove();
+		}
+		Assert.assertEquals(10, np.getAllFeatures().size());
+		Assert.assertFalse(np.hasFeature(LexicalFeature.PROPER));
+
+		np.getAllFeatures().put(Feature.NEGATED, Boolean.TRUE);
+		Assert.assertTrue(np.getFeatureAsBoolean(Feature.NEGATED).booleanValue());
+
+		// a name equal to a constant but not the same string finds it
+		String negated = new String(Feature.NEGATED);
+		Assert.assertNotSame(Feature.NEGATED, negated);
+		Assert.assertTrue(np.getFeatureAsBoolean(negated).booleanValue());
+		Assert.assertEquals(11, np.getAllFeatures().size());
+
+		// subclasses outside the framework can still read the map
+		Assert.assertEquals(2, new CountingElement("狗", Feature.ELIDED)
+				.countFeatures());
+	}
+
+	/**
+	 * An element defined outside the framework package which reads its
+	 * features directly, as subclasses always could.
+	 */
+	private static class CountingElement extends StringElement {
+		CountingElement(String realisation, String featureName) {
+			super(realisation);
+			setFeature(featureName, true);
+			setFeature("adhoc", 1);
+		}
+
+		int countFeatures() {
+			return this.features.size();
+		}
+	}
+
+	@Test
+	public void booleanFeatureTest() {
+		NLGFactory factory = new NLGFactory(new XMLLexicon());
+		NPPhraseSpec np = factory.createNounPhrase("狗");
+
+		Assert.assertFalse(np.getBooleanFeature(Feature.ELIDED));
+		np.setFeature(Feature.ELIDED, true);
+		Assert.assertTrue(np.getBooleanFeature(Feature.ELIDED));
+		Assert.assertSame(Boolean.TRUE, np.getFeature(Feature.ELIDED));
+		Assert.assertSame(Boolean.TRUE, np.getFeatureAsBoolean(Feature.ELIDED));
+		np.setFeature(Feature.ELIDED, false);
+		Assert.assertFalse(np.getBooleanFeature(Feature.ELIDED));
+		Assert.assertTrue(np.hasFeature(Feature.ELIDED));
+
+		// only Boolean values count as true
+		np.setFeature(Feature.ELIDED, "true");
+		Assert.assertFalse(np.getBooleanFeature(Feature.ELIDED));
+		Assert.assertEquals("true", np.getFeature(Feature.ELIDED));
+		np.setFeature("adhoc", true);
+		Assert.assertTrue(np.getBooleanFeature("adhoc"));
+
+		// a clause answers for its verb phrase
+		VPPhraseSpec vp = factory.createVerbPhrase("踢");
+		SPhraseSpec clause = factory.createClause(np, vp);
+		vp.setFeature(Feature.PASSIVE, true);
+		Assert.assertTrue(clause.getBooleanFeature(Feature.PASSIVE));
+		clause.setFeature(Feature.PASSIVE, false);
+		Assert.assertFalse(clause.getBooleanFeature(Feature.PASSIVE));
+	}
+
+	@Test
+	public void structuralFeatureTest() {
+		NLGFactory factory = new NLGFactory(new XMLLexicon());
+		VPPhraseSpec vp = factory.createVerbPhrase("踢");
+		NPPhraseSpec dog = factory.createNounPhrase("狗");
+		NPPhraseSpec man = factory.createNounPhrase("男人");
+
+		Assert.assertEquals(0, vp.getComplementList().size());
+		vp.addComplement(dog);
+		Assert.assertEquals(vp.getFeatureAsElementList(InternalFeature.COMPLEMENTS),
+				vp.getComplementList());
+		Assert.assertSame(dog, vp.getComplementList().get(0));
+		try {
+			vp.getComplementList().add(man);
+			Assert.fail("complement list should be read-only");
+		} catch (UnsupportedOperationException ex) {
+			// expected
+		}
+
+		// changes made through the feature map are seen
+		vp.setFeature(InternalFeature.COMPLEMENTS, man);
+		Assert.assertSame(man, vp.getComplementList().get(0));
+		vp.getAllFeatures().remove(InternalFeature.COMPLEMENTS);
+		Assert.assertEquals(0, vp.getComplementList().size());
+
+		// a head given as a string is converted as before
+		NLGElement verb = vp.getHead();
+		Assert.assertSame(verb, vp.getFeature(InternalFeature.HEAD));
+		vp.setFeature(InternalFeature.HEAD, "跑");
+		Assert.assertTrue(vp.getHead() instanceof StringElement);
+		Assert.assertEquals("跑", vp.getHead().getRealisation());
+
+		SPhraseSpec clause = factory.createClause(man, vp);
+		Assert.assertSame(vp, clause.getVerbPhraseElement());
+		Assert.assertSame(man, clause.getSubjectList().get(0));
+	}
+
+	@Test
+	public void listViewTest() {
+		NLGFactory factory = new NLGFactory(new XMLLexicon());
+		NPPhraseSpec np = factory.createNounPhrase("狗");
+		NLGElement man = factory.createNounPhrase("男人");
+
+		np.setFeature("elements", Arrays.asList(man, "string"));
+		Assert.assertEquals(np.getFeatureAsElementList("elements"), np
+				.getFeatureAsElementListView("elements"));
+		Assert.assertEquals(np.getFeatureAsList("elements"), np
+				.getFeatureAsListView("elements"));
+		Assert.assertEquals(np.getFeatureAsStringList("elements"), np
+				.getFeatureAsStringListView("elements"));
+
+		np.setFeature("strings", Arrays.asList("一", "二"));
+		List<String> strings = np.getFeatureAsStringListView("strings");
+		Assert.assertEquals(Arrays.asList("一", "二"), strings);
+		try {
+			strings.add("三");
+			Assert.fail("string list view should be read-only");
+		} catch (UnsupportedOperationException ex) {
+			// expected
+		}
+
+		// an element view is made once, and again after a write
+		np.setFeature("elements", Arrays.asList(man, np.getHead()));
+		List<NLGElement> elements = np.getFeatureAsElementListView("elements");
+		Assert.assertSame(elements, np.getFeatureAsElementListView("elements"));
+		np.setFeature("elements", Arrays.asList(man));
+		Assert.assertEquals(Arrays.asList(man), np
+				.getFeatureAsElementListView("elements"));
+
+		Assert.assertEquals(0, np.getFeatureAsListView("missing").size());
+		Assert.assertEquals(0, np.getFeatureAsElementListView("missing")
+				.size());
+	}
+
+	@Test
+	public void childIterationTest() {
+		NLGFactory factory = new NLGFactory(new XMLLexicon());
+		NPPhraseSpec dog = factory.createNounPhrase("一", "条", "狗");
+		dog.addPreModifier("黑");
+		VPPhraseSpec vp = factory.createVerbPhrase("踢");
+		SPhraseSpec clause = factory.createClause(factory
+				.createNounPhrase("男人"), vp, dog);
+		clause.setFeature(Feature.CUE_PHRASE, "然后");
+		ListElement list = new ListElement(Arrays.asList((NLGElement) dog, vp));
+
+		for (NLGElement element : new NLGElement[] { dog, vp, clause, list,
+				dog.getHead() }) {
+			List<NLGElement> children = element.getChildren();
+			Assert.assertEquals(children.size(), element.getChildCount());
+			for (int i = 0; i < children.size(); i++) {
+				Assert.assertEquals(children.get(i), element.getChild(i));
+			}
+			try {
+				element.getChild(children.size());
+				Assert.fail("there should be no child at "
+						+ children.size());
+			} catch (IndexOutOfBoundsException ex) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void sharedFeaturesTest() {
+		XMLLexicon lexicon = new XMLLexicon();
+		WordElement dog = lexicon.lookupWord("狗", LexicalCategory.NOUN);
+		WordElement original = lexicon.getWord("狗");
+
+		dog.setFeature(LexicalFeature.PROPER, true);
+		dog.setFeature("adhoc", "value");
+		Assert.assertTrue(dog.getFeatureAsBoolean(LexicalFeature.PROPER)
+				.booleanValue());
+		Assert.assertFalse(original.hasFeature("adhoc"));
+		Assert.assertFalse(original.getFeatureAsBoolean(LexicalFeature.PROPER)
+				.booleanValue());
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.syntax.mandarin;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.NumberAgreement;
+import simplenlg.features.Tense;
+import simplenlg.framework.CoordinatedPhraseElement;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.NLGFactory;
+import simplenlg.framework.StringElement;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.XMLLexicon;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+
+/**
+ * Tests that equal elements have equal hash codes and fingerprints, and that
+ * a fingerprint is forgotten when anything in the tree below it changes.
+ */
+public class FingerprintTest {
+
+	private final NLGFactory factory = new NLGFactory(new XMLLexicon());
+
+	private SPhraseSpec makeClause() {
+		NPPhraseSpec dog = this.factory.createNounPhrase("一", "条", "狗");
+		CoordinatedPhraseElement subject = this.factory.createCoordinatedPhrase(
+				this.factory.createNounPhrase("男人"), this.factory
+						.createNounPhrase("女人"));
+		return this.factory.createClause(subject, "踢", dog);
+	}
+
+	@Test
+	public void equalElementsTest() {
+		SPhraseSpec clause = makeClause();
+		SPhraseSpec other = makeClause();
+		Assert.assertEquals(clause, other);
+		Assert.assertEquals(clause.hashCode(), other.hashCode());
+		Assert.assertEquals(clause.getFingerprint(), other.getFingerprint());
+		Assert.assertEquals(clause.getFingerprint(), clause.deepCopy()
+				.getFingerprint());
+
+		Set<NLGElement> set = new HashSet<NLGElement>();
+		set.add(clause);
+		Assert.assertTrue(set.contains(other));
+
+		other.setFeature(Feature.TENSE, Tense.PAST);
+		Assert.assertFalse(clause.getFingerprint() == other.getFingerprint());
+		Assert.assertFalse(clause.equals(other));
+		Assert.assertFalse(set.contains(other));
+
+		// string elements differ by their text
+		Assert.assertFalse(new StringElement("黑").getFingerprint() == new StringElement(
+				"白").getFingerprint());
+	}
+
+	@Test
+	public void wordTest() {
+		// phrases which differ only in their head words differ
+		NPPhraseSpec dog = this.factory.createNounPhrase("那", "狗");
+		NPPhraseSpec student = this.factory.createNounPhrase("那", "学生");
+		Assert.assertFalse(dog.equals(student));
+		Assert.assertFalse(dog.getFingerprint() == student.getFingerprint());
+
+		// words are equal only if their categories are, as are fingerprints
+		WordElement noun = new WordElement("x", LexicalCategory.NOUN);
+		WordElement verb = new WordElement("x", LexicalCategory.VERB);
+		Assert.assertFalse(noun.equals(verb));
+		Assert.assertFalse(noun.getFingerprint() == verb.getFingerprint());
+		WordElement otherNoun = new WordElement("x", LexicalCategory.NOUN);
+		Assert.assertEquals(noun, otherNoun);
+		Assert.assertEquals(noun.hashCode(), otherNoun.hashCode());
+
+		// the fingerprint is forgotten when the base form or id is set
+		long before = noun.getFingerprint();
+		noun.setBaseForm("y");
+		Assert.assertFalse(before == noun.getFingerprint());
+		before = noun.getFingerprint();
+		noun.setId("E1");
+		Assert.assertFalse(before == noun.getFingerprint());
+	}
+
+	@Test
+	public void changeTest() {
+		SPhraseSpec clause = makeClause();
+		long before = clause.getFingerprint();
+		Assert.assertEquals(before, clause.getFingerprint());
+
+		// the object has no parent, so the change reaches the clause through
+		// the fingerprints worked out from the object's
+		NPPhraseSpec object = (NPPhraseSpec) clause.getObject();
+		object.addPreModifier("黑");
+		long changed = clause.getFingerprint();
+		Assert.assertFalse(before == changed);
+		Assert.assertEquals(makeClause().getFingerprint(), before);
+
+		object.getHead().setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+		Assert.assertFalse(changed == clause.getFingerprint());
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * The Original Code is "Simplenlg".
+ *
+ * The Initial Developer of the Original Code is Ehud Reiter, Albert Gatt and Dave Westwater.
+ * Portions created by Ehud Reiter, Albert Gatt and Dave Westwater are Copyright (C) 2010-11 The University of Aberdeen. All Rights Reserved.
+ *
+ * Contributor(s): Ehud Reiter, Albert Gatt, Dave Wewstwater, Roman Kutlak, Margaret Mitchell, Saad Mahamood.
+ */
+package simplenlg.syntax.mandarin;
+
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import simplenlg.features.Feature;
+import simplenlg.features.InterrogativeType;
+import simplenlg.features.Tense;
+import simplenlg.framework.CoordinatedPhraseElement;
+import simplenlg.framework.DocumentElement;
+import simplenlg.framework.ElementCopier;
+import simplenlg.framework.LexicalCategory;
+import simplenlg.framework.NLGElement;
+import simplenlg.framework.NLGFactory;
+import simplenlg.framework.PhraseElement;
+import simplenlg.framework.WordElement;
+import simplenlg.lexicon.XMLLexicon;
+import simplenlg.phrasespec.NPPhraseSpec;
+import simplenlg.phrasespec.SPhraseSpec;
+import simplenlg.realiser.mandarin.Realiser;
+
+/**
+ * Tests that variants made from a frozen tree share its unchanged elements,
+ * realise as the same trees built by changing a copy do, and that neither
+ * the frozen tree nor the tree it was frozen from can be changed through the
+ * other.
+ */
+public class FrozenElementTest {
+
+	private final XMLLexicon lexicon = new XMLLexicon();
+
+	private final NLGFactory factory = new NLGFactory(this.lexicon);
+
+	private final Realiser realiser = new Realiser(this.lexicon);
+
+	private SPhraseSpec makeClause() {
+		NPPhraseSpec dog = this.factory.createNounPhrase("一", "条", "狗");
+		CoordinatedPhraseElement subject = this.factory.createCoordinatedPhrase(
+				this.factory.createNounPhrase("男人"), this.factory
+						.createNounPhrase("女人"));
+		return this.factory.createClause(subject, "踢", dog);
+	}
+
+	/**
+	 * @return the realisation of a new clause with one feature set.
+	 */
+	private String realiseChanged(String featureName, Object featureValue) {
+		SPhraseSpec clause = makeClause();
+		clause.setFeature(featureName, featureValue);
+		return this.realiser.realiseSentence(clause);
+	}
+
+	@Test
+	public void variantTest() {
+		SPhraseSpec base = (SPhraseSpec) makeClause().freeze();
+		Assert.assertTrue(base.isFrozen());
+		Assert.assertSame(base, base.freeze());
+		String expected = this.realiser.realiseSentence(makeClause());
+		Assert.assertEquals(expected, this.realiser.realiseSentence(base));
+
+		SPhraseSpec past = (SPhraseSpec) base.withFeature(Feature.TENSE,
+				Tense.PAST);
+		SPhraseSpec negated = (SPhraseSpec) base.withFeature(Feature.NEGATED,
+				true);
+		SPhraseSpec question = (SPhraseSpec) base.withFeature(
+				Feature.INTERROGATIVE_TYPE, InterrogativeType.YES_NO);
+		SPhraseSpec passive = (SPhraseSpec) base.withFeature(Feature.PASSIVE,
+				true);
+		Assert.assertEquals(realiseChanged(Feature.TENSE, Tense.PAST),
+				this.realiser.realiseSentence(past));
+		Assert.assertEquals(realiseChanged(Feature.NEGATED, true),
+				this.realiser.realiseSentence(negated));
+		Assert.assertEquals(realiseChanged(Feature.INTERROGATIVE_TYPE,
+				InterrogativeType.YES_NO), this.realiser
+				.realiseSentence(question));
+		Assert.assertEquals(realiseChanged(Feature.PASSIVE, true),
+				this.realiser.realiseSentence(passive));
+
+		// the variants share what they did not change, and realising them
+		// changed nothing
+		Assert.assertSame(base.getSubject(), past.getSubject());
+		Assert.assertSame(base.getObject(), question.getObject());
+		Assert.assertNotSame(base.getVerbPhrase(), past.getVerbPhrase());
+		Assert.assertFalse(Tense.PAST.equals(base.getFeature(Feature.TENSE)));
+		Assert.assertEquals(expected, this.realiser.realiseSentence(base));
+		Assert.assertEquals(makeClause(), base);
+		Assert.assertFalse(base.getFingerprint() == past.getFingerprint());
+
+		// variants reached in different ways are equal
+		SPhraseSpec positive = (SPhraseSpec) base.withFeature(
+				Feature.NEGATED, false);
+		Assert.assertEquals(positive, negated.withFeature(Feature.NEGATED, false));
+		Assert.assertEquals(positive.hashCode(), negated.withFeature(
+				Feature.NEGATED, false).hashCode());
+	}
+
+	@Test
+	public void immutabilityTest() {
+		SPhraseSpec clause = makeClause();
+		String before = clause.printTree(null);
+		SPhraseSpec frozen = (SPhraseSpec) clause.freeze();
+		Assert.assertNotSame(clause, frozen);
+		Assert.assertFalse(clause.isFrozen());
+
+		try {
+			frozen.setFeature(Feature.TENSE, Tense.PAST);
+			Assert.fail("a frozen clause was changed");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			((NPPhraseSpec) frozen.getObject()).addPreModifier("黑");
+			Assert.fail("a frozen noun phrase was changed");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+
+		// the tree frozen from is unchanged by variants, and changes to it
+		// are not seen in the frozen tree
+		frozen.withFeature(Feature.NEGATED, true);
+		Assert.assertEquals(before, clause.printTree(null));
+		((NPPhraseSpec) clause.getObject()).addPreModifier("黑");
+		Assert.assertEquals(before, frozen.printTree(null));
+		Assert.assertTrue(frozen.getObject().isFrozen());
+		Assert.assertFalse(clause.getObject().isFrozen());
+
+		WordElement word = (WordElement) this.lexicon.getWord("狗",
+				LexicalCategory.NOUN).freeze();
+		try {
+			word.setBaseForm("猫");
+			Assert.fail("the base form of a frozen word was changed");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			word.setId("E1");
+			Assert.fail("the id of a frozen word was changed");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void documentTest() {
+		DocumentElement sentence = (DocumentElement) this.factory
+				.createSentence(makeClause()).freeze();
+		SPhraseSpec clause = (SPhraseSpec) sentence.getChildren().get(0);
+		DocumentElement question = sentence.withComponents(Arrays
+				.<NLGElement> asList(clause.withFeature(
+						Feature.INTERROGATIVE_TYPE, InterrogativeType.WHO_SUBJECT)));
+
+		SPhraseSpec expected = makeClause();
+		expected.setFeature(Feature.INTERROGATIVE_TYPE,
+				InterrogativeType.WHO_SUBJECT);
+		Assert.assertEquals(this.realiser.realise(
+				this.factory.createSentence(expected)).getRealisation(),
+				this.realiser.realise(question).getRealisation());
+	}
+
+	@Test
+	public void copyOnDemandTest() {
+		SPhraseSpec frozen = (SPhraseSpec) makeClause().freeze();
+		SPhraseSpec copy = (SPhraseSpec) ElementCopier.copyOnDemand(frozen);
+		Assert.assertFalse(copy.isFrozen());
+		Assert.assertEquals(frozen, copy);
+
+		// the elements below the copy are copied as they are reached
+		PhraseElement object = (PhraseElement) copy.getObject();
+		Assert.assertNotSame(frozen.getObject(), object);
+		Assert.assertFalse(object.isFrozen());
+		Assert.assertFalse(object.getHead().isFrozen());
+		object.addPreModifier("黑");
+		copy.setFeature(Feature.TENSE, Tense.PAST);
+		Assert.assertEquals(makeClause(), frozen);
+		Assert.assertFalse(frozen.equals(copy));
+
+		// a frozen tree realises as before with a cache, each time
+		Realiser cached = new Realiser(this.lexicon);
+		cached.setRealisationCache(new RealisationCache());
+		String expected = this.realiser.realiseSentence(makeClause());
+		Assert.assertEquals(expected, cached.realiseSentence(frozen));
+		Assert.assertEquals(expected, cached.realiseSentence(frozen));
+		Assert.assertTrue(cached.getRealisationCache().getHitCount() > 0);
+		Assert.assertEquals(makeClause(), frozen);
+	}
+}